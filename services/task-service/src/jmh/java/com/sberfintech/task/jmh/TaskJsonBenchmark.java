@@ -0,0 +1,71 @@
+package com.sberfintech.task.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.mapper.TaskMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson на ответах API и событиях Kafka. ObjectMapper собирается так же, как в Spring Boot:
+ * с JavaTimeModule и датами строкой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private TaskResponse response;
+    private TaskEvent event;
+    private byte[] eventJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        response = new TaskMapperImpl().toResponse(TaskMapperBenchmark.sampleTask(now));
+        event = TaskEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(EventType.TASK_ASSIGNED)
+                .taskId(response.getId())
+                .userId(2L)
+                .description("Задача назначена исполнителю")
+                .timestamp(now)
+                .build();
+        eventJson = objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] writeTaskResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeTaskEvent() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public TaskEvent readTaskEvent() throws Exception {
+        return objectMapper.readValue(eventJson, TaskEvent.class);
+    }
+}
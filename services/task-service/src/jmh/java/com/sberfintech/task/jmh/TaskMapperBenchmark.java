@@ -0,0 +1,121 @@
+package com.sberfintech.task.jmh;
+
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.UpdateTaskRequest;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.mapper.TaskMapperImpl;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct-маппер на горячих путях API. Неверные priority/status разбираются через исключение
+ * из valueOf, поэтому для них отдельные замеры.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private final TaskMapper taskMapper = new TaskMapperImpl();
+
+    private Task task;
+    private Task updateTarget;
+    private CreateTaskRequest createRequest;
+    private UpdateTaskRequest updateRequest;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        task = sampleTask(now);
+        updateTarget = sampleTask(now);
+        createRequest = CreateTaskRequest.builder()
+                .title("Ремонт кондиционера")
+                .description("Необходимо заменить фильтры в кондиционере")
+                .creatorId(1L)
+                .propertyId(101L)
+                .assetId(201L)
+                .priority(TaskPriority.HIGH)
+                .dueDate(now.plusDays(1))
+                .build();
+        updateRequest = UpdateTaskRequest.builder()
+                .title("Ремонт кондиционера срочно!")
+                .priority(TaskPriority.CRITICAL)
+                .dueDate(now.plusHours(4))
+                .status("in_progress")
+                .build();
+    }
+
+    static Task sampleTask(LocalDateTime now) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .title("Ремонт кондиционера")
+                .description("Необходимо заменить фильтры в кондиционере")
+                .status(TaskStatus.IN_PROGRESS)
+                .priority(TaskPriority.HIGH)
+                .creationDate(now)
+                .dueDate(now.plusDays(1))
+                .creatorId(1L)
+                .assigneeId(2L)
+                .propertyId(101L)
+                .assetId(201L)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(3L)
+                .build();
+    }
+
+    @Benchmark
+    public TaskResponse toResponse() {
+        return taskMapper.toResponse(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return taskMapper.toEntity(createRequest);
+    }
+
+    @Benchmark
+    public Task updateEntity() {
+        taskMapper.updateEntity(updateRequest, updateTarget);
+        return updateTarget;
+    }
+
+    @Benchmark
+    public TaskPriority mapPriority() {
+        return taskMapper.mapPriority("high");
+    }
+
+    @Benchmark
+    public TaskPriority mapPriorityInvalid() {
+        return taskMapper.mapPriority("urgent");
+    }
+
+    @Benchmark
+    public TaskStatus mapStatus() {
+        return taskMapper.mapStatus("in_progress");
+    }
+
+    @Benchmark
+    public TaskStatus mapStatusInvalid() {
+        return taskMapper.mapStatus("paused");
+    }
+}
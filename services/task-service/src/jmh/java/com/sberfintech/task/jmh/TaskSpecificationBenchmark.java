@@ -0,0 +1,62 @@
+package com.sberfintech.task.jmh;
+
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка спецификации поиска: разбор статуса и приоритета из строки и замыкание с фильтром.
+ * Сами предикаты строятся уже в Hibernate и здесь не учитываются.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSpecificationBenchmark {
+
+    private final TaskSpecificationBuilder taskSpecificationBuilder = new TaskSpecificationBuilder();
+
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+
+    @Setup
+    public void setUp() {
+        createdBefore = LocalDateTime.now();
+        createdAfter = createdBefore.minusDays(30);
+    }
+
+    @Benchmark
+    public Specification<Task> allFilters() {
+        return taskSpecificationBuilder.buildSearchSpecification(2L, 1L, "in_progress", "high", 101L,
+                createdAfter, createdBefore);
+    }
+
+    @Benchmark
+    public Specification<Task> noFilters() {
+        return taskSpecificationBuilder.buildSearchSpecification(null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Object invalidStatus() {
+        try {
+            return taskSpecificationBuilder.buildSearchSpecification(null, null, "paused", null, null, null, null);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.sberfintech.task.jmh;
+
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки переходов. Отказ в старте формирует сообщение через String.format, поэтому замерен отдельно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskValidatorBenchmark {
+
+    private final TaskValidator taskValidator = new TaskValidator(new SimpleMeterRegistry());
+
+    private Task assigned;
+    private Task completed;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        assigned = TaskMapperBenchmark.sampleTask(now);
+        assigned.setStatus(TaskStatus.ASSIGNED);
+        completed = TaskMapperBenchmark.sampleTask(now);
+        completed.setStatus(TaskStatus.COMPLETED);
+    }
+
+    @Benchmark
+    public Task validateForCreate() {
+        taskValidator.validateForCreate(assigned);
+        return assigned;
+    }
+
+    @Benchmark
+    public Task validateForStart() {
+        taskValidator.validateForStart(assigned, 2L);
+        return assigned;
+    }
+
+    @Benchmark
+    public Object validateForStartRejected() {
+        try {
+            taskValidator.validateForStart(completed, 2L);
+            return completed;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Task validateForCancel() {
+        taskValidator.validateForCancel(assigned);
+        return assigned;
+    }
+
+    @Benchmark
+    public Task validateEscalation() {
+        taskValidator.validateEscalation(assigned, 3L);
+        return assigned;
+    }
+}
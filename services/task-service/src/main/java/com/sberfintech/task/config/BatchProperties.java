@@ -0,0 +1,19 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.batch")
+public class BatchProperties {
+
+    /**
+     * Максимальное число задач в одном запросе POST /tasks/batch.
+     */
+    private int maxItems = 10000;
+
+    /**
+     * Размер JDBC-пачки. При reWriteBatchedInserts=true драйвер склеивает пачку в многострочный INSERT.
+     */
+    private int jdbcBatchSize = 1000;
+}
@@ -0,0 +1,99 @@
+package com.sberfintech.task.config;
+
+import com.sberfintech.task.datasource.GovernedDataSource;
+import com.sberfintech.task.datasource.ReadYourWritesFilter;
+import com.sberfintech.task.datasource.TaskRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Primary и пулы реплик за одним {@link TaskRoutingDataSource}. Заменяет автоконфигурацию DataSource:
+ * пул primary собирается из spring.datasource.* и spring.datasource.hikari.*, как и без маршрутизации.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "task.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    public TaskRoutingDataSource taskRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                       DataSourceRoutingProperties routingProperties,
+                                                       DbGovernorProperties governorProperties,
+                                                       Environment environment,
+                                                       MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("task-primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<DataSourceRoutingProperties.Replica> configured = routingProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("task-replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setDriverClassName(primary.getDriverClassName());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(metrics);
+            replicas.add(pool);
+        }
+        Function<HikariDataSource, DataSource> gate = governorProperties.isEnabled()
+                ? pool -> new GovernedDataSource(pool, governorProperties.getAcquireTimeout(), meterRegistry)
+                : pool -> pool;
+        return new TaskRoutingDataSource(primary, replicas, routingProperties.getMaxLag(), gate, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TaskRoutingDataSource taskRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(taskRoutingDataSource);
+        // без явных значений прокси запросил бы соединение при старте, чтобы их узнать
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            DataSourceRoutingProperties routingProperties) {
+        // окно короче допустимого отставания не защищает от чтения реплики, ещё не получившей запись
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(routingProperties.getClientIdHeader(),
+                max(routingProperties.getReadYourWritesWindow(), routingProperties.getMaxLag()),
+                routingProperties.getMaxTrackedClients());
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,52 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Направлять read-only транзакции на реплики. Без этого весь трафик идёт в spring.datasource.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Реплика с отставанием больше этого значения (или не ответившая на проверку) выводится из ротации.
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * Сколько после своей записи клиент читает только с primary. Не может быть меньше max-lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Сколько клиентов с недавней записью помнит экземпляр.
+     */
+    private long maxTrackedClients = 100_000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Учётные данные реплики; по умолчанию те же, что у spring.datasource.
+         */
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
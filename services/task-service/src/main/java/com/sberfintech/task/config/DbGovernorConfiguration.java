@@ -0,0 +1,60 @@
+package com.sberfintech.task.config;
+
+import com.sberfintech.task.datasource.GovernedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Ставит {@link GovernedDataSource} перед пулом из автоконфигурации. В режиме маршрутизации пулы оборачивает
+ * {@link DataSourceRoutingConfiguration}, а бин DataSource там не HikariDataSource и сюда не попадает.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "task.db-governor", name = "enabled", havingValue = "true")
+public class DbGovernorConfiguration {
+
+    // static и ленивые зависимости: пост-процессор создаётся раньше остальных бинов;
+    // тип возврата конкретный, чтобы порядок (Ordered) был виден до создания бина
+    @Bean
+    public static GovernorPostProcessor governedDataSourcePostProcessor(Environment environment,
+                                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GovernorPostProcessor(environment, meterRegistry);
+    }
+
+    /**
+     * Срабатывает раньше остальных обёрток DataSource (см. {@link SqlStatsConfiguration}), пока бин ещё
+     * HikariDataSource.
+     */
+    static final class GovernorPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        GovernorPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource pool)) {
+                return bean;
+            }
+            DbGovernorProperties properties = Binder.get(environment)
+                    .bindOrCreate("task.db-governor", DbGovernorProperties.class);
+            return new GovernedDataSource(pool, properties.getAcquireTimeout(), meterRegistry.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
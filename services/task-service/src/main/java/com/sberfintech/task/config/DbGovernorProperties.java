@@ -0,0 +1,22 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.db-governor")
+public class DbGovernorProperties {
+
+    /**
+     * Ставить семафор перед каждым пулом соединений. Рассчитано на режим виртуальных потоков.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Сколько запрос ждёт разрешения на соединение. Ожидание на семафоре дешёвое, поэтому может быть
+     * заметно длиннее connection-timeout пула.
+     */
+    private Duration acquireTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,40 @@
+package com.sberfintech.task.config;
+
+import com.sberfintech.task.model.TaskPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task.escalation")
+public class EscalationProperties {
+
+    /**
+     * Сколько задач эскалируется одним UPDATE и одной транзакцией.
+     */
+    private int chunkSize = 5000;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * Правило вида "CRITICAL, просрочена на 2h — уровень 1". Задача поднимается до level,
+     * если её срок прошёл не меньше чем overdueBy назад, а текущий уровень эскалации ниже.
+     */
+    @Data
+    public static class Policy {
+
+        private TaskPriority priority;
+
+        private Duration overdueBy;
+
+        private int level;
+
+        /**
+         * Кому передаётся задача. Если не задан, исполнитель не меняется.
+         */
+        private Long escalateTo;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.export")
+public class ExportProperties {
+
+    /**
+     * Через сколько строк сбрасывать буфер ответа клиенту. Первая строка сбрасывается всегда сразу.
+     */
+    private int flushIntervalRows = 100;
+
+    /**
+     * Сколько строк читать из БД одним keyset-запросом.
+     */
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,19 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.facets")
+public class FacetProperties {
+
+    /**
+     * Сколько самых частых значений отдавать для исполнителей и объектов недвижимости.
+     */
+    private int maxValues = 20;
+
+    /**
+     * Доля страниц таблицы в процентах, которую читает приблизительный подсчёт.
+     */
+    private double samplePercent = 1.0;
+}
@@ -0,0 +1,33 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.inbox")
+public class InboxProperties {
+
+    /**
+     * Вести входящие исполнителей в Redis. При выключении GET /tasks/assignee/{id}/inbox читает БД.
+     */
+    private boolean enabled = true;
+
+    private String keyPrefix = "task:inbox";
+
+    /**
+     * Сколько задач отдаётся из входящих за один запрос.
+     */
+    private int maxSize = 500;
+
+    /**
+     * Сколько задач применяется к Redis одним скриптом при синхронизации массовых изменений.
+     */
+    private int syncChunkSize = 500;
+
+    /**
+     * Сколько хранится версия закрытой задачи: запоздалая синхронизация старой версии не вернёт её во входящие.
+     */
+    private Duration tombstoneTtl = Duration.ofHours(1);
+}
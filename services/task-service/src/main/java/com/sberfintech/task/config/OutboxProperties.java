@@ -0,0 +1,18 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.outbox")
+public class OutboxProperties {
+
+    private int batchSize = 500;
+
+    /**
+     * Сколько ждать подтверждения брокера для пачки, прежде чем откатить её и повторить позже.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,30 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.overdue")
+public class OverdueProperties {
+
+    /**
+     * Разрешение колеса таймеров: задача помечается просроченной не позже чем через тик после срока.
+     */
+    private Duration tick = Duration.ofMillis(100);
+
+    private int wheelSize = 64;
+
+    /**
+     * Насколько вперёд сроки загружаются из БД в колесо. Более дальние подгружаются по мере приближения.
+     */
+    private Duration horizon = Duration.ofMinutes(10);
+
+    /**
+     * Число слайсов расписания, распределяемых между экземплярами через advisory-локи (не больше 256).
+     */
+    private int slices = 16;
+
+    private int batchSize = 500;
+}
@@ -0,0 +1,34 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.reactive")
+public class ReactiveProperties {
+
+    /**
+     * Поднимать пул R2DBC и API /reactive/tasks.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Адрес вида r2dbc:postgresql://host:5432/db. Если не задан, выводится из spring.datasource.url,
+     * учётные данные берутся из spring.datasource.*. Можно указать реплику: API только читает.
+     */
+    private String url;
+
+    private int initialSize = 2;
+
+    private int maxSize = 20;
+
+    private Duration maxIdleTime = Duration.ofMinutes(30);
+
+    /**
+     * Сколько строк драйвер запрашивает у Postgres за раз при потоковом чтении. Следующая порция
+     * запрашивается, только когда подписчик готов её принять.
+     */
+    private int fetchSize = 250;
+}
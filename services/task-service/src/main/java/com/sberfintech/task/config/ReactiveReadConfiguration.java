@@ -0,0 +1,65 @@
+package com.sberfintech.task.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+/**
+ * Пул R2DBC для реактивного API чтения. Автоконфигурация R2DBC отключена: она требует отдельного
+ * spring.r2dbc.url и регистрирует реактивный менеджер транзакций рядом с JPA-шным.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "task.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadConfiguration {
+
+    private static final String JDBC_POSTGRES_PREFIX = "jdbc:postgresql:";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool taskConnectionPool(ReactiveProperties reactiveProperties,
+                                             DataSourceProperties dataSourceProperties) {
+        String url = StringUtils.hasText(reactiveProperties.getUrl())
+                ? reactiveProperties.getUrl()
+                : toR2dbcUrl(dataSourceProperties.determineUrl());
+
+        ConnectionFactoryOptions parsed = ConnectionFactoryOptions.parse(url);
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.builder().from(parsed);
+        if (!parsed.hasOption(ConnectionFactoryOptions.USER) && dataSourceProperties.determineUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+        }
+        if (!parsed.hasOption(ConnectionFactoryOptions.PASSWORD) && dataSourceProperties.determinePassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword());
+        }
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("task-r2dbc")
+                .initialSize(reactiveProperties.getInitialSize())
+                .maxSize(reactiveProperties.getMaxSize())
+                .maxIdleTime(reactiveProperties.getMaxIdleTime())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient taskDatabaseClient(ConnectionPool taskConnectionPool) {
+        return DatabaseClient.create(taskConnectionPool);
+    }
+
+    /**
+     * jdbc:postgresql://host:port/db?params -> r2dbc:postgresql://host:port/db. Параметры JDBC-драйвера
+     * (reWriteBatchedInserts и т.п.) у R2DBC другие, поэтому отбрасываются.
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith(JDBC_POSTGRES_PREFIX)) {
+            throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl + ", set task.reactive.url");
+        }
+        String rest = jdbcUrl.substring(JDBC_POSTGRES_PREFIX.length());
+        int params = rest.indexOf('?');
+        return "r2dbc:postgresql:" + (params < 0 ? rest : rest.substring(0, params));
+    }
+}
@@ -0,0 +1,19 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.sla")
+public class SlaProperties {
+
+    /**
+     * Сворачивать длительности назначения, завершения и отмены в дневные SLA-итоги и отдавать их через GET /tasks/sla.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Самый длинный диапазон дат, который сливает один запрос GET /tasks/sla.
+     */
+    private int maxRangeDays = 366;
+}
@@ -0,0 +1,85 @@
+package com.sberfintech.task.config;
+
+import com.sberfintech.task.datasource.StatementCountingDataSource;
+import com.sberfintech.task.metrics.SqlStatsEndpoint;
+import com.sberfintech.task.metrics.SqlStatsResetEndpoint;
+import com.sberfintech.task.metrics.StatementBudgetFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Видимость SQL без show-sql: статистика Hibernate, лог медленных запросов и подсчёт операторов на HTTP-запрос.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "task.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfiguration {
+
+    /**
+     * Оборачивает основной DataSource последним, поверх {@link DbGovernorConfiguration}: тому нужен сам
+     * HikariDataSource. В режиме маршрутизации основной бин — LazyConnectionDataSourceProxy над всеми пулами.
+     */
+    @Bean
+    public static StatementCountingPostProcessor statementCountingDataSourcePostProcessor() {
+        return new StatementCountingPostProcessor();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernateProperties(SqlStatsProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.put(AvailableSettings.LOG_SLOW_QUERY, properties.getSlowQueryThreshold().toMillis());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(SqlStatsProperties properties,
+                                                                               MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(
+                new StatementBudgetFilter(properties.getStatementBudget(), meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = SqlStatsEndpoint.class)
+    public SqlStatsEndpoint sqlStatsEndpoint(EntityManagerFactory entityManagerFactory,
+                                             MeterRegistry meterRegistry,
+                                             SqlStatsProperties properties) {
+        return new SqlStatsEndpoint(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), meterRegistry,
+                properties.getStatementBudget(), properties.getSlowQueryThreshold());
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = SqlStatsResetEndpoint.class)
+    public SqlStatsResetEndpoint sqlStatsResetEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new SqlStatsResetEndpoint(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    static final class StatementCountingPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new StatementCountingDataSource(dataSource);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
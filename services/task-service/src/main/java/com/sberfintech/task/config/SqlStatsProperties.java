@@ -0,0 +1,27 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.sql-stats")
+public class SqlStatsProperties {
+
+    /**
+     * Статистика Hibernate, подсчёт операторов на запрос и эндпоинт /actuator/sqlstats.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько SQL-операторов может подготовить один HTTP-запрос; сверх бюджета запрос попадает в лог
+     * и в счётчик task.sql.statement.budget.exceeded.
+     */
+    private int statementBudget = 20;
+
+    /**
+     * Запросы дольше порога Hibernate пишет в лог org.hibernate.SQL_SLOW, а /actuator/sqlstats помечает как slow.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+}
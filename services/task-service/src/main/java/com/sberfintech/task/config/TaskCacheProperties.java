@@ -0,0 +1,18 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.cache")
+public class TaskCacheProperties {
+
+    private long maxSize = 50_000;
+
+    /**
+     * Предельный возраст записи: дольше этого устаревшая карточка не отдаётся, даже если событие об изменении потерялось.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,19 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.events")
+public class TaskEventsProperties {
+
+    private String topic = "task-events";
+
+    /**
+     * Подряд идущие TASK_UPDATED одной задачи, попавшие в это окно, схлопываются в одно событие.
+     * Нулевое окно отключает схлопывание.
+     */
+    private Duration coalesceWindow = Duration.ofMillis(500);
+}
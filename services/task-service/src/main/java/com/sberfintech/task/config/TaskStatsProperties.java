@@ -0,0 +1,25 @@
+package com.sberfintech.task.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.stats")
+public class TaskStatsProperties {
+
+    /**
+     * Вести счётчики открытых задач в памяти и отдавать их через GET /tasks/stats.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Как часто счётчики пересчитываются по БД, чтобы убрать накопившееся расхождение и учесть изменения,
+     * сделанные другими экземплярами.
+     */
+    private long rebuildIntervalMs = 300_000;
+
+    /**
+     * Сколько самых загруженных объектов и исполнителей отдаёт GET /tasks/stats по умолчанию.
+     */
+    private int topSize = 20;
+}
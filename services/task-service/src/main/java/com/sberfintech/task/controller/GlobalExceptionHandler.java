@@ -2,6 +2,7 @@ package com.sberfintech.task.controller;
 
 import com.sberfintech.task.domain.exception.TaskNotFoundException;
 import com.sberfintech.task.domain.exception.TaskOperationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -16,20 +17,42 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(TaskNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public Map<String, Object> handleTaskNotFound(TaskNotFoundException e) {
-        return  Map.of(
+        return Map.of(
                 "timestamp", LocalDateTime.now(),
                 "status", HttpStatus.NOT_FOUND.value(),
                 "error", "Task not found",
-                "message", e.getMessage()
+                "message", String.valueOf(e.getMessage())
+        );
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleIllegalArgument(IllegalArgumentException e) {
+        return Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.BAD_REQUEST.value(),
+                "error", "Bad Request",
+                "message", String.valueOf(e.getMessage())
+        );
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleOptimisticLock(OptimisticLockingFailureException e) {
+        return Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.CONFLICT.value(),
+                "error", "Concurrent modification",
+                "message", String.valueOf(e.getMessage())
         );
     }
 
     public Map<String, Object> handleTaskOperation(TaskOperationException e) {
-        return  Map.of(
+        return Map.of(
                 "timestamp", LocalDateTime.now(),
                 "status", HttpStatus.BAD_REQUEST.value(),
                 "error", "Invalid Task Operation",
-                "message", e.getMessage()
+                "message", String.valueOf(e.getMessage())
         );
     }
 }
@@ -1,8 +1,17 @@
 package com.sberfintech.task.controller;
 
+import com.sberfintech.task.domain.TaskFacetMode;
+import com.sberfintech.task.dto.BatchCreateTasksResponse;
+import com.sberfintech.task.dto.BulkTransitionResponse;
 import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
 import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchResult;
+import com.sberfintech.task.dto.TaskSummary;
 import com.sberfintech.task.dto.UpdateTaskRequest;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.service.TaskExportService;
 import com.sberfintech.task.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,10 +21,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,17 +44,18 @@ public class TaskController {
 
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
 
     //==================== GET ENDPOINTS =====================
 
 
     @GetMapping
-    @Operation(summary = "Получить все задачи", description = "Возвращает список всех задач")
+    @Operation(summary = "Получить все задачи", description = "Возвращает страницу задач, пагинация по курсору")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getAllTasks() {
+    public CursorPage<TaskResponse> getAllTasks(@ParameterObject TaskPageRequest pageRequest) {
         log.info("Получен запрос на получение всех задач");
-        List<TaskResponse> tasks = taskService.getAllTasks();
-        log.info("Найдено {} задач", tasks.size());
+        CursorPage<TaskResponse> tasks = taskService.getAllTasks(pageRequest);
+        log.info("Найдено {} задач на странице", tasks.getItems().size());
         return tasks;
     }
 
@@ -61,73 +75,180 @@ public class TaskController {
     @GetMapping("/assignee/{assigneeId}")
     @Operation(summary = "Получить задачи исполнителя", description = "Возвращает все задачи, назначенные указанному исполнителю")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getTasksByAssignee(
+    public CursorPage<TaskResponse> getTasksByAssignee(
             @Parameter(description = "ID исполнителя", example = "2")
-            @PathVariable Long assigneeId) {
+            @PathVariable Long assigneeId,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение задач для исполнителя ID {}", assigneeId);
-        return taskService.getTasksByAssignee(assigneeId);
+        return taskService.getTasksByAssignee(assigneeId, pageRequest);
+    }
+
+    @GetMapping("/assignee/{assigneeId}/inbox")
+    @Operation(summary = "Получить входящие исполнителя",
+            description = "Возвращает незакрытые задачи исполнителя по убыванию приоритета, затем по сроку выполнения")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public List<TaskResponse> getInbox(
+            @Parameter(description = "ID исполнителя", example = "2")
+            @PathVariable Long assigneeId) {
+
+        log.debug("Получен запрос входящих исполнителя ID {}", assigneeId);
+        return taskService.getInbox(assigneeId);
+    }
+
+    @PostMapping("/assignee/{assigneeId}/inbox/rebuild")
+    @Operation(summary = "Перестроить входящие исполнителя", description = "Пересобирает входящие исполнителя по данным БД")
+    @ApiResponse(responseCode = "200", description = "Входящие перестроены")
+    public List<TaskResponse> rebuildInbox(
+            @Parameter(description = "ID исполнителя", example = "2")
+            @PathVariable Long assigneeId) {
+
+        log.info("Перестроение входящих исполнителя ID {}", assigneeId);
+        return taskService.rebuildInbox(assigneeId);
     }
 
     @GetMapping("/creator/{creatorId}")
     @Operation(summary = "Получить задачи создателя", description = "Возвращает все задачи, созданные указанным пользователем")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getTasksByCreator(
+    public CursorPage<TaskResponse> getTasksByCreator(
             @Parameter(description = "ID создателя", example = "1")
-            @PathVariable Long creatorId) {
+            @PathVariable Long creatorId,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение задач для создателя ID {}", creatorId);
-        return taskService.getTasksByCreator(creatorId);
+        return taskService.getTasksByCreator(creatorId, pageRequest);
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Получить задачи по статусу", description = "Возвращает задачи с указанным статусом")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getTasksByStatus(
+    public CursorPage<TaskResponse> getTasksByStatus(
             @Parameter(description = "Статус задачи", example = "IN_PROGRESS")
-            @PathVariable String status) {
+            @PathVariable String status,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение задач со статусом {}", status);
-        return taskService.getTasksByStatus(status);
+        return taskService.getTasksByStatus(status, pageRequest);
     }
 
     @GetMapping("/priority/{priority}")
     @Operation(summary = "Получить задачи по приоритету", description = "Возвращает задачи с указанным приоритетом")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getTasksByPriority(
+    public CursorPage<TaskResponse> getTasksByPriority(
             @Parameter(description = "Приоритет задачи", example = "HIGH")
-            @PathVariable String priority) {
+            @PathVariable String priority,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение задач с приоритетом {}", priority);
-        return taskService.getTasksByPriority(priority);
+        return taskService.getTasksByPriority(priority, pageRequest);
     }
 
     @GetMapping("/overdue")
     @Operation(summary = "Получить просроченные задачи", description = "Возвращает задачи, у которых истек срок выполнения")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getOverdueTasks() {
+    public CursorPage<TaskResponse> getOverdueTasks(@ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение просроченных задач");
-        return taskService.getOverdueTasks();
+        return taskService.getOverdueTasks(pageRequest);
     }
 
     @GetMapping("/property/{propertyId}")
     @Operation(summary = "Получить задачи по объекту недвижимости",
             description = "Возвращает задачи, связанные с указанным объектом недвижимости")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> getTasksByProperty(
+    public CursorPage<TaskResponse> getTasksByProperty(
             @Parameter(description = "ID объекта недвижимости", example = "101")
-            @PathVariable Long propertyId) {
+            @PathVariable Long propertyId,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
         log.info("Получен запрос на получение задач для объекта недвижимости ID {}", propertyId);
-        return taskService.getTasksByProperty(propertyId);
+        return taskService.getTasksByProperty(propertyId, pageRequest);
+    }
+
+    @GetMapping(value = "/property/{propertyId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить задачи объекта недвижимости потоком",
+            description = "Возвращает все задачи объекта в формате NDJSON, строки отдаются по мере чтения из БД")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public ResponseEntity<StreamingResponseBody> exportTasksByProperty(
+            @Parameter(description = "ID объекта недвижимости", example = "101")
+            @PathVariable Long propertyId) {
+
+        log.info("Получен запрос на потоковую выгрузку задач объекта недвижимости ID {}", propertyId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> taskExportService.exportByProperty(propertyId, out));
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить задачи по статусу потоком",
+            description = "Возвращает все задачи с указанным статусом в формате NDJSON")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public ResponseEntity<StreamingResponseBody> exportTasksByStatus(
+            @Parameter(description = "Статус задачи", example = "IN_PROGRESS")
+            @PathVariable String status) {
+
+        log.info("Получен запрос на потоковую выгрузку задач со статусом {}", status);
+        TaskStatus taskStatus = TaskStatus.valueOf(status.toUpperCase());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> taskExportService.exportByStatus(taskStatus, out));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Поиск задач по критериям",
-            description = "Возвращает задачи, отфильтрованные по различным критериям")
+            description = "Возвращает задачи, отфильтрованные по различным критериям. С параметром q ищет по "
+                    + "названию и описанию и отдаёт задачи по релевантности, параметр sort при этом не учитывается")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public TaskSearchResult searchTasks(
+            @Parameter(description = "Текст для поиска по названию и описанию", example = "протечка крыши")
+            @RequestParam(required = false) String q,
+
+            @Parameter(description = "ID исполнителя", example = "2")
+            @RequestParam(required = false) Long assigneeId,
+
+            @Parameter(description = "ID создателя", example = "1")
+            @RequestParam(required = false) Long creatorId,
+
+            @Parameter(description = "Статус задачи", example = "IN_PROGRESS")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Приоритет задачи", example = "HIGH")
+            @RequestParam(required = false) String priority,
+
+            @Parameter(description = "ID объекта недвижимости", example = "101")
+            @RequestParam(required = false) Long propertyId,
+
+            @Parameter(description = "Дата создания от", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+
+            @Parameter(description = "Дата создания до", example = "2024-12-31T23:59:59")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+
+            @Parameter(description = "Счётчики фасетов по статусу, приоритету, исполнителю и объекту: "
+                    + "NONE, EXACT или APPROXIMATE (оценка по выборке страниц таблицы). Считаются только для "
+                    + "первой страницы, на страницах по курсору не возвращаются", example = "EXACT")
+            @RequestParam(defaultValue = "NONE") TaskFacetMode facets,
+
+            @ParameterObject TaskPageRequest pageRequest) {
+
+        log.info("Поиск задач с параметрами: q={}, assigneeId={}, creatorId={}, status={}, priority={}, propertyId={}, "
+                + "facets={}", q, assigneeId, creatorId, status, priority, propertyId, facets);
+        return taskService.searchTasks(q, assigneeId, creatorId, status, priority, propertyId, createdAfter,
+                createdBefore, pageRequest, facets);
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Краткий список задач по критериям",
+            description = "Те же фильтры, что и у поиска, но без описания и служебных полей задачи")
     @ApiResponse(responseCode = "200", description = "Успешный запрос")
-    public List<TaskResponse> searchTasks(
+    public CursorPage<TaskSummary> searchTaskSummaries(
             @Parameter(description = "ID исполнителя", example = "2")
             @RequestParam(required = false) Long assigneeId,
 
@@ -149,11 +270,14 @@ public class TaskController {
 
             @Parameter(description = "Дата создания до", example = "2024-12-31T23:59:59")
             @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+
+            @ParameterObject TaskPageRequest pageRequest) {
 
-        log.info("Поиск задач с параметрами: assigneeId={}, creatorId={}, status={}, priority={}, propertyId={}",
+        log.info("Краткий список задач с параметрами: assigneeId={}, creatorId={}, status={}, priority={}, propertyId={}",
                 assigneeId, creatorId, status, priority, propertyId);
-        return taskService.searchTasks(assigneeId, creatorId, status, priority, propertyId, createdAfter, createdBefore);
+        return taskService.searchTaskSummaries(assigneeId, creatorId, status, priority, propertyId, createdAfter,
+                createdBefore, pageRequest);
     }
 
     //==================== POST ENDPOINTS =========================
@@ -175,6 +299,23 @@ public class TaskController {
         return createdTask;
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Создать задачи пакетом",
+            description = "Создает множество задач за один запрос, результат возвращается по каждому элементу")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", description = "Превышен размер пакета")
+    })
+    public BatchCreateTasksResponse createTasks(
+            @Parameter(description = "Данные для создания задач")
+            @RequestBody List<CreateTaskRequest> requests) {
+
+        log.info("Пакетное создание {} задач", requests.size());
+        BatchCreateTasksResponse response = taskService.createTasks(requests);
+        log.info("Создано {} задач, отклонено {}", response.getCreated(), response.getFailed());
+        return response;
+    }
+
     @PostMapping("/{id}/assign/{assigneeId}")
     @Operation(summary = "Назначить задачу исполнителю", description = "Назначает задачу указанному исполнителю")
     @ApiResponse(responseCode = "200", description = "Задача успешно назначена")
@@ -245,6 +386,75 @@ public class TaskController {
         return taskService.escalateTask(id, escalatedTo);
     }
 
+    @PostMapping("/bulk/assign/{assigneeId}")
+    @Operation(summary = "Назначить задачи пакетом",
+            description = "Назначает исполнителя всем подходящим задачам одним запросом, по остальным возвращает причину отказа")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", description = "Пустой пакет или превышен размер пакета")
+    })
+    public BulkTransitionResponse bulkAssign(
+            @Parameter(description = "ID задач")
+            @RequestBody List<UUID> taskIds,
+
+            @Parameter(description = "ID исполнителя", example = "2")
+            @PathVariable Long assigneeId) {
+
+        log.info("Пакетное назначение {} задач исполнителю {}", taskIds.size(), assigneeId);
+        return taskService.bulkAssign(taskIds, assigneeId);
+    }
+
+    @PostMapping("/bulk/complete")
+    @Operation(summary = "Завершить задачи пакетом", description = "Изменяет статус задач исполнителя на 'Выполнена'")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", description = "Пустой пакет или превышен размер пакета")
+    })
+    public BulkTransitionResponse bulkComplete(
+            @Parameter(description = "ID задач")
+            @RequestBody List<UUID> taskIds,
+
+            @Parameter(description = "ID пользователя", example = "2")
+            @RequestParam Long userId) {
+
+        log.info("Пакетное завершение {} задач пользователем {}", taskIds.size(), userId);
+        return taskService.bulkComplete(taskIds, userId);
+    }
+
+    @PostMapping("/bulk/cancel")
+    @Operation(summary = "Отменить задачи пакетом", description = "Изменяет статус задач на 'Отменена'")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", description = "Пустой пакет или превышен размер пакета")
+    })
+    public BulkTransitionResponse bulkCancel(
+            @Parameter(description = "ID задач")
+            @RequestBody List<UUID> taskIds,
+
+            @Parameter(description = "Причина отмены", example = "Изменение планов")
+            @RequestParam(required = false) String reason) {
+
+        log.info("Пакетная отмена {} задач с причиной {}", taskIds.size(), reason);
+        return taskService.bulkCancel(taskIds, reason);
+    }
+
+    @PostMapping("/bulk/escalate")
+    @Operation(summary = "Эскалировать задачи пакетом", description = "Эскалирует задачи следующему ответственному лицу")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", description = "Пустой пакет или превышен размер пакета")
+    })
+    public BulkTransitionResponse bulkEscalate(
+            @Parameter(description = "ID задач")
+            @RequestBody List<UUID> taskIds,
+
+            @Parameter(description = "ID пользователя", example = "3")
+            @RequestParam(required = false) Long escalatedTo) {
+
+        log.info("Пакетная эскалация {} задач", taskIds.size());
+        return taskService.bulkEscalate(taskIds, escalatedTo);
+    }
+
     //========================= PUT ENDPOINTS =======================
 
     @PutMapping("/{id}")
@@ -0,0 +1,147 @@
+package com.sberfintech.task.controller;
+
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.service.TaskReactiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Реактивное API чтения для сервисов с большим числом параллельных запросов. Списки отдаются в NDJSON:
+ * MVC подписывается на {@link Flux} и запрашивает следующую задачу только после записи предыдущей в ответ,
+ * поэтому медленный клиент не заставляет держать выборку в памяти. Поток запроса на время чтения не занят.
+ */
+@RestController
+@RequestMapping("/reactive/tasks")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "task.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Task Reactive Read", description = "Неблокирующее чтение задач потоком")
+public class TaskReactiveController {
+
+    private final TaskReactiveService taskReactiveService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Получить задачу по ID", description = "Возвращает задачу по указанному идентификатору")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Задача найдена"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public Mono<TaskResponse> getTaskById(@Parameter(description = "ID задачи")
+                                          @PathVariable UUID id) {
+
+        log.debug("Реактивный запрос задачи с ID {}", id);
+        return taskReactiveService.getTaskById(id);
+    }
+
+    @GetMapping(value = "/assignee/{assigneeId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Задачи исполнителя потоком", description = "Возвращает задачи исполнителя в формате NDJSON")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public Flux<TaskResponse> getTasksByAssignee(
+            @Parameter(description = "ID исполнителя", example = "2")
+            @PathVariable Long assigneeId,
+
+            @Parameter(description = "Поле сортировки", example = "CREATED_AT")
+            @RequestParam(required = false) TaskSortField sort,
+
+            @Parameter(description = "Максимальное число задач", example = "1000")
+            @RequestParam(required = false) Integer limit) {
+
+        log.debug("Реактивный запрос задач исполнителя ID {}", assigneeId);
+        return taskReactiveService.searchTasks(
+                new TaskSearchCriteria(assigneeId, null, null, null, null, null, null), sort, limit);
+    }
+
+    @GetMapping(value = "/property/{propertyId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Задачи объекта недвижимости потоком",
+            description = "Возвращает задачи объекта недвижимости в формате NDJSON")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public Flux<TaskResponse> getTasksByProperty(
+            @Parameter(description = "ID объекта недвижимости", example = "101")
+            @PathVariable Long propertyId,
+
+            @Parameter(description = "Поле сортировки", example = "CREATED_AT")
+            @RequestParam(required = false) TaskSortField sort,
+
+            @Parameter(description = "Максимальное число задач", example = "1000")
+            @RequestParam(required = false) Integer limit) {
+
+        log.debug("Реактивный запрос задач объекта недвижимости ID {}", propertyId);
+        return taskReactiveService.searchTasks(
+                new TaskSearchCriteria(null, null, null, null, propertyId, null, null), sort, limit);
+    }
+
+    @GetMapping(value = "/overdue", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Просроченные задачи потоком",
+            description = "Возвращает открытые задачи с истекшим сроком в формате NDJSON")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public Flux<TaskResponse> getOverdueTasks(
+            @Parameter(description = "Поле сортировки", example = "DUE_DATE")
+            @RequestParam(required = false) TaskSortField sort,
+
+            @Parameter(description = "Максимальное число задач", example = "1000")
+            @RequestParam(required = false) Integer limit) {
+
+        log.debug("Реактивный запрос просроченных задач");
+        return taskReactiveService.getOverdueTasks(sort, limit);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Поиск задач потоком",
+            description = "Те же фильтры, что и у /tasks/search, результат в формате NDJSON без пагинации")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public Flux<TaskResponse> searchTasks(
+            @Parameter(description = "ID исполнителя", example = "2")
+            @RequestParam(required = false) Long assigneeId,
+
+            @Parameter(description = "ID создателя", example = "1")
+            @RequestParam(required = false) Long creatorId,
+
+            @Parameter(description = "Статус задачи", example = "IN_PROGRESS")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Приоритет задачи", example = "HIGH")
+            @RequestParam(required = false) String priority,
+
+            @Parameter(description = "ID объекта недвижимости", example = "101")
+            @RequestParam(required = false) Long propertyId,
+
+            @Parameter(description = "Дата создания от", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+
+            @Parameter(description = "Дата создания до", example = "2024-12-31T23:59:59")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+
+            @Parameter(description = "Поле сортировки", example = "CREATED_AT")
+            @RequestParam(required = false) TaskSortField sort,
+
+            @Parameter(description = "Максимальное число задач", example = "1000")
+            @RequestParam(required = false) Integer limit) {
+
+        log.debug("Реактивный поиск задач: assigneeId={}, creatorId={}, status={}, priority={}, propertyId={}",
+                assigneeId, creatorId, status, priority, propertyId);
+        return taskReactiveService.searchTasks(TaskSearchCriteria.of(assigneeId, creatorId, status, priority,
+                propertyId, createdAfter, createdBefore), sort, limit);
+    }
+}
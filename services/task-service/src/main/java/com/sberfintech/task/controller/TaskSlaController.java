@@ -0,0 +1,72 @@
+package com.sberfintech.task.controller;
+
+import com.sberfintech.task.config.SlaProperties;
+import com.sberfintech.task.domain.TaskSlaRecorder;
+import com.sberfintech.task.dto.TaskSlaResponse;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * SLA-отчёт по объектам и приоритетам. Отдаётся из дневных итогов {@link TaskSlaRecorder}, а не из tasks.
+ */
+@RestController
+@RequestMapping("/tasks")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "task.sla", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Task SLA", description = "Время назначения, завершения и отмены задач")
+public class TaskSlaController {
+
+    private final TaskSlaRecorder taskSlaRecorder;
+    private final SlaProperties slaProperties;
+
+    @GetMapping("/sla")
+    @Operation(summary = "SLA-итоги за диапазон дат",
+            description = "Число задач, среднее, максимум и перцентили времени от создания до назначения, "
+                    + "завершения и отмены по объекту и приоритету. Дни диапазона сливаются из дневных итогов")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    @ApiResponse(responseCode = "400", description = "Некорректный диапазон дат")
+    public List<TaskSlaResponse> getSla(
+            @Parameter(description = "Первый день диапазона", example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Последний день диапазона включительно", example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "ID объекта недвижимости", example = "101")
+            @RequestParam(required = false) Long propertyId,
+
+            @Parameter(description = "Приоритет задачи", example = "HIGH")
+            @RequestParam(required = false) TaskPriority priority,
+
+            @Parameter(description = "Метрика: TIME_TO_ASSIGN, TIME_TO_COMPLETE или TIME_TO_CANCEL",
+                    example = "TIME_TO_COMPLETE")
+            @RequestParam(required = false) TaskSlaMetric metric) {
+
+        log.debug("Получен запрос SLA-итогов: from={}, to={}, propertyId={}, priority={}, metric={}",
+                from, to, propertyId, priority, metric);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end must not be before range start");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= slaProperties.getMaxRangeDays()) {
+            throw new IllegalArgumentException("Range must not exceed " + slaProperties.getMaxRangeDays() + " days");
+        }
+        return taskSlaRecorder.report(from, to, propertyId, priority, metric);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sberfintech.task.controller;
+
+import com.sberfintech.task.config.TaskStatsProperties;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.dto.TaskStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Счётчики открытых задач для дашбордов. Отдаются из {@link TaskStatsRegistry} без обращения к БД.
+ */
+@RestController
+@RequestMapping("/tasks")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "task.stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Task Stats", description = "Счётчики открытых задач")
+public class TaskStatsController {
+
+    private final TaskStatsRegistry taskStatsRegistry;
+    private final TaskStatsProperties taskStatsProperties;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Счётчики открытых задач",
+            description = "Открытые задачи по статусу и приоритету, самые загруженные объекты и исполнители. "
+                    + "Счётчики ведутся в памяти и периодически сверяются с БД")
+    @ApiResponse(responseCode = "200", description = "Успешный запрос")
+    public TaskStatsResponse getStats(
+            @Parameter(description = "Сколько объектов и исполнителей отдать", example = "20")
+            @RequestParam(required = false) Integer top) {
+
+        log.debug("Получен запрос счётчиков открытых задач, top={}", top);
+        int topSize = top == null ? taskStatsProperties.getTopSize() : top;
+        if (topSize < 0) {
+            throw new IllegalArgumentException("Top size must not be negative");
+        }
+        return taskStatsRegistry.stats(topSize);
+    }
+}
@@ -0,0 +1,135 @@
+package com.sberfintech.task.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Пул за честным семафором на maximum-pool-size разрешений.
+ * <p>
+ * Лишние запросы ждут на семафоре, а не внутри Hikari: виртуальный поток при этом паркуется почти бесплатно,
+ * порядок обслуживания FIFO, а предел ожидания задаётся отдельно от connection-timeout пула. Разрешение
+ * освобождается при закрытии соединения.
+ */
+public class GovernedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final HikariDataSource pool;
+    private final String poolName;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public GovernedDataSource(HikariDataSource pool, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(pool);
+        this.pool = pool;
+        this.poolName = pool.getPoolName();
+        this.permits = new Semaphore(pool.getMaximumPoolSize(), true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.waitTimer = Timer.builder("task.db.governor.wait")
+                .description("Time spent waiting for a database permit")
+                .tag("pool", poolName)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("task.db.governor.timeouts")
+                .description("Requests that gave up waiting for a database permit")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("task.db.governor.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Закрывает пул: обёрнутый бин DataSource должен закрываться так же, как сам HikariDataSource.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(poolName + " - interrupted while waiting for a database permit", e);
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException(String.format(
+                    "%s - no database permit within %d ms, %d requests queued",
+                    poolName, TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos), permits.getQueueLength()));
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
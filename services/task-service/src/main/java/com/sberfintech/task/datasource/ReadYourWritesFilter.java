@@ -0,0 +1,58 @@
+package com.sberfintech.task.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes для клиентов с заголовком идентификатора: после изменяющего запроса клиент в течение
+ * окна читает только с primary и не видит состояние реплики до своей записи.
+ * Недавние записи помнит только этот экземпляр, поэтому окно защищает клиента, пока балансировщик
+ * держит его на одном экземпляре.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final String clientIdHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(String clientIdHeader, Duration window, long maxTrackedClients) {
+        this.clientIdHeader = clientIdHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedClients)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(clientIdHeader);
+        if (clientId == null || clientId.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (!write && recentWriters.getIfPresent(clientId) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.requirePrimary()) {
+            chain.doFilter(request, response);
+        } finally {
+            if (write) {
+                // окно отсчитывается от завершения записи, а не от её начала
+                recentWriters.put(clientId, Boolean.TRUE);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sberfintech.task.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Признак "читать только с primary" для текущего потока. Выставляется для клиентов с недавней записью
+ * и для чтений, результат которых должен соответствовать последнему коммиту.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * Требует primary до закрытия возвращённой области; вложенные области восстанавливают предыдущее значение.
+     */
+    public static Scope requirePrimary() {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        };
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        try (Scope ignored = requirePrimary()) {
+            return action.get();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,165 @@
+package com.sberfintech.task.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Выбирает пул под соединение: read-only транзакции идут на реплики по кругу, всё остальное — на primary.
+ * <p>
+ * Решение принимается при первом запросе соединения, поэтому источник нужно оборачивать в
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: к этому моменту транзакция уже
+ * помечена read-only. Реплика участвует в ротации, только если последняя проверка отставания прошла и оно
+ * не больше max-lag; если подходящих реплик нет, чтение уходит на primary.
+ * <p>
+ * Соединения для запросов выдаются через {@code gate} (например, {@link GovernedDataSource}); проверка
+ * отставания берёт соединение из пула напрямую, чтобы не стоять в общей очереди.
+ */
+@Slf4j
+public class TaskRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Отставание реплики в секундах: 0, если всё полученное WAL уже применено, иначе время с последней
+     * применённой транзакции. NULL, если реплика ещё ничего не применила.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END
+            """;
+
+    private static final int LAG_CHECK_TIMEOUT_SECONDS = 1;
+
+    private final HikariDataSource primary;
+    private final DataSource primaryTarget;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryRoutes;
+
+    public TaskRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                 MeterRegistry meterRegistry) {
+        this(primary, replicas, maxLag, pool -> pool, meterRegistry);
+    }
+
+    public TaskRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                 Function<HikariDataSource, DataSource> gate, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryTarget = gate.apply(primary);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.replicas = replicas.stream().map(pool -> new Replica(pool, gate.apply(pool), meterRegistry)).toList();
+        this.primaryRoutes = routeCounter(meterRegistry, PRIMARY);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    DataSource determineTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryRequired()) {
+            primaryRoutes.increment();
+            return primaryTarget;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                replica.routes.increment();
+                return replica.target;
+            }
+        }
+        primaryRoutes.increment();
+        return primaryTarget;
+    }
+
+    @Scheduled(fixedDelayString = "${task.datasource.routing.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            replica.lagSeconds = measureLag(replica);
+            replica.available = !Double.isNaN(replica.lagSeconds) && replica.lagSeconds <= maxLagSeconds;
+            if (wasAvailable != replica.available) {
+                log.warn("Replica {} {} rotation, lag {} s", replica.pool.getPoolName(),
+                        replica.available ? "returned to" : "removed from", replica.lagSeconds);
+            }
+        }
+    }
+
+    private static double measureLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                return rs.wasNull() ? Double.NaN : lag;
+            }
+        } catch (SQLException e) {
+            log.debug("Lag check of replica {} failed: {}", replica.pool.getPoolName(), e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("task.datasource.routes")
+                .description("Connections handed out by the routing data source, by pool")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final DataSource target;
+        private final Counter routes;
+
+        // до первой проверки отставание неизвестно, поэтому реплика в ротацию не входит
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(HikariDataSource pool, DataSource target, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.target = target;
+            this.routes = routeCounter(meterRegistry, pool.getPoolName());
+            Gauge.builder("task.datasource.replica.lag", this, replica -> replica.lagSeconds)
+                    .description("Replication lag seen by the last check, NaN when the check failed")
+                    .baseUnit("seconds")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sberfintech.task.domain;
+
+import com.sberfintech.task.model.Task;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Результат массового перехода: изменённые задачи и причины отказа по остальным id.
+ */
+public record BulkTransitionResult(List<Task> updated, Map<UUID, String> rejected) {
+}
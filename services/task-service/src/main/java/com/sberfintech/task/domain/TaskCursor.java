@@ -0,0 +1,41 @@
+package com.sberfintech.task.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: значение поля сортировки и id последней строки страницы.
+ */
+public record TaskCursor(TaskSortField sortField, LocalDateTime value, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + (value == null ? "" : value.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSortField expectedField) {
+        TaskCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            TaskSortField field = TaskSortField.valueOf(parts[0]);
+            LocalDateTime value = parts[1].isEmpty() ? null : field.parseValue(parts[1]);
+            decoded = new TaskCursor(field, value, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        if (decoded.sortField() != expectedField) {
+            throw new IllegalArgumentException(String.format("Cursor was issued for sort %s, not %s",
+                    decoded.sortField(), expectedField));
+        }
+        return decoded;
+    }
+}
@@ -3,18 +3,30 @@ package com.sberfintech.task.domain;
 import com.sberfintech.task.domain.exception.TaskNotFoundException;
 import com.sberfintech.task.domain.exception.TaskOperationException;
 import com.sberfintech.task.model.Task;
-import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
 import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.domain.TaskStatsRegistry.Snapshot;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
 import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.scheduler.TaskDueDateNotifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -24,41 +36,20 @@ public class TaskDomainService {
 
     private final TaskRepository taskRepository;
 
-    private final TaskValidator taskValidator;
-
-    private final TaskSpecificationBuilder taskSpecificationBuilder;
-
-
-    public Task findById(UUID id) {
-        return taskRepository.findById(id).orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
-    }
-
-    public List<Task> findAll() {
-        return taskRepository.findAll();
-    }
+    private final TaskJdbcRepository taskJdbcRepository;
 
-    public List<Task> findByAssignee(Long assigneeId) {
-        return taskRepository.findByAssigneeId(assigneeId);
-    }
+    private final TaskValidator taskValidator;
 
-    public List<Task> findByCreator(Long creatorId) {
-        return taskRepository.findByCreatorId(creatorId);
-    }
+    private final ObjectProvider<TaskDueDateNotifier> dueDateNotifier;
 
-    public List<Task> findByPriority(TaskPriority priority) {
-        return taskRepository.findByPriority(priority);
-    }
+    private final ObjectProvider<TaskStatsRegistry> taskStats;
 
-    public List<Task> findOverdue() {
-        return taskRepository.findOverdueTasks(LocalDateTime.now());
-    }
+    private final ObjectProvider<TaskSlaRecorder> slaRecorder;
 
-    public List<Task> findByStatus(TaskStatus status) {
-        return taskRepository.findByStatus(status);
-    }
 
-    public List<Task> findByPropertyId(Long propertyId) {
-        return taskRepository.findByPropertyId(propertyId);
+    @Transactional(readOnly = true)
+    public Task findById(UUID id) {
+        return taskRepository.findById(id).orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
     }
 
     @Transactional
@@ -66,77 +57,230 @@ public class TaskDomainService {
         taskValidator.validateForCreate(task);
         task.setCreationDate(LocalDateTime.now());
         task.setStatus(TaskStatus.NEW);
-        return taskRepository.save(task);
+        Task created = taskRepository.save(task);
+        dueDateNotifier.ifAvailable(notifier -> notifier.created(List.of(created)));
+        taskStats.ifAvailable(stats -> stats.created(List.of(created)));
+        return created;
+    }
+
+    /**
+     * Создаёт уже провалидированные задачи одной пакетной вставкой с идентификаторами, назначенными приложением.
+     */
+    @Transactional
+    public List<Task> createAll(List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            task.setId(UUID.randomUUID());
+            task.setStatus(TaskStatus.NEW);
+            task.setCreationDate(now);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            task.setVersion(0L);
+            if (task.getEscalationLevel() == null) {
+                task.setEscalationLevel(0);
+            }
+        }
+        taskJdbcRepository.insertAll(tasks);
+        dueDateNotifier.ifAvailable(notifier -> notifier.created(tasks));
+        taskStats.ifAvailable(stats -> stats.created(tasks));
+        log.info("Created {} tasks in batch", tasks.size());
+        return tasks;
     }
 
     @Transactional
     public Task update(Task task) {
         taskValidator.validateForUpdate(task);
-        return taskRepository.save(task);
+        restoreIfNoLongerOverdue(task);
+        TaskStatsRegistry stats = taskStats.getIfAvailable();
+        TaskDueDateNotifier notifier = dueDateNotifier.getIfAvailable();
+        // вызывающий код меняет управляемую сущность до update(), поэтому findById вернул бы уже изменённые поля;
+        // прежнее состояние читается из строки мимо persistence context, до flush
+        Task before = stats == null && notifier == null ? null
+                : taskJdbcRepository.findAllByIds(List.of(task.getId())).stream().findFirst().orElse(null);
+        // flush сразу: UPDATE блокирует строку и увеличивает version до того, как событие попадёт в outbox
+        Task updated = taskRepository.saveAndFlush(task);
+        if (notifier != null) {
+            notifier.changed(before, updated);
+        }
+        if (stats != null) {
+            stats.updated(before == null ? null : Snapshot.of(before), updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Срок просроченной задачи перенесли в будущее или сняли: задача возвращается в статус, из которого её
+     * перевели в OVERDUE, и планировщик снова отслеживает её срок.
+     */
+    private static void restoreIfNoLongerOverdue(Task task) {
+        if (task.getStatus() != TaskStatus.OVERDUE
+                || task.getDueDate() != null && !task.getDueDate().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        TaskStatus previous = task.getStatusBeforeOverdue();
+        if (previous == null) {
+            previous = task.getAssigneeId() == null ? TaskStatus.NEW : TaskStatus.ASSIGNED;
+        }
+        task.setStatus(previous);
+        task.setStatusBeforeOverdue(null);
     }
 
+    /*
+     * Переходы жизненного цикла выполняются одним условным UPDATE ... RETURNING: условие на статус
+     * и исполнителя проверяется в той же инструкции, что и запись, а version увеличивается.
+     * Если строка не изменилась, задача перечитывается и прогоняется через TaskValidator,
+     * чтобы вернуть ту же ошибку, что и раньше.
+     */
+
     @Transactional
     public Task assign(UUID taskId, Long assigneeId) {
-        Task task = findById(taskId);
-        taskValidator.validateAssignee(task, assigneeId);
-        task.setAssigneeId(assigneeId);
-        task.setStatus(TaskStatus.ASSIGNED);
-        return taskRepository.save(task);
+        if (assigneeId == null) {
+            throw new IllegalArgumentException("Assignee ID cannot be null");
+        }
+        List<TaskTransition> updated = taskJdbcRepository.assign(List.of(taskId), assigneeId,
+                TaskValidator.ASSIGNABLE_STATUSES);
+        Task task = transitioned(taskId, updated, t -> taskValidator.validateAssignee(t, assigneeId));
+        recordSla(TaskSlaMetric.TIME_TO_ASSIGN, updated);
+        return task;
     }
 
     @Transactional
     public Task start(UUID taskId, Long userId) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
-        taskValidator.validateForStart(task, userId);
-        task.setStatus(TaskStatus.IN_PROGRESS);
-        return taskRepository.save(task);
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        List<TaskTransition> updated = taskJdbcRepository.start(List.of(taskId), userId,
+                TaskValidator.STARTABLE_STATUSES);
+        return transitioned(taskId, updated, task -> taskValidator.validateForStart(task, userId));
     }
 
     @Transactional
     public Task complete(UUID taskId, Long userId) {
-        Task task = findById(taskId);
-
-        if (!userId.equals(task.getAssigneeId())) {
-            throw new TaskOperationException("Only assignee can complete the task");
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
         }
-
-        task.setStatus(TaskStatus.COMPLETED);
-        task.setCompletionDate(LocalDateTime.now());
-        return taskRepository.save(task);
+        List<TaskTransition> updated = taskJdbcRepository.complete(List.of(taskId), userId,
+                TaskValidator.COMPLETABLE_STATUSES);
+        Task task = transitioned(taskId, updated, t -> taskValidator.validateForComplete(t, userId));
+        recordSla(TaskSlaMetric.TIME_TO_COMPLETE, updated);
+        notifyClosed(updated);
+        return task;
     }
 
     @Transactional
     public Task escalate(UUID taskId, Long escalatedTo) {
-        Task task = findById(taskId);
-
-        taskValidator.validateEscalation(task, escalatedTo);
-
-        task.setStatus(TaskStatus.ESCALATED);
-        task.setEscalationLevel(task.getEscalationLevel() + 1);
-        task.setEscalatedTo(escalatedTo);
-        task.setAssigneeId(escalatedTo);
+        List<TaskTransition> updated = taskJdbcRepository.escalate(List.of(taskId), escalatedTo,
+                TaskValidator.ESCALATABLE_STATUSES);
+        Task task = transitioned(taskId, updated, t -> taskValidator.validateEscalation(t, escalatedTo));
+        notifyClosed(updated);
 
         log.info("Task {} to user {}, level: {}", taskId, escalatedTo, task.getEscalationLevel());
-        return taskRepository.save(task);
+        return task;
     }
 
     @Transactional
     public Task cancel(UUID taskId, String reason) {
-        Task task = findById(taskId);
-
-        if (!canBeCancelled(task)){
-            throw new TaskOperationException( String.format("Cannot cancel task with status: %s", task.getStatus()));
-        }
-        task.setStatus(TaskStatus.CANCELED);
-        Task cancelledTask = taskRepository.save(task);
+        List<TaskTransition> updated = taskJdbcRepository.cancel(List.of(taskId), TaskValidator.CANCELLABLE_STATUSES);
+        Task cancelledTask = transitioned(taskId, updated, taskValidator::validateForCancel);
+        recordSla(TaskSlaMetric.TIME_TO_CANCEL, updated);
+        notifyClosed(updated);
 
         log.info("Task {} cancelled. Reason: {}", taskId, reason);
         return cancelledTask;
     }
 
-    private boolean canBeCancelled(Task task) {
-        return task.getStatus() != TaskStatus.COMPLETED &&
-                task.getStatus() != TaskStatus.CANCELED;
+    private Task transitioned(UUID taskId, List<TaskTransition> updated, Consumer<Task> check) {
+        if (!updated.isEmpty()) {
+            taskStats.ifAvailable(stats -> stats.transitioned(updated));
+            return updated.get(0).task();
+        }
+        check.accept(findById(taskId));
+        throw new OptimisticLockingFailureException("Task " + taskId + " was modified concurrently, retry the operation");
+    }
+
+    private void recordSla(TaskSlaMetric metric, List<TaskTransition> transitions) {
+        slaRecorder.ifAvailable(recorder -> recorder.record(metric, transitions));
+    }
+
+    //==================== BULK TRANSITIONS =====================
+
+    @Transactional
+    public BulkTransitionResult bulkAssign(Collection<UUID> taskIds, Long assigneeId) {
+        if (assigneeId == null) {
+            throw new IllegalArgumentException("Assignee ID cannot be null");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(taskIds);
+        List<TaskTransition> updated = taskJdbcRepository.assign(ids, assigneeId, TaskValidator.ASSIGNABLE_STATUSES);
+        recordSla(TaskSlaMetric.TIME_TO_ASSIGN, updated);
+        return bulkResult(ids, updated, task -> taskValidator.validateAssignee(task, assigneeId));
+    }
+
+    @Transactional
+    public BulkTransitionResult bulkComplete(Collection<UUID> taskIds, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(taskIds);
+        List<TaskTransition> updated = taskJdbcRepository.complete(ids, userId, TaskValidator.COMPLETABLE_STATUSES);
+        recordSla(TaskSlaMetric.TIME_TO_COMPLETE, updated);
+        notifyClosed(updated);
+        return bulkResult(ids, updated, task -> taskValidator.validateForComplete(task, userId));
+    }
+
+    @Transactional
+    public BulkTransitionResult bulkCancel(Collection<UUID> taskIds, String reason) {
+        Set<UUID> ids = new LinkedHashSet<>(taskIds);
+        List<TaskTransition> updated = taskJdbcRepository.cancel(ids, TaskValidator.CANCELLABLE_STATUSES);
+        recordSla(TaskSlaMetric.TIME_TO_CANCEL, updated);
+        notifyClosed(updated);
+        log.info("{} tasks cancelled. Reason: {}", updated.size(), reason);
+        return bulkResult(ids, updated, taskValidator::validateForCancel);
+    }
+
+    @Transactional
+    public BulkTransitionResult bulkEscalate(Collection<UUID> taskIds, Long escalatedTo) {
+        Set<UUID> ids = new LinkedHashSet<>(taskIds);
+        List<TaskTransition> updated = taskJdbcRepository.escalate(ids, escalatedTo,
+                TaskValidator.ESCALATABLE_STATUSES);
+        notifyClosed(updated);
+        log.info("{} tasks escalated to user {}", updated.size(), escalatedTo);
+        return bulkResult(ids, updated, task -> taskValidator.validateEscalation(task, escalatedTo));
+    }
+
+    private void notifyClosed(List<TaskTransition> transitions) {
+        dueDateNotifier.ifAvailable(notifier -> notifier.closed(transitions));
+    }
+
+    /**
+     * Для id, не попавших в RETURNING, перечитывает задачи и прогоняет те же проверки TaskValidator,
+     * чтобы вернуть ту же причину отказа, что и одиночная операция.
+     */
+    private BulkTransitionResult bulkResult(Set<UUID> requestedIds, List<TaskTransition> transitions,
+                                            Consumer<Task> check) {
+        taskStats.ifAvailable(stats -> stats.transitioned(transitions));
+        List<Task> updated = transitions.stream().map(TaskTransition::task).toList();
+        Set<UUID> missing = new LinkedHashSet<>(requestedIds);
+        updated.forEach(task -> missing.remove(task.getId()));
+
+        Map<UUID, String> rejected = new LinkedHashMap<>();
+        if (!missing.isEmpty()) {
+            Map<UUID, Task> existing = new HashMap<>();
+            taskRepository.findAllById(missing).forEach(task -> existing.put(task.getId(), task));
+            for (UUID id : missing) {
+                Task task = existing.get(id);
+                rejected.put(id, task == null ? "Task not found with id: " + id : rejectionReason(task, check));
+            }
+        }
+        return new BulkTransitionResult(updated, rejected);
+    }
+
+    private String rejectionReason(Task task, Consumer<Task> check) {
+        try {
+            check.accept(task);
+            return "Task was modified concurrently, retry the operation";
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
     }
 
 
@@ -150,13 +294,4 @@ public class TaskDomainService {
         taskRepository.delete(task);
     }
 
-    public List<Task> search(Long assigneeId, Long creatorId, String status,
-                             String priority, Long propertyId, LocalDateTime createdAfter, LocalDateTime createdBefore) {
-
-        Specification<Task> spec = taskSpecificationBuilder.buildSearchSpecification(assigneeId, creatorId, status, priority,
-                propertyId, createdAfter, createdBefore);
-
-        return taskRepository.findAll(spec);
-    }
-
 }
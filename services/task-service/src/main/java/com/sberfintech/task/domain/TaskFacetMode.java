@@ -0,0 +1,11 @@
+package com.sberfintech.task.domain;
+
+/**
+ * Считать ли счётчики фасетов вместе с результатами поиска и насколько точно.
+ * APPROXIMATE читает долю страниц таблицы (TABLESAMPLE SYSTEM) и масштабирует счётчики обратно.
+ */
+public enum TaskFacetMode {
+    NONE,
+    EXACT,
+    APPROXIMATE
+}
@@ -0,0 +1,153 @@
+package com.sberfintech.task.domain;
+
+import com.sberfintech.task.config.PaginationProperties;
+import com.sberfintech.task.domain.exception.TaskNotFoundException;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskFacets;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.dto.TaskSummary;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskFacetRepository;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskQueryRepository.RankedTaskDetail;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Чтение задач для API через проекции {@link TaskQueryRepository}.
+ * Транзакции только на чтение: Hibernate переводит сессию в FlushMode.MANUAL, а соединение — в read-only.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskQueryService {
+
+    private final TaskQueryRepository taskQueryRepository;
+
+    private final TaskFacetRepository taskFacetRepository;
+
+    private final TaskSpecificationBuilder taskSpecificationBuilder;
+
+    private final PaginationProperties paginationProperties;
+
+    public TaskDetail findDetail(UUID id) {
+        return taskQueryRepository.findDetail(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    }
+
+    public CursorPage<TaskDetail> findDetailPage(Specification<Task> filter, TaskPageRequest pageRequest) {
+        return findPage(filter, pageRequest, taskQueryRepository::findDetails,
+                detail -> cursorValue(pageRequest.sortOrDefault(), detail.dueDate(), detail.createdAt()),
+                TaskDetail::id);
+    }
+
+    public CursorPage<TaskSummary> findSummaryPage(Specification<Task> filter, TaskPageRequest pageRequest) {
+        return findPage(filter, pageRequest, taskQueryRepository::findSummaries,
+                summary -> cursorValue(pageRequest.sortOrDefault(), summary.dueDate(), summary.createdAt()),
+                TaskSummary::id);
+    }
+
+    /**
+     * Страница полнотекстового поиска по (rank DESC, id ASC); {@code pageRequest.sort()} не учитывается.
+     */
+    public CursorPage<TaskDetail> findRankedDetailPage(String text, Specification<Task> filter,
+                                                       TaskPageRequest pageRequest) {
+        int pageSize = resolvePageSize(pageRequest.size());
+
+        Specification<Task> spec = Specification.where(filter);
+        if (pageRequest.cursor() != null && !pageRequest.cursor().isBlank()) {
+            spec = spec.and(taskSpecificationBuilder.afterRank(TaskSearchCursor.decode(pageRequest.cursor()), text));
+        }
+
+        List<RankedTaskDetail> rows = taskQueryRepository.findRankedDetails(text, spec, pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<RankedTaskDetail> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            RankedTaskDetail last = items.get(items.size() - 1);
+            nextCursor = new TaskSearchCursor(last.rank(), last.detail().id()).encode();
+        }
+
+        return CursorPage.<TaskDetail>builder()
+                .items(items.stream().map(RankedTaskDetail::detail).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(pageSize)
+                .build();
+    }
+
+    /**
+     * Счётчики фасетов для того же фильтра и текста, что и у страницы поиска.
+     */
+    public TaskFacets findFacets(TaskSearchCriteria criteria, String text, boolean approximate) {
+        return taskFacetRepository.count(criteria, text, approximate);
+    }
+
+    private <P> CursorPage<P> findPage(Specification<Task> filter, TaskPageRequest pageRequest, PageFetcher<P> fetcher,
+                                       Function<P, LocalDateTime> sortValue, Function<P, UUID> id) {
+        TaskSortField sortField = pageRequest.sortOrDefault();
+        int pageSize = resolvePageSize(pageRequest.size());
+
+        TaskCursor cursor = pageRequest.cursor() == null || pageRequest.cursor().isBlank()
+                ? null : TaskCursor.decode(pageRequest.cursor(), sortField);
+        Specification<Task> spec = Specification.where(filter);
+        if (cursor != null) {
+            spec = spec.and(taskSpecificationBuilder.after(cursor));
+        }
+
+        // Берём на одну строку больше, чтобы узнать о следующей странице без COUNT(*)
+        List<P> rows = fetcher.fetch(spec, sortField.getAttribute(), pageSize + 1);
+        if (cursor != null && cursor.value() != null && sortField.isNullable() && rows.size() <= pageSize) {
+            // Заполненные значения закончились на этой странице: дочитываем строки с пустым полем,
+            // они идут после всех заполненных. Первой странице второй запрос не нужен — NULL там в конце выдачи.
+            List<P> tail = fetcher.fetch(Specification.where(filter).and(taskSpecificationBuilder.nullTail(sortField)),
+                    sortField.getAttribute(), pageSize + 1 - rows.size());
+            rows = Stream.concat(rows.stream(), tail.stream()).toList();
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<P> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            P last = items.get(items.size() - 1);
+            nextCursor = new TaskCursor(sortField, sortValue.apply(last), id.apply(last)).encode();
+        }
+
+        return CursorPage.<P>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(pageSize)
+                .build();
+    }
+
+    private static LocalDateTime cursorValue(TaskSortField sortField, LocalDateTime dueDate, LocalDateTime createdAt) {
+        return sortField == TaskSortField.DUE_DATE ? dueDate : createdAt;
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return paginationProperties.getDefaultPageSize();
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, paginationProperties.getMaxPageSize());
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher<P> {
+        List<P> fetch(Specification<Task> spec, String sortAttribute, int limit);
+    }
+}
@@ -0,0 +1,107 @@
+package com.sberfintech.task.domain;
+
+import com.sberfintech.task.dto.TaskSlaResponse;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import com.sberfintech.task.repository.TaskSlaRepository;
+import com.sberfintech.task.repository.TaskSlaRepository.SlaBin;
+import com.sberfintech.task.repository.TaskSlaRepository.SlaGroup;
+import com.sberfintech.task.repository.TaskSlaRepository.SlaKey;
+import com.sberfintech.task.repository.TaskSlaRepository.SlaRollup;
+import com.sberfintech.task.repository.TaskSlaRepository.SlaTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Дневные SLA-итоги по объекту и приоритету: сколько задач назначено, завершено и отменено и за какое время
+ * от создания. {@link TaskDomainService} передаёт сюда результат каждого перехода, и итоги пишутся
+ * в той же транзакции, что и сам переход, поэтому откат не оставляет в них следа. Отчёт за диапазон
+ * сливает дневные строки и скетчи {@link TaskSlaSketch}, не читая tasks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.sla", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskSlaRecorder {
+
+    private static final Comparator<SlaKey> KEY_ORDER = Comparator.comparing(SlaKey::bucketDate)
+            .thenComparing(SlaKey::propertyId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SlaKey::priority)
+            .thenComparing(SlaKey::metric);
+
+    private final TaskSlaRepository taskSlaRepository;
+
+    /**
+     * Сворачивает переходы в дневные строки и прибавляет их к итогам. Переход без даты создания
+     * или события пропускается.
+     */
+    public void record(TaskSlaMetric metric, Collection<TaskTransition> transitions) {
+        Map<SlaKey, SlaRollup> rollups = new TreeMap<>(KEY_ORDER);
+        Map<SlaKey, SortedMap<Integer, Long>> bins = new TreeMap<>(KEY_ORDER);
+        for (TaskTransition transition : transitions) {
+            Task task = transition.task();
+            if (metric == TaskSlaMetric.TIME_TO_ASSIGN && transition.previousAssigneeId() != null) {
+                continue;
+            }
+            LocalDateTime happenedAt = metric == TaskSlaMetric.TIME_TO_COMPLETE
+                    ? task.getCompletionDate()
+                    : task.getUpdatedAt();
+            if (task.getCreationDate() == null || happenedAt == null) {
+                continue;
+            }
+            double seconds = Math.max(Duration.between(task.getCreationDate(), happenedAt).toMillis() / 1000.0, 0);
+            SlaKey key = new SlaKey(happenedAt.toLocalDate(), task.getPropertyId(), task.getPriority(), metric);
+            rollups.merge(key, new SlaRollup(key, 1, seconds, seconds), (current, added) -> new SlaRollup(key,
+                    current.count() + 1, current.totalSeconds() + seconds, Math.max(current.maxSeconds(), seconds)));
+            bins.computeIfAbsent(key, k -> new TreeMap<>()).merge(TaskSlaSketch.bin(seconds), 1L, Long::sum);
+        }
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<SlaBin> sketch = bins.entrySet().stream()
+                .flatMap(entry -> entry.getValue().entrySet().stream()
+                        .map(bin -> new SlaBin(entry.getKey(), bin.getKey(), bin.getValue())))
+                .toList();
+        taskSlaRepository.add(List.copyOf(rollups.values()), sketch);
+    }
+
+    /**
+     * Итоги за дни с {@code from} по {@code to} включительно по каждому объекту, приоритету и метрике.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSlaResponse> report(LocalDate from, LocalDate to, Long propertyId, TaskPriority priority,
+                                        TaskSlaMetric metric) {
+        List<SlaTotals> totals = taskSlaRepository.findTotals(from, to, propertyId, priority, metric);
+        Map<SlaGroup, SortedMap<Integer, Long>> sketches =
+                taskSlaRepository.findBins(from, to, propertyId, priority, metric);
+        return totals.stream().map(total -> {
+            SortedMap<Integer, Long> sketch = sketches.getOrDefault(total.group(), new TreeMap<>());
+            return new TaskSlaResponse(total.group().propertyId(), total.group().priority(), total.group().metric(),
+                    total.count(), total.count() == 0 ? null : total.totalSeconds() / total.count(),
+                    total.maxSeconds(),
+                    quantile(sketch, 0.5, total.maxSeconds()), quantile(sketch, 0.9, total.maxSeconds()),
+                    quantile(sketch, 0.95, total.maxSeconds()), quantile(sketch, 0.99, total.maxSeconds()));
+        }).toList();
+    }
+
+    /**
+     * Оценка по корзине не превышает настоящий максимум, иначе p99 мог бы оказаться больше max.
+     */
+    private static Double quantile(SortedMap<Integer, Long> sketch, double q, double maxSeconds) {
+        Double value = TaskSlaSketch.quantile(sketch, q);
+        return value == null ? null : Math.min(value, maxSeconds);
+    }
+}
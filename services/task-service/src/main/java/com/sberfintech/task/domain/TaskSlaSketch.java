@@ -0,0 +1,56 @@
+package com.sberfintech.task.domain;
+
+import java.util.SortedMap;
+
+/**
+ * Логарифмический скетч длительностей с относительной точностью 1% (как DDSketch): длительность в секундах
+ * попадает в корзину {@code ceil(log_γ(seconds))}, γ = (1 + α) / (1 - α). Скетч — это число значений
+ * в каждой корзине, поэтому скетчи разных дней и объектов сливаются простым сложением счётчиков.
+ * <p>
+ * Точность зашита в номера корзин, уже записанные в task_sla_sketch_bins, и в миграцию 009, поэтому
+ * не настраивается.
+ */
+public final class TaskSlaSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private TaskSlaSketch() {
+    }
+
+    /**
+     * Корзина для длительности; всё, что не длиннее секунды, попадает в корзину 0.
+     */
+    public static int bin(double seconds) {
+        return seconds <= 1 ? 0 : (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+    }
+
+    /**
+     * Оценка длительности для корзины: отличается от любого значения в ней не больше чем на α.
+     */
+    public static double value(int bin) {
+        return 2 * Math.pow(GAMMA, bin) / (GAMMA + 1);
+    }
+
+    /**
+     * Квантиль {@code q} по слитым корзинам, упорядоченным по номеру; null для пустого скетча.
+     */
+    public static Double quantile(SortedMap<Integer, Long> bins, double q) {
+        long total = bins.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return null;
+        }
+        double rank = q * (total - 1);
+        long seen = 0;
+        for (var bin : bins.entrySet()) {
+            seen += bin.getValue();
+            if (seen > rank) {
+                return value(bin.getKey());
+            }
+        }
+        return value(bins.lastKey());
+    }
+}
@@ -0,0 +1,37 @@
+package com.sberfintech.task.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Поля, по которым поддерживается keyset-пагинация.
+ * Каждое поле опирается на индекс вида (field, id) — idx_tasks_created_at_id и idx_tasks_due_date_id,
+ * поэтому страница N стоит столько же, сколько первая.
+ */
+public enum TaskSortField {
+    CREATED_AT("createdAt", false),
+    DUE_DATE("dueDate", true);
+
+    private final String attribute;
+
+    private final boolean nullable;
+
+    TaskSortField(String attribute, boolean nullable) {
+        this.attribute = attribute;
+        this.nullable = nullable;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * У задачи может не быть значения поля: такие строки идут после всех заполненных и дочитываются отдельно.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public LocalDateTime parseValue(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
@@ -1,8 +1,10 @@
 package com.sberfintech.task.domain;
 
+import com.sberfintech.task.dto.TaskSearchCriteria;
 import com.sberfintech.task.model.Task;
-import com.sberfintech.task.model.TaskPriority;
-import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskSearchFunctions;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -10,6 +12,7 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 public class TaskSpecificationBuilder {
@@ -17,42 +20,104 @@ public class TaskSpecificationBuilder {
 
     public Specification<Task> buildSearchSpecification(Long assigneeId, Long creatorId, String status,
                                                         String priority, Long propertyId, LocalDateTime createdAfter, LocalDateTime createdBefore) {
+        return buildSearchSpecification(TaskSearchCriteria.of(assigneeId, creatorId, status, priority, propertyId,
+                createdAfter, createdBefore));
+    }
+
+    public Specification<Task> buildSearchSpecification(TaskSearchCriteria criteria) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            if (assigneeId != null) {
-                predicates.add(cb.equal(root.get("assigneeId"), assigneeId));
+            if (criteria.assigneeId() != null) {
+                predicates.add(cb.equal(root.get("assigneeId"), criteria.assigneeId()));
             }
-            if (creatorId != null) {
-                predicates.add(cb.equal(root.get("creatorId"), creatorId));
+            if (criteria.creatorId() != null) {
+                predicates.add(cb.equal(root.get("creatorId"), criteria.creatorId()));
             }
-            if (status != null) {
-                try {
-                    TaskStatus taskStatus = TaskStatus.valueOf(status.toUpperCase());
-                    predicates.add(cb.equal(root.get("status"), taskStatus));
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("Invalid status value: " + status);
-                }
+            if (criteria.status() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.status()));
             }
-            if (priority != null) {
-                try {
-                    TaskPriority taskPriority = TaskPriority.valueOf(priority.toUpperCase());
-                    predicates.add(cb.equal(root.get("priority"), taskPriority));
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("Invalid priority value: " + priority);
-                }
+            if (criteria.priority() != null) {
+                predicates.add(cb.equal(root.get("priority"), criteria.priority()));
             }
-            if (propertyId != null) {
-                predicates.add(cb.equal(root.get("propertyId"), propertyId));
+            if (criteria.propertyId() != null) {
+                predicates.add(cb.equal(root.get("propertyId"), criteria.propertyId()));
             }
-            if (createdAfter != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdDate"), createdAfter));
+            if (criteria.createdAfter() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.createdAfter()));
             }
-            if (createdBefore != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdDate"), createdBefore));
+            if (criteria.createdBefore() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), criteria.createdBefore()));
             }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
 
     }
+
+    public Specification<Task> overdue(LocalDateTime now) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThan(root.get("dueDate"), now),
+                root.get("status").in(TaskValidator.OVERDUE_STATUSES));
+    }
+
+    /**
+     * Задачи, в названии или описании которых встречается {@code text} (синтаксис websearch: кавычки, OR, минус).
+     * Условие обслуживает GIN-индекс idx_tasks_search_vector.
+     */
+    public Specification<Task> matches(String text) {
+        return (root, query, cb) -> TaskSearchFunctions.matches(cb, root.get("searchVector"), text);
+    }
+
+    /**
+     * Keyset-условие "строго после курсора" для поиска по тексту с порядком (rank DESC, id ASC).
+     */
+    public Specification<Task> afterRank(TaskSearchCursor cursor, String text) {
+        return (root, query, cb) -> {
+            Expression<Float> rank = TaskSearchFunctions.rank(cb, root.get("searchVector"), text);
+            return cb.or(
+                    cb.lessThan(rank, cursor.rank()),
+                    cb.and(cb.equal(rank, cursor.rank()), cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    /**
+     * Keyset-условие "строго после (createdAt, id)" для чтения чанками. created_at заполняется при каждой вставке,
+     * поэтому ветка с NULL не нужна, а условие записано как created_at >= value AND (...):
+     * первая часть становится границей индексного сканирования, и чанк не перечитывает уже выгруженные строки.
+     */
+    public Specification<Task> createdAfter(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> field = root.get("createdAt");
+            return cb.and(
+                    cb.greaterThanOrEqualTo(field, createdAt),
+                    cb.or(cb.greaterThan(field, createdAt), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    /**
+     * Keyset-условие "строго после курсора" для сортировки (field ASC, id ASC). Для заполненного значения
+     * записано как field >= value AND (field > value OR id > cursorId): первая часть — граница сканирования
+     * индекса (field, id), и страница N не перечитывает предыдущие. Строки с пустым полем это условие не
+     * возвращает, их дочитывают через {@link #nullTail(TaskSortField)}.
+     */
+    public Specification<Task> after(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> field = root.get(cursor.sortField().getAttribute());
+            Path<UUID> id = root.get("id");
+
+            if (cursor.value() == null) {
+                return cb.and(cb.isNull(field), cb.greaterThan(id, cursor.id()));
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(field, cursor.value()),
+                    cb.or(cb.greaterThan(field, cursor.value()), cb.greaterThan(id, cursor.id())));
+        };
+    }
+
+    /**
+     * Строки с пустым полем сортировки: Postgres при ASC ставит их после всех заполненных.
+     */
+    public Specification<Task> nullTail(TaskSortField sortField) {
+        return (root, query, cb) -> cb.isNull(root.get(sortField.getAttribute()));
+    }
 }
@@ -0,0 +1,256 @@
+package com.sberfintech.task.domain;
+
+import com.sberfintech.task.dto.TaskStatsResponse;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository.DimensionCount;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики открытых задач по статусу, приоритету, объекту и исполнителю в памяти, чтобы дашборды
+ * и /actuator/prometheus не запускали COUNT(*) по tasks.
+ * <p>
+ * Счётчики — {@link LongAdder}: параллельные переходы пишут в разные ячейки и не спорят за одну.
+ * {@link TaskDomainService} и планировщики сообщают о каждом изменении, и после коммита транзакции
+ * счётчики сдвигаются на разницу «до/после». Состояние до перехода возвращает тот же UPDATE ... RETURNING,
+ * так что лишних запросов нет. Экземпляр видит только свои изменения, а приращения, пришедшие во время
+ * пересчёта, могут потеряться. Поэтому при старте и затем каждые {@code task.stats.rebuild-interval-ms}
+ * счётчики пересчитываются по БД одним запросом с GROUPING SETS, а величина поправки пишется
+ * в {@code task.stats.rebuild.drift}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskStatsRegistry {
+
+    private final TaskJdbcRepository taskJdbcRepository;
+
+    private final DistributionSummary drift;
+
+    private volatile Counters counters = new Counters();
+
+    private volatile LocalDateTime rebuiltAt;
+
+    public TaskStatsRegistry(TaskJdbcRepository taskJdbcRepository, MeterRegistry meterRegistry) {
+        this.taskJdbcRepository = taskJdbcRepository;
+
+        for (TaskStatus status : TaskValidator.OPEN_STATUSES) {
+            Gauge.builder("task.stats.open", this, registry -> registry.counters.byStatus.get(status).sum())
+                    .description("Open tasks by status, maintained in memory")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            Gauge.builder("task.stats.open.priority", this,
+                            registry -> registry.counters.byPriority.get(priority).sum())
+                    .description("Open tasks by priority, maintained in memory")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("task.stats.open.unassigned", this, registry -> registry.counters.unassigned.sum())
+                .description("Open tasks without an assignee, maintained in memory")
+                .register(meterRegistry);
+        this.drift = DistributionSummary.builder("task.stats.rebuild.drift")
+                .description("Open tasks by which the in-memory counters differed from the database on rebuild")
+                .register(meterRegistry);
+    }
+
+    public void created(Collection<Task> tasks) {
+        apply(tasks.stream().map(task -> new Delta(null, Snapshot.of(task))).toList());
+    }
+
+    public void updated(Snapshot before, Task after) {
+        apply(List.of(new Delta(before, Snapshot.of(after))));
+    }
+
+    public void transitioned(Collection<TaskTransition> transitions) {
+        apply(transitions.stream()
+                .map(transition -> {
+                    Task task = transition.task();
+                    Snapshot before = new Snapshot(transition.previousStatus(), task.getPriority(),
+                            task.getPropertyId(), transition.previousAssigneeId());
+                    return new Delta(before, Snapshot.of(task));
+                })
+                .toList());
+    }
+
+    /**
+     * Текущие счётчики; из объектов и исполнителей отдаются {@code topSize} самых загруженных.
+     */
+    public TaskStatsResponse stats(int topSize) {
+        Counters current = counters;
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        TaskValidator.OPEN_STATUSES.forEach(status -> byStatus.put(status, current.byStatus.get(status).sum()));
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        current.byPriority.forEach((priority, count) -> byPriority.put(priority, count.sum()));
+        return new TaskStatsResponse(current.total.sum(), current.unassigned.sum(), byStatus, byPriority,
+                top(current.byProperty, topSize), top(current.byAssignee, topSize), rebuiltAt);
+    }
+
+    /**
+     * Пересчитывает счётчики по БД и подменяет ими текущие. Первый запуск — при старте приложения.
+     */
+    @Scheduled(fixedDelayString = "${task.stats.rebuild-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Counters rebuilt = new Counters();
+        try {
+            taskJdbcRepository.countOpen(TaskValidator.OPEN_STATUSES).forEach(rebuilt::load);
+        } catch (RuntimeException e) {
+            log.warn("Cannot rebuild task stats, keeping incremental counters: {}", e.getMessage());
+            return;
+        }
+        Counters previous = counters;
+        counters = rebuilt;
+        if (rebuiltAt != null) {
+            long difference = 0;
+            for (TaskStatus status : TaskValidator.OPEN_STATUSES) {
+                difference += Math.abs(rebuilt.byStatus.get(status).sum() - previous.byStatus.get(status).sum());
+            }
+            drift.record(difference);
+        }
+        rebuiltAt = LocalDateTime.now();
+        log.debug("Rebuilt task stats: {} open tasks", rebuilt.total.sum());
+    }
+
+    /**
+     * Откат транзакции не должен сдвигать счётчики, поэтому внутри транзакции разница применяется после коммита.
+     */
+    private void apply(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(deltas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyNow(deltas);
+            }
+        });
+    }
+
+    private void applyNow(List<Delta> deltas) {
+        Counters current = counters;
+        for (Delta delta : deltas) {
+            current.add(delta.before(), -1);
+            current.add(delta.after(), 1);
+        }
+    }
+
+    private static Map<Long, Long> top(Map<Long, LongAdder> counts, int size) {
+        Map<Long, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(size)
+                .forEachOrdered(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    /**
+     * Поля задачи, от которых зависят счётчики.
+     */
+    public record Snapshot(TaskStatus status, TaskPriority priority, Long propertyId, Long assigneeId) {
+
+        public static Snapshot of(Task task) {
+            return new Snapshot(task.getStatus(), task.getPriority(), task.getPropertyId(), task.getAssigneeId());
+        }
+    }
+
+    private record Delta(Snapshot before, Snapshot after) {
+    }
+
+    /**
+     * Набор счётчиков. Ключи статусов и приоритетов заполнены заранее и не меняются, поэтому EnumMap
+     * безопасно читать из разных потоков.
+     */
+    private static final class Counters {
+
+        private final Map<TaskStatus, LongAdder> byStatus = new EnumMap<>(TaskStatus.class);
+        private final Map<TaskPriority, LongAdder> byPriority = new EnumMap<>(TaskPriority.class);
+        private final Map<Long, LongAdder> byProperty = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byAssignee = new ConcurrentHashMap<>();
+        private final LongAdder unassigned = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        Counters() {
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+            for (TaskPriority priority : TaskPriority.values()) {
+                byPriority.put(priority, new LongAdder());
+            }
+        }
+
+        void add(Snapshot task, int sign) {
+            if (task == null || task.status() == null || !TaskValidator.OPEN_STATUSES.contains(task.status())) {
+                return;
+            }
+            total.add(sign);
+            byStatus.get(task.status()).add(sign);
+            if (task.priority() != null) {
+                byPriority.get(task.priority()).add(sign);
+            }
+            if (task.propertyId() != null) {
+                add(byProperty, task.propertyId(), sign);
+            }
+            if (task.assigneeId() == null) {
+                unassigned.add(sign);
+            } else {
+                add(byAssignee, task.assigneeId(), sign);
+            }
+        }
+
+        void load(DimensionCount row) {
+            switch (row.dimension()) {
+                case "status" -> {
+                    byStatus.get(TaskStatus.valueOf(row.value())).add(row.count());
+                    total.add(row.count());
+                }
+                case "priority" -> byPriority.get(TaskPriority.valueOf(row.value())).add(row.count());
+                case "propertyId" -> {
+                    if (row.value() != null) {
+                        add(byProperty, Long.parseLong(row.value()), row.count());
+                    }
+                }
+                case "assigneeId" -> {
+                    if (row.value() == null) {
+                        unassigned.add(row.count());
+                    } else {
+                        add(byAssignee, Long.parseLong(row.value()), row.count());
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown stats dimension: " + row.dimension());
+            }
+        }
+
+        private static void add(Map<Long, LongAdder> counts, Long key, long delta) {
+            counts.computeIfAbsent(key, id -> new LongAdder()).add(delta);
+        }
+    }
+}
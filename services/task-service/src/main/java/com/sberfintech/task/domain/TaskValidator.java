@@ -4,26 +4,85 @@ import com.sberfintech.task.domain.exception.TaskOperationException;
 import com.sberfintech.task.model.Task;
 import com.sberfintech.task.model.TaskPriority;
 import com.sberfintech.task.model.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ValidationException;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class TaskValidator {
 
+    /**
+     * Допустимые исходные статусы переходов. Используются и здесь, и в массовых SQL-переходах,
+     * чтобы правила одиночных и пакетных операций не расходились. Просроченную задачу можно назначить
+     * и взять в работу: она остаётся в OVERDUE, а переход запоминается в statusBeforeOverdue.
+     */
+    public static final Set<TaskStatus> ASSIGNABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(TaskStatus.NEW, TaskStatus.OVERDUE));
+
+    public static final Set<TaskStatus> STARTABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(TaskStatus.NEW, TaskStatus.ASSIGNED, TaskStatus.OVERDUE));
+
+    /**
+     * Открытые статусы, для которых отслеживается срок выполнения.
+     */
+    public static final Set<TaskStatus> OVERDUE_TRACKED_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(TaskStatus.NEW, TaskStatus.ASSIGNED, TaskStatus.IN_PROGRESS));
+
+    /**
+     * Статусы просроченной задачи в выдаче: ещё не помеченные планировщиком и уже переведённые в OVERDUE.
+     */
+    public static final Set<TaskStatus> OVERDUE_STATUSES = Collections.unmodifiableSet(EnumSet.of(
+            TaskStatus.NEW, TaskStatus.ASSIGNED, TaskStatus.IN_PROGRESS, TaskStatus.OVERDUE));
+
+    /**
+     * Незакрытые статусы: назначенная задача в них видна во входящих исполнителя.
+     */
+    public static final Set<TaskStatus> OPEN_STATUSES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELED)));
+
+    /**
+     * Повторное завершение не должно ещё раз попадать в SLA-итоги и outbox, поэтому закрытые задачи исключены.
+     */
+    public static final Set<TaskStatus> COMPLETABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELED)));
+
+    public static final Set<TaskStatus> CANCELLABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELED)));
+
+    public static final Set<TaskStatus> ESCALATABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELED)));
+
+    private final Map<Rule, Counter> failures = new EnumMap<>(Rule.class);
+
+    public TaskValidator(MeterRegistry meterRegistry) {
+        for (Rule rule : Rule.values()) {
+            failures.put(rule, Counter.builder("task.validation.failures")
+                    .description("Operations rejected by TaskValidator, by violated rule")
+                    .tag("rule", rule.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
     public void validateForCreate(Task task){
         if (task == null){
-            throw new IllegalArgumentException("Task object cannot be null");
+            throw reject(Rule.TASK_MISSING, new IllegalArgumentException("Task object cannot be null"));
         }
         if (task.getTitle() == null || task.getTitle().trim().isEmpty()){
-            throw new ValidationException("Task title is required");
+            throw reject(Rule.TITLE_MISSING, new ValidationException("Task title is required"));
         }
         if (task.getCreatorId() == null){
-            throw new ValidationException("Creator id is required");
+            throw reject(Rule.CREATOR_MISSING, new ValidationException("Creator id is required"));
         }
         if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDateTime.now())){
-            throw new ValidationException("Due date cannot be in the past");
+            throw reject(Rule.DUE_DATE_IN_PAST, new ValidationException("Due date cannot be in the past"));
         }
         if (task.getPriority() == null){
             task.setPriority(TaskPriority.MEDIUM);
@@ -32,63 +91,89 @@ public class TaskValidator {
 
     public void validateForUpdate(Task task){
         if (task == null){
-            throw new IllegalArgumentException("Task object cannot be null");
+            throw reject(Rule.TASK_MISSING, new IllegalArgumentException("Task object cannot be null"));
         }
         if (task.getId() == null){
-            throw new IllegalArgumentException("Task ID cannot be null for update operation");
+            throw reject(Rule.ID_MISSING, new IllegalArgumentException("Task ID cannot be null for update operation"));
         }
         if (task.getStatus() == TaskStatus.COMPLETED){
-            throw new TaskOperationException("Task status cannot be COMPLETED for update operation");
+            throw reject(Rule.UPDATE_OF_CLOSED, new TaskOperationException("Task status cannot be COMPLETED for update operation"));
         }
         if (task.getStatus() == TaskStatus.CANCELED){
-            throw new TaskOperationException("Task status cannot be CANCELED for update operation");
+            throw reject(Rule.UPDATE_OF_CLOSED, new TaskOperationException("Task status cannot be CANCELED for update operation"));
         }
 
     }
 
     public void validateAssignee(Task task, Long assigneeId){
         if (assigneeId == null) {
-            throw new IllegalArgumentException("Assignee ID cannot be null");
+            throw reject(Rule.ASSIGNEE_MISSING, new IllegalArgumentException("Assignee ID cannot be null"));
         }
         if (task.getAssigneeId() != null) {
-            throw new IllegalArgumentException("Task is already assigned");
+            throw reject(Rule.ALREADY_ASSIGNED, new IllegalArgumentException("Task is already assigned"));
         }
-        if (task.getStatus() != TaskStatus.NEW){
-            throw new IllegalArgumentException("Only NEW tasks can be assigned");
+        if (!ASSIGNABLE_STATUSES.contains(task.getStatus())){
+            throw reject(Rule.NOT_ASSIGNABLE,
+                    new IllegalArgumentException("Only NEW or OVERDUE tasks can be assigned"));
         }
     }
     public void validateForStart(Task task,Long userId){
         if (task == null){
-            throw new IllegalArgumentException("Task object cannot be null");
+            throw reject(Rule.TASK_MISSING, new IllegalArgumentException("Task object cannot be null"));
         }
         if (userId == null) {
-            throw new IllegalArgumentException("User ID cannot be null");
+            throw reject(Rule.USER_MISSING, new IllegalArgumentException("User ID cannot be null"));
         }
         if (!userId.equals(task.getAssigneeId())) {
-            throw new TaskOperationException("Only assignee can start the task");
+            throw reject(Rule.NOT_ASSIGNEE, new TaskOperationException("Only assignee can start the task"));
+        }
+        if (!STARTABLE_STATUSES.contains(task.getStatus())
+                || task.getStatus() == TaskStatus.OVERDUE && task.getStatusBeforeOverdue() == TaskStatus.IN_PROGRESS){
+            throw reject(Rule.NOT_STARTABLE, new IllegalStateException(String.format(
+                    "Task [ID=%s] with status '%s' cannot be started", task.getId(), task.getStatus())));
         }
-        if (task.getStatus() != TaskStatus.IN_PROGRESS){
-            throw new IllegalStateException("Only IN_PROGRESS tasks can be start");
+    }
+
+    public void validateForComplete(Task task, Long userId){
+        if (!userId.equals(task.getAssigneeId())) {
+            throw reject(Rule.NOT_ASSIGNEE, new TaskOperationException("Only assignee can complete the task"));
         }
-        if (!canBeStarted(task.getStatus())){
-            throw new IllegalStateException(String.format("Task [ID=%s] with status '%s' cannot be started",
-                    task.getId(), task.getStatus()));
+        if (!COMPLETABLE_STATUSES.contains(task.getStatus())){
+            throw reject(Rule.NOT_COMPLETABLE,
+                    new TaskOperationException(String.format("Cannot complete task with status: %s", task.getStatus())));
         }
     }
 
-    private boolean canBeStarted(TaskStatus status){
-        return status == TaskStatus.NEW || status == TaskStatus.ASSIGNED;
+    public void validateForCancel(Task task){
+        if (!CANCELLABLE_STATUSES.contains(task.getStatus())){
+            throw reject(Rule.NOT_CANCELLABLE,
+                    new TaskOperationException(String.format("Cannot cancel task with status: %s", task.getStatus())));
+        }
     }
 
     public void validateEscalation(Task task, Long escalatedTo){
         if (task.getStatus() == TaskStatus.COMPLETED){
-            throw new TaskOperationException("Task has already been escalated");
+            throw reject(Rule.ESCALATION_OF_CLOSED, new TaskOperationException("Task has already been escalated"));
         }
         if (task.getStatus() == TaskStatus.CANCELED){
-            throw new TaskOperationException("You cannot escalate a canceled task");
+            throw reject(Rule.ESCALATION_OF_CLOSED, new TaskOperationException("You cannot escalate a canceled task"));
         }
         if (task.getAssigneeId() != null && task.getAssigneeId().equals(escalatedTo)){
-            throw new TaskOperationException("You can't escalate a problem to yourself");
+            throw reject(Rule.ESCALATION_TO_SELF, new TaskOperationException("You can't escalate a problem to yourself"));
         }
     }
+
+    private RuntimeException reject(Rule rule, RuntimeException failure) {
+        failures.get(rule).increment();
+        return failure;
+    }
+
+    /**
+     * Правила, нарушение которых считается в task.validation.failures{rule}.
+     */
+    private enum Rule {
+        TASK_MISSING, TITLE_MISSING, CREATOR_MISSING, DUE_DATE_IN_PAST, ID_MISSING, UPDATE_OF_CLOSED,
+        ASSIGNEE_MISSING, ALREADY_ASSIGNED, NOT_ASSIGNABLE, USER_MISSING, NOT_ASSIGNEE, NOT_STARTABLE,
+        NOT_COMPLETABLE, NOT_CANCELLABLE, ESCALATION_OF_CLOSED, ESCALATION_TO_SELF
+    }
 }
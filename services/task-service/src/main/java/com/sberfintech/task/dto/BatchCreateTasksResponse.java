@@ -0,0 +1,22 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Ответ на пакетное создание задач")
+public class BatchCreateTasksResponse {
+
+    @Schema(description = "Количество созданных задач", example = "998")
+    private int created;
+
+    @Schema(description = "Количество отклонённых элементов", example = "2")
+    private int failed;
+
+    @Schema(description = "Результат по каждому элементу в порядке запроса")
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,25 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Результат обработки одного элемента пакетного запроса")
+public class BatchItemResult {
+
+    @Schema(description = "Позиция элемента в запросе", example = "0")
+    private int index;
+
+    @Schema(description = "Успешно ли обработан элемент")
+    private boolean success;
+
+    @Schema(description = "ID созданной задачи")
+    private UUID id;
+
+    @Schema(description = "Причина ошибки", example = "Task title is required")
+    private String error;
+}
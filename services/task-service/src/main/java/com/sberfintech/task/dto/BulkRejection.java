@@ -0,0 +1,19 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Задача, не прошедшая массовый переход")
+public class BulkRejection {
+
+    @Schema(description = "ID задачи")
+    private UUID taskId;
+
+    @Schema(description = "Причина отказа", example = "Only NEW or OVERDUE tasks can be assigned")
+    private String reason;
+}
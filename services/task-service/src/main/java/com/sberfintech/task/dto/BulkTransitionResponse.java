@@ -0,0 +1,19 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Ответ на массовое изменение статуса задач")
+public class BulkTransitionResponse {
+
+    @Schema(description = "Изменённые задачи")
+    private List<TaskResponse> updated;
+
+    @Schema(description = "Задачи, которые не удалось изменить, с причиной")
+    private List<BulkRejection> rejected;
+}
@@ -0,0 +1,35 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@Schema(description = "Страница результатов с курсором на следующую страницу")
+public class CursorPage<T> {
+
+    @Schema(description = "Элементы страницы")
+    private List<T> items;
+
+    @Schema(description = "Курсор следующей страницы, null если страница последняя")
+    private String nextCursor;
+
+    @Schema(description = "Есть ли следующая страница")
+    private boolean hasNext;
+
+    @Schema(description = "Размер страницы", example = "50")
+    private int size;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return CursorPage.<R>builder()
+                .items(items.stream().<R>map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+}
@@ -8,5 +8,6 @@ public enum EventType {
     TASK_CANCELED,
     TASK_OVERDUE,
     TASK_ESCALATED,
-    TASK_UPDATED
+    TASK_UPDATED,
+    TASK_DELETED
 }
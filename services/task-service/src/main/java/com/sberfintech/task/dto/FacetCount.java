@@ -0,0 +1,13 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Значение фасета и число задач с ним")
+public record FacetCount(
+
+        @Schema(description = "Значение поля, null для незаполненного", example = "IN_PROGRESS")
+        String value,
+
+        @Schema(description = "Число задач", example = "42")
+        long count) {
+}
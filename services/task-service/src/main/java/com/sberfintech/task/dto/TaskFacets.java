@@ -0,0 +1,31 @@
+package com.sberfintech.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Счётчики задач по значениям полей при тех же фильтрах, что и у поиска")
+public class TaskFacets {
+
+    @Schema(description = "Всего задач под фильтром", example = "1280")
+    private long total;
+
+    @Schema(description = "Счётчики оценены по выборке страниц таблицы, а не посчитаны точно")
+    private boolean approximate;
+
+    @Schema(description = "Счётчики по статусу, по убыванию")
+    private List<FacetCount> status;
+
+    @Schema(description = "Счётчики по приоритету, по убыванию")
+    private List<FacetCount> priority;
+
+    @Schema(description = "Самые частые исполнители, по убыванию")
+    private List<FacetCount> assigneeId;
+
+    @Schema(description = "Самые частые объекты недвижимости, по убыванию")
+    private List<FacetCount> propertyId;
+}
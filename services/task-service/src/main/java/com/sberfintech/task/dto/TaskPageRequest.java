@@ -0,0 +1,21 @@
+package com.sberfintech.task.dto;
+
+import com.sberfintech.task.domain.TaskSortField;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Параметры keyset-пагинации")
+public record TaskPageRequest(
+
+        @Schema(description = "Курсор из ответа на предыдущую страницу")
+        String cursor,
+
+        @Schema(description = "Размер страницы", example = "50")
+        Integer size,
+
+        @Schema(description = "Поле сортировки", example = "CREATED_AT")
+        TaskSortField sort) {
+
+    public TaskSortField sortOrDefault() {
+        return sort == null ? TaskSortField.CREATED_AT : sort;
+    }
+}
@@ -3,14 +3,18 @@ package com.sberfintech.task.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.sberfintech.task.model.TaskPriority;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Ответ с информацией о задаче")
 public class TaskResponse {
 
@@ -0,0 +1,45 @@
+package com.sberfintech.task.dto;
+
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фильтр поиска задач. Пустое поле не ограничивает выборку, заданные поля объединяются через AND.
+ * Фильтр разбирают JPA-спецификация и TaskSqlConditions (R2DBC и фасеты); их совпадение проверяется тестом.
+ */
+public record TaskSearchCriteria(Long assigneeId, Long creatorId, TaskStatus status, TaskPriority priority,
+                                 Long propertyId, LocalDateTime createdAfter, LocalDateTime createdBefore) {
+
+    /**
+     * Фильтр из параметров запроса: статус и приоритет передаются строкой без учёта регистра.
+     */
+    public static TaskSearchCriteria of(Long assigneeId, Long creatorId, String status, String priority,
+                                        Long propertyId, LocalDateTime createdAfter, LocalDateTime createdBefore) {
+        return new TaskSearchCriteria(assigneeId, creatorId, parseStatus(status), parsePriority(priority),
+                propertyId, createdAfter, createdBefore);
+    }
+
+    private static TaskStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return TaskStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status value: " + status);
+        }
+    }
+
+    private static TaskPriority parsePriority(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        try {
+            return TaskPriority.valueOf(priority.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid priority value: " + priority);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sberfintech.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Ответ поиска: поля страницы лежат на верхнем уровне, как в {@link CursorPage}, поэтому без фасетов
+ * ответ не отличается от прежнего.
+ */
+@Schema(description = "Страница результатов поиска и, по запросу, счётчики фасетов")
+public record TaskSearchResult(
+
+        @JsonUnwrapped
+        CursorPage<TaskResponse> page,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @Schema(description = "Счётчики фасетов, только если они запрошены и только на первой странице")
+        TaskFacets facets) {
+}
@@ -0,0 +1,39 @@
+package com.sberfintech.task.dto;
+
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "SLA-итоги по объекту, приоритету и метрике за диапазон дат")
+public record TaskSlaResponse(
+
+        @Schema(description = "ID объекта недвижимости; null для задач без объекта", example = "101")
+        Long propertyId,
+
+        @Schema(description = "Приоритет задач", example = "HIGH")
+        TaskPriority priority,
+
+        @Schema(description = "Метрика: время до назначения, завершения или отмены", example = "TIME_TO_COMPLETE")
+        TaskSlaMetric metric,
+
+        @Schema(description = "Число задач", example = "342")
+        long count,
+
+        @Schema(description = "Среднее время в секундах", example = "86400.0")
+        Double meanSeconds,
+
+        @Schema(description = "Максимальное время в секундах", example = "604800.0")
+        double maxSeconds,
+
+        @Schema(description = "Медиана в секундах, с точностью 1%", example = "43200.0")
+        Double p50Seconds,
+
+        @Schema(description = "90-й перцентиль в секундах, с точностью 1%", example = "172800.0")
+        Double p90Seconds,
+
+        @Schema(description = "95-й перцентиль в секундах, с точностью 1%", example = "259200.0")
+        Double p95Seconds,
+
+        @Schema(description = "99-й перцентиль в секундах, с точностью 1%", example = "518400.0")
+        Double p99Seconds) {
+}
@@ -0,0 +1,35 @@
+package com.sberfintech.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Schema(description = "Открытые задачи по статусу, приоритету, объекту и исполнителю")
+public record TaskStatsResponse(
+
+        @Schema(description = "Всего открытых задач", example = "1280")
+        long total,
+
+        @Schema(description = "Открытые задачи без исполнителя", example = "64")
+        long unassigned,
+
+        @Schema(description = "Открытые задачи по статусу")
+        Map<TaskStatus, Long> byStatus,
+
+        @Schema(description = "Открытые задачи по приоритету")
+        Map<TaskPriority, Long> byPriority,
+
+        @Schema(description = "Объекты недвижимости с наибольшим числом открытых задач, по убыванию")
+        Map<Long, Long> topProperties,
+
+        @Schema(description = "Исполнители с наибольшим числом открытых задач, по убыванию")
+        Map<Long, Long> topAssignees,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        @Schema(description = "Когда счётчики последний раз пересчитывались по БД")
+        LocalDateTime rebuiltAt) {
+}
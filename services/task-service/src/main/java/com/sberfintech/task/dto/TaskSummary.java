@@ -0,0 +1,42 @@
+package com.sberfintech.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Облегчённая строка списка задач: без описания и служебных полей. Выбирается из БД сразу в этот вид.
+ */
+@Schema(description = "Краткая информация о задаче для списков")
+public record TaskSummary(
+
+        @Schema(description = "ID задачи")
+        UUID id,
+
+        @Schema(description = "Название задачи")
+        String title,
+
+        @Schema(description = "Статус задачи", example = "NEW")
+        TaskStatus status,
+
+        @Schema(description = "Приоритет задачи", example = "HIGH")
+        TaskPriority priority,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        @Schema(description = "Срок выполнения")
+        LocalDateTime dueDate,
+
+        @Schema(description = "ID исполнителя", example = "2")
+        Long assigneeId,
+
+        @Schema(description = "Уровень эскалации", example = "0")
+        Integer escalationLevel,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        @Schema(description = "Дата создания записи")
+        LocalDateTime createdAt) {
+}
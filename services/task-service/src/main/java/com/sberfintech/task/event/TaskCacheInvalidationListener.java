@@ -0,0 +1,30 @@
+package com.sberfintech.task.event;
+
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.service.TaskResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Вытесняет карточки задач, изменённых на других экземплярах.
+ * У каждого экземпляра своя consumer group, поэтому событие получают все экземпляры,
+ * а чтение начинается с конца топика: история для кэша не нужна.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskCacheInvalidationListener {
+
+    private final TaskResponseCache taskResponseCache;
+
+    @KafkaListener(topics = "${task.events.topic:task-events}",
+            groupId = "task-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onTaskEvent(TaskEvent event) {
+        if (event.getTaskId() != null) {
+            taskResponseCache.evict(event.getTaskId());
+        }
+    }
+}
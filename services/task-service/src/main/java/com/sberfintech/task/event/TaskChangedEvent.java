@@ -0,0 +1,10 @@
+package com.sberfintech.task.event;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Внутреннее событие приложения: задачи изменены в текущей транзакции.
+ */
+public record TaskChangedEvent(Collection<UUID> taskIds) {
+}
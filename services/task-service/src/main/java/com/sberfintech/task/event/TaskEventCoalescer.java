@@ -0,0 +1,64 @@
+package com.sberfintech.task.event;
+
+import com.sberfintech.task.config.TaskEventsProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Схлопывает подряд идущие TASK_UPDATED одной задачи внутри пачки outbox.
+ * Остаётся последнее событие серии, порядок событий каждой задачи сохраняется.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskEventCoalescer {
+
+    private final TaskEventsProperties taskEventsProperties;
+
+    public List<TaskOutboxEvent> coalesce(List<TaskOutboxEvent> batch) {
+        Duration window = taskEventsProperties.getCoalesceWindow();
+        if (window == null || window.isZero() || batch.size() < 2) {
+            return batch;
+        }
+
+        List<TaskOutboxEvent> result = new ArrayList<>(batch.size());
+        Map<UUID, Integer> lastUpdateIndex = new HashMap<>();
+        int dropped = 0;
+
+        for (TaskOutboxEvent event : batch) {
+            UUID taskId = event.getAggregateId();
+            if (event.getEventType() != EventType.TASK_UPDATED) {
+                lastUpdateIndex.remove(taskId);
+                result.add(event);
+                continue;
+            }
+
+            Integer previousIndex = lastUpdateIndex.get(taskId);
+            if (previousIndex != null && withinWindow(result.get(previousIndex), event, window)) {
+                result.set(previousIndex, null);
+                dropped++;
+            }
+            lastUpdateIndex.put(taskId, result.size());
+            result.add(event);
+        }
+
+        if (dropped == 0) {
+            return batch;
+        }
+        result.removeIf(Objects::isNull);
+        return result;
+    }
+
+    private boolean withinWindow(TaskOutboxEvent previous, TaskOutboxEvent next, Duration window) {
+        return Duration.between(previous.getCreatedAt(), next.getCreatedAt()).compareTo(window) <= 0;
+    }
+}
@@ -1,23 +1,63 @@
 package com.sberfintech.task.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.TaskEventsProperties;
 import com.sberfintech.task.dto.EventType;
 import com.sberfintech.task.dto.TaskEvent;
 import com.sberfintech.task.model.Task;
-import lombok.RequiredArgsConstructor;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
+/**
+ * Записывает события задач в outbox в той же транзакции, что и изменение задачи.
+ * В Kafka их отправляет {@link TaskOutboxRelay} после коммита.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
 public class TaskEventService {
 
+    private final TaskOutboxRepository taskOutboxRepository;
 
-    private final KafkaTemplate<String, TaskEvent> kafkaTemplate;
+    private final TaskEventsProperties taskEventsProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<EventType, Counter> transitions = new EnumMap<>(EventType.class);
+
+    public TaskEventService(TaskOutboxRepository taskOutboxRepository,
+                            TaskEventsProperties taskEventsProperties,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            MeterRegistry meterRegistry) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.taskEventsProperties = taskEventsProperties;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        for (EventType eventType : EventType.values()) {
+            transitions.put(eventType, Counter.builder("task.transitions")
+                    .description("Task state changes queued to the outbox, by event type")
+                    .tag("event", eventType.name())
+                    .register(meterRegistry));
+        }
+    }
 
     public void sendTaskCreated(Task task){
         sendEvent(task, EventType.TASK_CREATED, task.getCreatorId(), null);
@@ -47,14 +87,66 @@ public class TaskEventService {
         sendEvent(task, EventType.TASK_ESCALATED, escalatedTo, null);
     }
 
+    public void sendTaskDeleted(Task task){
+        sendEvent(task, EventType.TASK_DELETED, task.getCreatorId(), null);
+    }
+
     public void sendTaskOverdue(Task task){
-        sendEvent(task, EventType.TASK_OVERDUE, task.getAssigneeId(),
-                "Задача просрочена. Срок выполнения: " + task.getDueDate());
+        sendEvent(task, EventType.TASK_OVERDUE, task.getAssigneeId(), overdueReason(task));
+    }
+
+
+
+    public void sendTasksCreated(List<Task> tasks){
+        sendEvents(tasks, EventType.TASK_CREATED, Task::getCreatorId, task -> null);
+    }
+
+    public void sendTasksAssigned(List<Task> tasks, Long assigneeId){
+        sendEvents(tasks, EventType.TASK_ASSIGNED, task -> assigneeId, task -> null);
     }
 
+    public void sendTasksCompleted(List<Task> tasks, Long userId){
+        sendEvents(tasks, EventType.TASK_COMPLETED, task -> userId, task -> null);
+    }
 
+    public void sendTasksCanceled(List<Task> tasks, String reason){
+        sendEvents(tasks, EventType.TASK_CANCELED, Task::getCreatorId, task -> reason);
+    }
+
+    public void sendTasksEscalated(List<Task> tasks, Long escalatedTo){
+        sendEvents(tasks, EventType.TASK_ESCALATED, task -> escalatedTo, task -> null);
+    }
+
+    public void sendTasksOverdue(List<Task> tasks){
+        sendEvents(tasks, EventType.TASK_OVERDUE, Task::getAssigneeId, TaskEventService::overdueReason);
+    }
+
+    private static String overdueReason(Task task){
+        return "Задача просрочена. Срок выполнения: " + task.getDueDate();
+    }
+
+    private void sendEvents(List<Task> tasks, EventType eventType, Function<Task, Long> userId,
+                            Function<Task, String> reason){
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<TaskOutboxEvent> events = tasks.stream()
+                .map(task -> toOutboxEvent(task, eventType, userId.apply(task), reason.apply(task)))
+                .toList();
+        taskOutboxRepository.saveAll(events);
+        transitions.get(eventType).increment(events.size());
+        applicationEventPublisher.publishEvent(new TaskChangedEvent(tasks.stream().map(Task::getId).toList()));
+        log.info("Queued {} {} events", events.size(), eventType);
+    }
 
     private void sendEvent(Task task, EventType eventType, Long userId, String reason){
+        taskOutboxRepository.save(toOutboxEvent(task, eventType, userId, reason));
+        transitions.get(eventType).increment();
+        applicationEventPublisher.publishEvent(new TaskChangedEvent(List.of(task.getId())));
+        log.info("Queued task event: {} for task {}. Reason: {}", eventType, task.getId(), reason);
+    }
+
+    private TaskOutboxEvent toOutboxEvent(Task task, EventType eventType, Long userId, String reason){
         TaskEvent event = TaskEvent.builder()
                 .eventId(UUID.randomUUID().toString())
                 .eventType(eventType)
@@ -65,7 +157,30 @@ public class TaskEventService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("task-events", task.getId().toString(), event);
-        log.info("Sent task event: {} for task {}. Reason: {}", eventType, task.getId(), reason);
+        return TaskOutboxEvent.builder()
+                .aggregateId(task.getId())
+                .aggregateVersion(aggregateVersion(task, eventType))
+                .eventType(eventType)
+                .topic(taskEventsProperties.getTopic())
+                .payload(toJson(event))
+                .createdAt(event.getTimestamp())
+                .build();
+    }
+
+    /**
+     * Переходы и обновления приходят сюда уже записанными, с увеличенной version. Удаление строку не обновляет,
+     * поэтому считается ещё одним изменением поверх последней version.
+     */
+    private static long aggregateVersion(Task task, EventType eventType) {
+        long version = task.getVersion() == null ? 0 : task.getVersion();
+        return eventType == EventType.TASK_DELETED ? version + 1 : version;
+    }
+
+    private String toJson(TaskEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize task event " + event.getEventId(), e);
+        }
     }
 }
@@ -0,0 +1,225 @@
+package com.sberfintech.task.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.OutboxProperties;
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskOutboxRepository.PendingVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит события из task_outbox в Kafka пачками.
+ * Пачка блокируется через FOR UPDATE SKIP LOCKED, отправляется целиком и удаляется в той же транзакции;
+ * при ошибке транзакция откатывается и события будут отправлены повторно (at-least-once).
+ * <p>
+ * Порядок гарантируется в пределах задачи — ключа сообщения Kafka: её события уходят по возрастанию
+ * aggregate_version. Каждое изменение задачи увеличивает version под блокировкой строки tasks,
+ * поэтому version растёт в порядке коммитов. Событие, перед которым у задачи есть неотправленное событие
+ * вне пачки (его держит другой экземпляр или оно не поместилось в LIMIT), остаётся в outbox до следующего прохода.
+ * Между разными задачами порядка нет: id из task_outbox_seq экземпляры получают блоками, и он не отражает
+ * порядок коммитов, а created_at задаёт лишь очередь, в которой события забираются.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskOutboxRelay {
+
+    private static final Comparator<TaskOutboxEvent> AGGREGATE_ORDER =
+            Comparator.comparingLong(TaskOutboxEvent::getAggregateVersion)
+                    .thenComparing(TaskOutboxEvent::getCreatedAt)
+                    .thenComparing(TaskOutboxEvent::getId);
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final KafkaTemplate<String, TaskEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskEventCoalescer taskEventCoalescer;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Counter relayedCounter;
+    private final Counter failedBatchesCounter;
+    private final Counter coalescedCounter;
+    private final Counter deferredCounter;
+    private final Timer sendLatencyTimer;
+    private final Counter sendFailuresCounter;
+
+    public TaskOutboxRelay(TaskOutboxRepository taskOutboxRepository,
+                           KafkaTemplate<String, TaskEvent> kafkaTemplate,
+                           ObjectMapper objectMapper,
+                           OutboxProperties outboxProperties,
+                           TransactionTemplate transactionTemplate,
+                           TaskEventCoalescer taskEventCoalescer,
+                           MeterRegistry meterRegistry) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.taskEventCoalescer = taskEventCoalescer;
+
+        TimeGauge.builder("task.outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("task.outbox.relay.batch.size")
+                .description("Number of events relayed per batch")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("task.outbox.relay.events")
+                .description("Events relayed from the outbox to Kafka")
+                .register(meterRegistry);
+        this.failedBatchesCounter = Counter.builder("task.outbox.relay.failures")
+                .description("Outbox batches rolled back because Kafka did not acknowledge them")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("task.outbox.relay.coalesced")
+                .description("TASK_UPDATED events dropped because a later update of the same task superseded them")
+                .register(meterRegistry);
+        this.deferredCounter = Counter.builder("task.outbox.relay.deferred")
+                .description("Claimed events left in the outbox because an earlier event of the same task was pending")
+                .register(meterRegistry);
+        this.sendLatencyTimer = Timer.builder("task.outbox.relay.send")
+                .description("Time from handing an event to the producer until the broker acknowledged it")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendFailuresCounter = Counter.builder("task.outbox.relay.send.failures")
+                .description("Events the producer failed to deliver to the broker")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.poll-interval-ms:200}")
+    public void relay() {
+        int batchSize = outboxProperties.getBatchSize();
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch(batchSize));
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            failedBatchesCounter.increment();
+            log.warn("Outbox relay batch failed, will retry: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    private int relayBatch(int batchSize) {
+        List<TaskOutboxEvent> claimed = taskOutboxRepository.lockNextBatch(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        List<TaskOutboxEvent> batch = releasable(claimed);
+        deferredCounter.increment(claimed.size() - batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<TaskOutboxEvent> toSend = taskEventCoalescer.coalesce(batch);
+        List<CompletableFuture<SendResult<String, TaskEvent>>> sends = new ArrayList<>(toSend.size());
+        for (TaskOutboxEvent outboxEvent : toSend) {
+            TaskEvent event = fromJson(outboxEvent);
+            if (event == null) {
+                continue;
+            }
+            long startedAt = System.nanoTime();
+            sends.add(kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getAggregateId().toString(), event)
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            sendLatencyTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        } else {
+                            sendFailuresCounter.increment();
+                        }
+                    }));
+        }
+        awaitAll(sends, outboxProperties.getSendTimeout());
+
+        // Удаляем отправленную пачку, включая схлопнутые события; отложенные остаются в outbox
+        taskOutboxRepository.deleteAllInBatch(batch);
+        batchSizeSummary.record(sends.size());
+        relayedCounter.increment(sends.size());
+        coalescedCounter.increment(batch.size() - toSend.size());
+        log.debug("Relayed {} task events from outbox ({} coalesced)", sends.size(), batch.size() - toSend.size());
+        return batch.size();
+    }
+
+    /**
+     * События пачки, перед которыми у их задачи нет неотправленных событий вне пачки,
+     * в порядке aggregate_version каждой задачи. Отложенные события не удаляются и освобождаются при коммите.
+     */
+    private List<TaskOutboxEvent> releasable(List<TaskOutboxEvent> claimed) {
+        Set<UUID> aggregateIds = claimed.stream().map(TaskOutboxEvent::getAggregateId).collect(Collectors.toSet());
+        List<Long> claimedIds = claimed.stream().map(TaskOutboxEvent::getId).toList();
+        Map<UUID, Long> pending = taskOutboxRepository.findPendingVersions(aggregateIds, claimedIds).stream()
+                .collect(Collectors.toMap(PendingVersion::getAggregateId, PendingVersion::getAggregateVersion));
+
+        List<TaskOutboxEvent> releasable = new ArrayList<>(claimed.size());
+        for (TaskOutboxEvent event : claimed) {
+            Long earliestPending = pending.get(event.getAggregateId());
+            if (earliestPending == null || event.getAggregateVersion() <= earliestPending) {
+                releasable.add(event);
+            }
+        }
+        releasable.sort(AGGREGATE_ORDER);
+        return releasable;
+    }
+
+    private void awaitAll(List<CompletableFuture<SendResult<String, TaskEvent>>> sends, Duration timeout) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kafka acknowledgements", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+    }
+
+    private TaskEvent fromJson(TaskOutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), TaskEvent.class);
+        } catch (JsonProcessingException e) {
+            // Битую запись повторять бессмысленно: она заблокировала бы весь outbox
+            log.error("Dropping corrupted outbox event id={}: {}", outboxEvent.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void updateLag() {
+        try {
+            lagMillis.set(taskOutboxRepository.findOldestCreatedAt()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            log.debug("Cannot measure outbox lag: {}", e.getMessage());
+        }
+    }
+}
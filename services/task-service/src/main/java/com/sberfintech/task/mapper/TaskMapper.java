@@ -6,6 +6,7 @@ import com.sberfintech.task.dto.UpdateTaskRequest;
 import com.sberfintech.task.model.Task;
 import com.sberfintech.task.model.TaskPriority;
 import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
 import org.mapstruct.*;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
@@ -19,6 +20,9 @@ public interface TaskMapper {
     @Mapping(target = "completionDate",  ignore = true)
     @Mapping(target = "escalationLevel", constant = "0")
     @Mapping(target = "escalatedTo", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "searchVector", ignore = true)
+    @Mapping(target = "statusBeforeOverdue", ignore = true)
     @Mapping(target = "priority", source = "priority", qualifiedByName = "mapPriority")
     Task toEntity(CreateTaskRequest request);
 
@@ -29,13 +33,18 @@ public interface TaskMapper {
     @Mapping(target = "completionDate",  ignore = true)
     @Mapping(target = "escalationLevel", ignore = true)
     @Mapping(target = "escalatedTo", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "searchVector", ignore = true)
     @Mapping(target = "creatorId", ignore = true)
+    @Mapping(target = "statusBeforeOverdue", ignore = true)
     @Mapping(target = "priority", source = "priority", qualifiedByName = "mapPriority")
     @Mapping(target = "status", source = "status", qualifiedByName = "mapStatus")
     void updateEntity(UpdateTaskRequest request, @MappingTarget Task task);
 
     TaskResponse toResponse(Task task);
 
+    TaskResponse toResponse(TaskDetail detail);
+
 
     @Named("mapPriority")
     default TaskPriority mapPriority(String priority){
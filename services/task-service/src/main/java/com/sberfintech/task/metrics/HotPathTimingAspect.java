@@ -0,0 +1,116 @@
+package com.sberfintech.task.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таймеры с гистограммой перцентилей на каждую операцию {@code TaskService} и каждый метод репозиториев задач.
+ * <p>
+ * Пара таймеров (success/error) создаётся при первом вызове метода и дальше берётся из кэша по {@link Method},
+ * так что на вызов не собираются теги и не ищется метр в реестре.
+ */
+@Aspect
+@Component
+public class HotPathTimingAspect {
+
+    private static final String SERVICE_TIMER = "task.service.operation";
+    private static final String REPOSITORY_TIMER = "task.repository.query";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timers> serviceTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Timers> repositoryTimers = new ConcurrentHashMap<>();
+
+    public HotPathTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.sberfintech.task.service.TaskService.*(..))")
+    public Object timeServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = method(joinPoint);
+        Timers timers = serviceTimers.get(method);
+        if (timers == null) {
+            timers = serviceTimers.computeIfAbsent(method, m -> new Timers(meterRegistry, SERVICE_TIMER,
+                    "Latency of TaskService operations", "operation", m.getName(), null));
+        }
+        return proceed(joinPoint, timers);
+    }
+
+    /**
+     * Spring Data-репозиторий сам является прокси, поэтому сопоставляется по this(), а не по классу.
+     */
+    @Around("execution(public * *(..)) && ("
+            + "this(com.sberfintech.task.repository.TaskRepository)"
+            + " || within(com.sberfintech.task.repository.TaskJdbcRepository)"
+            + " || within(com.sberfintech.task.repository.TaskQueryRepository))")
+    public Object timeRepositoryQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = method(joinPoint);
+        Timers timers = repositoryTimers.get(method);
+        if (timers == null) {
+            String repository = repositoryName(joinPoint);
+            timers = repositoryTimers.computeIfAbsent(method, m -> new Timers(meterRegistry, REPOSITORY_TIMER,
+                    "Latency of task repository methods", "method", m.getName(), repository));
+        }
+        return proceed(joinPoint, timers);
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, Timers timers) throws Throwable {
+        long started = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.success.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timers.error.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Method method(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (type.getName().startsWith("com.sberfintech.task.repository.")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    private static final class Timers {
+
+        private final Timer success;
+        private final Timer error;
+
+        private Timers(MeterRegistry meterRegistry, String name, String description, String tag, String value,
+                       String repository) {
+            this.success = timer(meterRegistry, name, description, tag, value, repository, "success");
+            this.error = timer(meterRegistry, name, description, tag, value, repository, "error");
+        }
+
+        private static Timer timer(MeterRegistry meterRegistry, String name, String description, String tag,
+                                   String value, String repository, String outcome) {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag(tag, value)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram();
+            if (repository != null) {
+                builder.tag("repository", repository);
+            }
+            return builder.register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sberfintech.task.metrics;
+
+/**
+ * Счётчик SQL-операторов текущего потока. Операторы считает {@link com.sberfintech.task.datasource.StatementCountingDataSource}
+ * при подготовке, поэтому JDBC-пачка идёт за один оператор, а JPA и JdbcTemplate считаются одинаково.
+ * <p>
+ * Вне открытой области счётчик ничего не делает.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static boolean isCounting() {
+        return CURRENT.get() != null;
+    }
+
+    public static void increment() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements++;
+        }
+    }
+
+    /**
+     * Считает операторы до закрытия возвращённой области; вложенная область при закрытии добавляет свои
+     * операторы во внешнюю.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private int statements;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                parent.statements += statements;
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
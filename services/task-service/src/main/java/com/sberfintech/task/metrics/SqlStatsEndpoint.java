@@ -0,0 +1,95 @@
+package com.sberfintech.task.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * /actuator/sqlstats: статистика Hibernate по каждому запросу (выполнения, время, строки) и число операторов
+ * на HTTP-запрос. Эндпоинт только на чтение: сброс вынесен в JMX-эндпоинт {@link SqlStatsResetEndpoint}.
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final Statistics statistics;
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final long slowQueryMillis;
+
+    public SqlStatsEndpoint(Statistics statistics, MeterRegistry meterRegistry, int statementBudget,
+                            Duration slowQueryThreshold) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.slowQueryMillis = slowQueryThreshold.toMillis();
+    }
+
+    @ReadOperation
+    public SqlStats sqlStats() {
+        List<QueryStats> queries = Arrays.stream(statistics.getQueries())
+                .map(this::queryStats)
+                .sorted(Comparator.comparingLong(QueryStats::totalTimeMs).reversed())
+                .toList();
+        return new SqlStats(
+                statistics.isStatisticsEnabled(),
+                requestStats(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getQueryExecutionMaxTime(),
+                queries);
+    }
+
+    private QueryStats queryStats(String query) {
+        QueryStatistics stats = statistics.getQueryStatistics(query);
+        return new QueryStats(query, stats.getExecutionCount(), stats.getExecutionTotalTime(),
+                stats.getExecutionAvgTime(), stats.getExecutionMaxTime(), stats.getExecutionRowCount(),
+                stats.getExecutionMaxTime() >= slowQueryMillis);
+    }
+
+    private RequestStats requestStats() {
+        DistributionSummary summary = meterRegistry.find(StatementBudgetFilter.STATEMENTS_PER_REQUEST).summary();
+        Counter overBudget = meterRegistry.find(StatementBudgetFilter.OVER_BUDGET).counter();
+        if (summary == null) {
+            return new RequestStats(statementBudget, 0, 0, 0, 0);
+        }
+        return new RequestStats(statementBudget, summary.count(), summary.mean(), summary.max(),
+                overBudget == null ? 0 : (long) overBudget.count());
+    }
+
+    /**
+     * @param entityFetches     отдельные догрузки сущностей; рост вместе с числом запросов — признак N+1
+     * @param collectionFetches то же для коллекций
+     */
+    public record SqlStats(boolean statisticsEnabled,
+                           RequestStats requests,
+                           long preparedStatements,
+                           long queryExecutions,
+                           long entityLoads,
+                           long entityFetches,
+                           long collectionFetches,
+                           String slowestQuery,
+                           long slowestQueryTimeMs,
+                           List<QueryStats> queries) {
+    }
+
+    public record RequestStats(int statementBudget, long requests, double meanStatements, double maxStatements,
+                               long overBudget) {
+    }
+
+    public record QueryStats(String query, long executions, long totalTimeMs, long avgTimeMs, long maxTimeMs,
+                             long rows, boolean slow) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.sberfintech.task.metrics;
+
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+
+/**
+ * Сброс статистики Hibernate, например перед прогоном нагрузки. Только JMX (при spring.jmx.enabled=true):
+ * /actuator/sqlstats открыт в web на чтение, и сброс через него стирал бы статистику любому клиенту.
+ */
+@JmxEndpoint(id = "sqlstatsreset")
+public class SqlStatsResetEndpoint {
+
+    private final Statistics statistics;
+
+    public SqlStatsResetEndpoint(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.sberfintech.task.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Считает SQL-операторы за HTTP-запрос и предупреждает о запросах сверх бюджета — типичный след N+1.
+ * Считается только синхронная часть запроса: асинхронные выгрузки работают в других потоках.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_PER_REQUEST = "task.sql.statements.per.request";
+    static final String OVER_BUDGET = "task.sql.statement.budget.exceeded";
+
+    private final int budget;
+    private final DistributionSummary statementsPerRequest;
+    private final Counter overBudget;
+
+    public StatementBudgetFilter(int budget, MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.statementsPerRequest = DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                .description("SQL statements prepared while serving one HTTP request")
+                .publishPercentiles(0.5, 0.99)
+                .serviceLevelObjectives(budget)
+                .register(meterRegistry);
+        this.overBudget = Counter.builder(OVER_BUDGET)
+                .description("HTTP requests that prepared more SQL statements than the budget allows")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            int statements = scope.statements();
+            statementsPerRequest.record(statements);
+            if (statements > budget) {
+                overBudget.increment();
+                log.warn("{} {} prepared {} SQL statements, budget is {}",
+                        request.getMethod(), request.getRequestURI(), statements, budget);
+            }
+        }
+    }
+}
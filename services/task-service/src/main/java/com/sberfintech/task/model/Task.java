@@ -5,7 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,6 +15,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "tasks")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,6 +63,13 @@ public class Task {
     @Column(name = "asset_id")
     private Long assetId;
 
+    /**
+     * Статус, в котором задача была до перевода в OVERDUE; заполнен только пока задача просрочена.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_before_overdue")
+    private TaskStatus statusBeforeOverdue;
+
     @Column(name = "escalation_level")
     @Builder.Default
     private Integer escalationLevel = 0;
@@ -75,6 +85,17 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * tsvector по названию и описанию, генерируемый столбец Postgres. Нужен только в условиях поиска.
+     */
+    @ToString.Exclude
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+
     @PrePersist
     protected void onCreate() {
         if (status == null){
@@ -0,0 +1,11 @@
+package com.sberfintech.task.model;
+
+/**
+ * Длительности, которые сворачиваются в SLA-итоги: от создания задачи до первого назначения,
+ * до завершения и до отмены.
+ */
+public enum TaskSlaMetric {
+    TIME_TO_ASSIGN,
+    TIME_TO_COMPLETE,
+    TIME_TO_CANCEL
+}
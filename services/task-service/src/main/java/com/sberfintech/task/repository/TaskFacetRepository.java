@@ -0,0 +1,83 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.config.FacetProperties;
+import com.sberfintech.task.dto.FacetCount;
+import com.sberfintech.task.dto.TaskFacets;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Счётчики фасетов поиска одним запросом с GROUPING SETS: таблица читается один раз для всех полей.
+ * JPA Criteria не умеет GROUPING SETS, поэтому условия из {@link TaskSearchCriteria} переводятся в SQL
+ * через {@link TaskSqlConditions}, как и у реактивного чтения.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskFacetRepository {
+
+    private static final String FACETS_SQL = """
+            SELECT facet, value, count FROM (
+                SELECT CASE WHEN GROUPING(status) = 0 THEN 'status'
+                            WHEN GROUPING(priority) = 0 THEN 'priority'
+                            WHEN GROUPING(assignee_id) = 0 THEN 'assigneeId'
+                            WHEN GROUPING(property_id) = 0 THEN 'propertyId'
+                            ELSE 'total' END AS facet,
+                       COALESCE(status, priority, assignee_id::text, property_id::text) AS value,
+                       count(*) AS count,
+                       row_number() OVER (PARTITION BY GROUPING(status, priority, assignee_id, property_id)
+                                          ORDER BY count(*) DESC) AS position
+                FROM tasks %s
+                %s
+                GROUP BY GROUPING SETS ((status), (priority), (assignee_id), (property_id), ())
+            ) facets
+            WHERE position <= :maxValues
+            ORDER BY facet, count DESC, value
+            """;
+
+    private static final String SAMPLE = "TABLESAMPLE SYSTEM (CAST(:samplePercent AS real))";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final FacetProperties facetProperties;
+
+    /**
+     * Счётчики по статусу, приоритету, исполнителю и объекту для задач под фильтром.
+     * {@code text} — необязательный полнотекстовый запрос, как у поиска. При {@code approximate} счётчики
+     * оцениваются по {@code task.facets.sample-percent} процентам страниц таблицы.
+     */
+    public TaskFacets count(TaskSearchCriteria criteria, String text, boolean approximate) {
+        boolean sampled = approximate && facetProperties.getSamplePercent() < 100;
+        TaskSqlConditions conditions = new TaskSqlConditions()
+                .criteria(criteria)
+                .add("search_vector @@ task_search_query(:text)", "text", text)
+                .bind("maxValues", facetProperties.getMaxValues());
+        if (sampled) {
+            conditions.bind("samplePercent", facetProperties.getSamplePercent());
+        }
+        String sql = FACETS_SQL.formatted(sampled ? SAMPLE : "", conditions.where());
+        double scale = sampled ? 100 / facetProperties.getSamplePercent() : 1;
+
+        Map<String, List<FacetCount>> facets = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql, conditions.binds(), rs -> {
+            facets.computeIfAbsent(rs.getString("facet"), facet -> new ArrayList<>())
+                    .add(new FacetCount(rs.getString("value"), Math.round(rs.getLong("count") * scale)));
+        });
+
+        List<FacetCount> total = facets.getOrDefault("total", List.of());
+        return TaskFacets.builder()
+                .total(total.isEmpty() ? 0 : total.get(0).count())
+                .approximate(sampled)
+                .status(facets.getOrDefault("status", List.of()))
+                .priority(facets.getOrDefault("priority", List.of()))
+                .assigneeId(facets.getOrDefault("assigneeId", List.of()))
+                .propertyId(facets.getOrDefault("propertyId", List.of()))
+                .build();
+    }
+}
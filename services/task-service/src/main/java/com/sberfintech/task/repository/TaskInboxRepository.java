@@ -0,0 +1,180 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.config.InboxProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Входящие исполнителей в Redis.
+ * <p>
+ * {@code <prefix>:<assigneeId>} — sorted set id задач в порядке выдачи, {@code <prefix>:<assigneeId>:cards} —
+ * hash с JSON-карточками, {@code <prefix>:owners} — чей инбокс и какая версия задачи в нём лежит,
+ * {@code <prefix>:tomb:<taskId>} — версия закрытой задачи с TTL. Все изменения идут Lua-скриптами и применяются
+ * только если версия не старее уже записанной, поэтому запоздавшая синхронизация не откатывает инбокс назад.
+ * Ключи вычисляются внутри скриптов, так что рассчитано на одиночный Redis, а не на кластер.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskInboxRepository {
+
+    private static final String APPLY_FUNCTION = """
+            local function apply(prefix, ttl, id, version, assignee, score, card)
+              local owners = prefix .. ':owners'
+              local current = redis.call('HGET', owners, id)
+              local currentOwner = nil
+              local currentVersion = -1
+              if current then
+                local sep = string.find(current, ':', 1, true)
+                currentOwner = string.sub(current, 1, sep - 1)
+                currentVersion = tonumber(string.sub(current, sep + 1))
+              end
+              local tomb = redis.call('GET', prefix .. ':tomb:' .. id)
+              if tomb and tonumber(tomb) > currentVersion then
+                currentVersion = tonumber(tomb)
+              end
+              if tonumber(version) < currentVersion then
+                return 0
+              end
+              if currentOwner and currentOwner ~= assignee then
+                redis.call('ZREM', prefix .. ':' .. currentOwner, id)
+                redis.call('HDEL', prefix .. ':' .. currentOwner .. ':cards', id)
+              end
+              if assignee == '' then
+                redis.call('HDEL', owners, id)
+                redis.call('SET', prefix .. ':tomb:' .. id, version, 'EX', ttl)
+              else
+                redis.call('ZADD', prefix .. ':' .. assignee, score, id)
+                redis.call('HSET', prefix .. ':' .. assignee .. ':cards', id, card)
+                redis.call('HSET', owners, id, assignee .. ':' .. version)
+              end
+              return 1
+            end
+            """;
+
+    private static final RedisScript<Long> APPLY_SCRIPT = RedisScript.of(APPLY_FUNCTION + """
+            local applied = 0
+            for i = 3, #ARGV, 5 do
+              applied = applied + apply(ARGV[1], ARGV[2], ARGV[i], ARGV[i + 1], ARGV[i + 2], ARGV[i + 3], ARGV[i + 4])
+            end
+            return applied
+            """, Long.class);
+
+    private static final RedisScript<Long> REBUILD_SCRIPT = RedisScript.of(APPLY_FUNCTION + """
+            local prefix, ttl, assignee = ARGV[1], ARGV[2], ARGV[3]
+            local inbox = prefix .. ':' .. assignee
+            if ARGV[4] == '1' then
+              local snapshot = {}
+              for i = 5, #ARGV, 4 do
+                snapshot[ARGV[i]] = true
+              end
+              for _, id in ipairs(redis.call('ZRANGE', inbox, 0, -1)) do
+                if not snapshot[id] then
+                  redis.call('ZREM', inbox, id)
+                  redis.call('HDEL', inbox .. ':cards', id)
+                  local owner = redis.call('HGET', prefix .. ':owners', id)
+                  if owner and string.sub(owner, 1, #assignee + 1) == assignee .. ':' then
+                    redis.call('HDEL', prefix .. ':owners', id)
+                  end
+                end
+              end
+            end
+            for i = 5, #ARGV, 4 do
+              apply(prefix, ttl, ARGV[i], ARGV[i + 1], assignee, ARGV[i + 2], ARGV[i + 3])
+            end
+            redis.call('SET', inbox .. ':built', '1')
+            return redis.call('ZCARD', inbox)
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = RedisScript.of("""
+            local inbox = ARGV[1] .. ':' .. ARGV[2]
+            if redis.call('EXISTS', inbox .. ':built') == 0 then
+              return {'0'}
+            end
+            local ids = redis.call('ZRANGE', inbox, 0, tonumber(ARGV[3]) - 1)
+            if #ids == 0 then
+              return {'1'}
+            end
+            local cards = redis.call('HMGET', inbox .. ':cards', unpack(ids))
+            table.insert(cards, 1, '1')
+            return cards
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final InboxProperties inboxProperties;
+
+    /**
+     * Применяет состояния задач: открытая назначенная задача кладётся во входящие исполнителя
+     * (и убирается из прежних), закрытая или удалённая — убирается. Возвращает число применённых записей.
+     */
+    public long apply(Collection<InboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        List<String> args = new ArrayList<>(2 + entries.size() * 5);
+        args.add(inboxProperties.getKeyPrefix());
+        args.add(tombstoneTtlSeconds());
+        for (InboxEntry entry : entries) {
+            args.add(entry.taskId().toString());
+            args.add(Long.toString(entry.version()));
+            args.add(entry.assigneeId() == null ? "" : entry.assigneeId().toString());
+            args.add(Long.toString(entry.score()));
+            args.add(entry.card() == null ? "" : entry.card());
+        }
+        Long applied = redisTemplate.execute(APPLY_SCRIPT, List.of(), args.toArray());
+        return applied == null ? 0 : applied;
+    }
+
+    /**
+     * Записывает снимок входящих исполнителя из БД и помечает их построенными.
+     * С {@code replace} задачи, которых нет в снимке, удаляются; без него снимок только дополняет
+     * уже накопленные инкрементальные изменения.
+     */
+    public long rebuild(Long assigneeId, List<InboxEntry> snapshot, boolean replace) {
+        List<String> args = new ArrayList<>(4 + snapshot.size() * 4);
+        args.add(inboxProperties.getKeyPrefix());
+        args.add(tombstoneTtlSeconds());
+        args.add(assigneeId.toString());
+        args.add(replace ? "1" : "0");
+        for (InboxEntry entry : snapshot) {
+            args.add(entry.taskId().toString());
+            args.add(Long.toString(entry.version()));
+            args.add(Long.toString(entry.score()));
+            args.add(entry.card());
+        }
+        Long size = redisTemplate.execute(REBUILD_SCRIPT, List.of(), args.toArray());
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * JSON-карточки первых {@code limit} задач входящих, или null, если входящие исполнителя ещё не построены.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> read(Long assigneeId, int limit) {
+        // первый элемент ответа — признак построенности, чтобы не путать пустые входящие с непостроенными
+        List<String> reply = redisTemplate.execute(READ_SCRIPT, List.of(),
+                inboxProperties.getKeyPrefix(), assigneeId.toString(), Integer.toString(limit));
+        if (reply == null || reply.isEmpty() || !"1".equals(reply.get(0))) {
+            return null;
+        }
+        return reply.subList(1, reply.size());
+    }
+
+    private String tombstoneTtlSeconds() {
+        return Long.toString(Math.max(1, inboxProperties.getTombstoneTtl().toSeconds()));
+    }
+
+    /**
+     * Состояние задачи для входящих. {@code assigneeId == null} означает, что задачу нужно убрать.
+     */
+    public record InboxEntry(UUID taskId, long version, Long assigneeId, long score, String card) {
+    }
+}
@@ -0,0 +1,384 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.config.BatchProperties;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Операции над tasks, которые выгоднее выполнять напрямую через JDBC: пакетные вставки и условные переходы статуса.
+ * Каждый переход увеличивает version, поэтому JPA-сохранение по устаревшей версии завершится конфликтом.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tasks (id, title, description, status, priority, creation_date, due_date,
+                               assignee_id, creator_id, property_id, asset_id, escalation_level,
+                               created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /*
+     * Переходы блокируют строки подзапросом FOR UPDATE и возвращают вместе с новой строкой статус
+     * и исполнителя до изменения: по ним TaskStatsRegistry сдвигает счётчики без повторного чтения.
+     */
+
+    /*
+     * Назначение и взятие в работу просроченной задачи оставляют её в OVERDUE, пока срок в прошлом,
+     * и сдвигают только status_before_overdue: иначе планировщик снова пометил бы её просроченной.
+     */
+
+    private static final String ASSIGN_SQL = """
+            UPDATE tasks t SET assignee_id = ?,
+                               status = CASE WHEN previous.status = 'OVERDUE' THEN 'OVERDUE' ELSE 'ASSIGNED' END,
+                               status_before_overdue = CASE WHEN previous.status = 'OVERDUE' THEN 'ASSIGNED' END,
+                               updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?) AND assignee_id IS NULL
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String START_SQL = """
+            UPDATE tasks t SET status = CASE WHEN previous.status = 'OVERDUE' THEN 'OVERDUE' ELSE 'IN_PROGRESS' END,
+                               status_before_overdue = CASE WHEN previous.status = 'OVERDUE' THEN 'IN_PROGRESS' END,
+                               updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?) AND assignee_id = ?
+                    AND (status <> 'OVERDUE' OR status_before_overdue IS DISTINCT FROM 'IN_PROGRESS')
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE tasks t SET status = 'COMPLETED', completion_date = ?, updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?) AND assignee_id = ?
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String CANCEL_SQL = """
+            UPDATE tasks t SET status = 'CANCELED', updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?)
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String ESCALATE_SQL = """
+            UPDATE tasks t SET status = 'ESCALATED', escalation_level = t.escalation_level + 1,
+                               escalated_to = ?, assignee_id = ?, updated_at = ?,
+                               version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?)
+                    AND (CAST(? AS BIGINT) IS NULL OR assignee_id IS DISTINCT FROM ?)
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String ESCALATE_BY_POLICY_SQL = """
+            UPDATE tasks t SET status = 'ESCALATED', escalation_level = ?,
+                               escalated_to = COALESCE(?, t.escalated_to), assignee_id = COALESCE(?, t.assignee_id),
+                               updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE priority = ? AND escalation_level < ? AND due_date <= ? AND status = ANY(?)
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String MARK_OVERDUE_SQL = """
+            UPDATE tasks t SET status = 'OVERDUE', status_before_overdue = previous.status,
+                               updated_at = ?, version = t.version + 1
+            FROM (SELECT id, status, assignee_id FROM tasks
+                  WHERE id = ANY(?) AND status = ANY(?) AND due_date <= ?
+                  FOR UPDATE) previous
+            WHERE t.id = previous.id
+            RETURNING t.*, previous.status AS previous_status, previous.assignee_id AS previous_assignee_id
+            """;
+
+    private static final String DEADLINES_UNTIL_SQL = """
+            SELECT id, due_date FROM tasks
+            WHERE status = ANY(?) AND due_date <= ?
+              AND get_byte(uuid_send(id), 15) % ? = ANY(?)
+            """;
+
+    private static final String DEADLINES_IN_WINDOW_SQL = """
+            SELECT id, due_date FROM tasks
+            WHERE status = ANY(?) AND due_date > ? AND due_date <= ?
+              AND get_byte(uuid_send(id), 15) % ? = ANY(?)
+            """;
+
+    private static final String DEADLINES_BY_ID_SQL = """
+            SELECT id, due_date FROM tasks
+            WHERE id = ANY(?) AND status = ANY(?) AND due_date IS NOT NULL
+            """;
+
+    private static final String FIND_BY_IDS_SQL = """
+            SELECT * FROM tasks WHERE id = ANY(?)
+            """;
+
+    private static final String FIND_BY_ASSIGNEE_SQL = """
+            SELECT * FROM tasks WHERE assignee_id = ? AND status = ANY(?)
+            """;
+
+    private static final String COUNT_OPEN_SQL = """
+            SELECT CASE WHEN GROUPING(status) = 0 THEN 'status'
+                        WHEN GROUPING(priority) = 0 THEN 'priority'
+                        WHEN GROUPING(property_id) = 0 THEN 'propertyId'
+                        ELSE 'assigneeId' END AS dimension,
+                   COALESCE(status, priority, property_id::text, assignee_id::text) AS value,
+                   count(*) AS count
+            FROM tasks
+            WHERE status = ANY(?)
+            GROUP BY GROUPING SETS ((status), (priority), (property_id), (assignee_id))
+            """;
+
+    private static final RowMapper<TaskTransition> TRANSITION_MAPPER = (rs, rowNum) -> new TaskTransition(
+            TaskRowMapper.INSTANCE.mapRow(rs, rowNum),
+            TaskStatus.valueOf(rs.getString("previous_status")),
+            rs.getObject("previous_assignee_id", Long.class));
+
+    private static final RowMapper<DimensionCount> DIMENSION_COUNT_MAPPER = (rs, rowNum) ->
+            new DimensionCount(rs.getString("dimension"), rs.getString("value"), rs.getLong("count"));
+
+    private static final RowMapper<TaskDeadline> DEADLINE_MAPPER = (rs, rowNum) ->
+            new TaskDeadline(rs.getObject("id", UUID.class), rs.getObject("due_date", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BatchProperties batchProperties;
+
+    /**
+     * Вставляет задачи пачками. Идентификаторы и даты должны быть уже проставлены приложением.
+     */
+    public void insertAll(List<Task> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, batchProperties.getJdbcBatchSize(), this::bindInsert);
+    }
+
+    /**
+     * Назначает исполнителя задачам в допустимых статусах одним UPDATE ... RETURNING.
+     * Возвращает только изменённые задачи; остальные id вызывающий код считает отклонёнными.
+     */
+    public List<TaskTransition> assign(Collection<UUID> ids, Long assigneeId, Set<TaskStatus> allowedStatuses) {
+        return queryTransitions(ASSIGN_SQL, (con, ps) -> {
+            ps.setLong(1, assigneeId);
+            ps.setObject(2, LocalDateTime.now(), Types.TIMESTAMP);
+            ps.setArray(3, uuidArray(con, ids));
+            ps.setArray(4, statusArray(con, allowedStatuses));
+        });
+    }
+
+    public List<TaskTransition> start(Collection<UUID> ids, Long userId, Set<TaskStatus> allowedStatuses) {
+        return queryTransitions(START_SQL, (con, ps) -> {
+            ps.setObject(1, LocalDateTime.now(), Types.TIMESTAMP);
+            ps.setArray(2, uuidArray(con, ids));
+            ps.setArray(3, statusArray(con, allowedStatuses));
+            ps.setLong(4, userId);
+        });
+    }
+
+    public List<TaskTransition> complete(Collection<UUID> ids, Long userId, Set<TaskStatus> allowedStatuses) {
+        return queryTransitions(COMPLETE_SQL, (con, ps) -> {
+            LocalDateTime now = LocalDateTime.now();
+            ps.setObject(1, now, Types.TIMESTAMP);
+            ps.setObject(2, now, Types.TIMESTAMP);
+            ps.setArray(3, uuidArray(con, ids));
+            ps.setArray(4, statusArray(con, allowedStatuses));
+            ps.setLong(5, userId);
+        });
+    }
+
+    public List<TaskTransition> cancel(Collection<UUID> ids, Set<TaskStatus> allowedStatuses) {
+        return queryTransitions(CANCEL_SQL, (con, ps) -> {
+            ps.setObject(1, LocalDateTime.now(), Types.TIMESTAMP);
+            ps.setArray(2, uuidArray(con, ids));
+            ps.setArray(3, statusArray(con, allowedStatuses));
+        });
+    }
+
+    public List<TaskTransition> escalate(Collection<UUID> ids, Long escalatedTo, Set<TaskStatus> allowedStatuses) {
+        return queryTransitions(ESCALATE_SQL, (con, ps) -> {
+            ps.setObject(1, escalatedTo, Types.BIGINT);
+            ps.setObject(2, escalatedTo, Types.BIGINT);
+            ps.setObject(3, LocalDateTime.now(), Types.TIMESTAMP);
+            ps.setArray(4, uuidArray(con, ids));
+            ps.setArray(5, statusArray(con, allowedStatuses));
+            ps.setObject(6, escalatedTo, Types.BIGINT);
+            ps.setObject(7, escalatedTo, Types.BIGINT);
+        });
+    }
+
+    /**
+     * Поднимает до {@code level} не более {@code limit} задач приоритета {@code priority}, срок которых
+     * не позже {@code dueBefore}. Строки, заблокированные параллельным проходом, пропускаются.
+     */
+    public List<TaskTransition> escalateByPolicy(TaskPriority priority, int level, Long escalateTo,
+                                                 LocalDateTime dueBefore, Set<TaskStatus> allowedStatuses,
+                                                 int limit) {
+        return queryTransitions(ESCALATE_BY_POLICY_SQL, (con, ps) -> {
+            ps.setInt(1, level);
+            ps.setObject(2, escalateTo, Types.BIGINT);
+            ps.setObject(3, escalateTo, Types.BIGINT);
+            ps.setObject(4, LocalDateTime.now(), Types.TIMESTAMP);
+            ps.setString(5, priority.name());
+            ps.setInt(6, level);
+            ps.setObject(7, dueBefore, Types.TIMESTAMP);
+            ps.setArray(8, statusArray(con, allowedStatuses));
+            ps.setInt(9, limit);
+        });
+    }
+
+    /**
+     * Переводит в OVERDUE задачи, срок которых действительно наступил и которые ещё открыты.
+     */
+    public List<TaskTransition> markOverdue(Collection<UUID> ids, Set<TaskStatus> allowedStatuses,
+                                            LocalDateTime now) {
+        return queryTransitions(MARK_OVERDUE_SQL, (con, ps) -> {
+            ps.setObject(1, now, Types.TIMESTAMP);
+            ps.setArray(2, uuidArray(con, ids));
+            ps.setArray(3, statusArray(con, allowedStatuses));
+            ps.setObject(4, now, Types.TIMESTAMP);
+        });
+    }
+
+    /**
+     * Сроки открытых задач в слайсах {@code ownedSlices} из {@code slices}: все до {@code until},
+     * либо только окно ({@code from}, {@code until}], если {@code from} задан. Идёт по индексу due_date.
+     */
+    public List<TaskDeadline> findDeadlines(Set<TaskStatus> statuses, LocalDateTime from, LocalDateTime until,
+                                            int slices, Collection<Integer> ownedSlices) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(from == null ? DEADLINES_UNTIL_SQL : DEADLINES_IN_WINDOW_SQL);
+            int index = 1;
+            ps.setArray(index++, statusArray(con, statuses));
+            if (from != null) {
+                ps.setObject(index++, from, Types.TIMESTAMP);
+            }
+            ps.setObject(index++, until, Types.TIMESTAMP);
+            ps.setInt(index++, slices);
+            ps.setArray(index, con.createArrayOf("int4", ownedSlices.toArray()));
+            return ps;
+        }, DEADLINE_MAPPER);
+    }
+
+    public List<TaskDeadline> findDeadlinesByIds(Collection<UUID> ids, Set<TaskStatus> statuses) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DEADLINES_BY_ID_SQL);
+            ps.setArray(1, uuidArray(con, ids));
+            ps.setArray(2, statusArray(con, statuses));
+            return ps;
+        }, DEADLINE_MAPPER);
+    }
+
+    /**
+     * Читает задачи мимо persistence context, поэтому годится и после коммита, когда в нём могут остаться
+     * сущности в состоянии до JDBC-переходов.
+     */
+    public List<Task> findAllByIds(Collection<UUID> ids) {
+        return queryTasks(FIND_BY_IDS_SQL, (con, ps) -> ps.setArray(1, uuidArray(con, ids)));
+    }
+
+    public List<Task> findByAssignee(Long assigneeId, Set<TaskStatus> statuses) {
+        return queryTasks(FIND_BY_ASSIGNEE_SQL, (con, ps) -> {
+            ps.setLong(1, assigneeId);
+            ps.setArray(2, statusArray(con, statuses));
+        });
+    }
+
+    /**
+     * Число открытых задач по каждому статусу, приоритету, объекту и исполнителю одним проходом.
+     */
+    public List<DimensionCount> countOpen(Set<TaskStatus> openStatuses) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(COUNT_OPEN_SQL);
+            ps.setArray(1, statusArray(con, openStatuses));
+            return ps;
+        }, DIMENSION_COUNT_MAPPER);
+    }
+
+    private List<TaskTransition> queryTransitions(String sql, StatementBinder binder) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            binder.bind(con, ps);
+            return ps;
+        }, TRANSITION_MAPPER);
+    }
+
+    private List<Task> queryTasks(String sql, StatementBinder binder) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            binder.bind(con, ps);
+            return ps;
+        }, TaskRowMapper.INSTANCE);
+    }
+
+    private static Array uuidArray(Connection con, Collection<UUID> ids) throws SQLException {
+        return con.createArrayOf("uuid", ids.toArray());
+    }
+
+    private static Array statusArray(Connection con, Set<TaskStatus> statuses) throws SQLException {
+        return con.createArrayOf("varchar", statuses.stream().map(TaskStatus::name).toArray());
+    }
+
+    public record TaskDeadline(UUID id, LocalDateTime dueDate) {
+    }
+
+    /**
+     * Задача после перехода и её статус и исполнитель до него.
+     */
+    public record TaskTransition(Task task, TaskStatus previousStatus, Long previousAssigneeId) {
+    }
+
+    /**
+     * Число задач с значением {@code value} поля {@code dimension}; value равно null для незаполненного поля.
+     */
+    public record DimensionCount(String dimension, String value, long count) {
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(Connection con, PreparedStatement ps) throws SQLException;
+    }
+
+    private void bindInsert(PreparedStatement ps, Task task) throws SQLException {
+        ps.setObject(1, task.getId());
+        ps.setString(2, task.getTitle());
+        ps.setString(3, task.getDescription());
+        ps.setString(4, task.getStatus().name());
+        ps.setString(5, task.getPriority().name());
+        ps.setObject(6, task.getCreationDate(), Types.TIMESTAMP);
+        ps.setObject(7, task.getDueDate(), Types.TIMESTAMP);
+        ps.setObject(8, task.getAssigneeId(), Types.BIGINT);
+        ps.setLong(9, task.getCreatorId());
+        ps.setObject(10, task.getPropertyId(), Types.BIGINT);
+        ps.setObject(11, task.getAssetId(), Types.BIGINT);
+        ps.setInt(12, task.getEscalationLevel());
+        ps.setObject(13, task.getCreatedAt(), Types.TIMESTAMP);
+        ps.setObject(14, task.getUpdatedAt(), Types.TIMESTAMP);
+    }
+}
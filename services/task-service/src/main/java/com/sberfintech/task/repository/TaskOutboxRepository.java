@@ -0,0 +1,51 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.model.TaskOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long> {
+
+    /**
+     * Блокирует следующую пачку событий в порядке записи (created_at, id). SKIP LOCKED позволяет нескольким
+     * экземплярам разбирать outbox параллельно, не дожидаясь друг друга.
+     */
+    @Query(value = "SELECT * FROM task_outbox ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<TaskOutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Наименьшая version неотправленных событий задач {@code aggregateIds}, не вошедших в пачку {@code claimedIds}:
+     * такие события держит другой экземпляр или они не поместились в LIMIT.
+     */
+    @Query("""
+            SELECT e.aggregateId AS aggregateId, MIN(e.aggregateVersion) AS aggregateVersion
+            FROM TaskOutboxEvent e
+            WHERE e.aggregateId IN :aggregateIds AND e.id NOT IN :claimedIds
+            GROUP BY e.aggregateId
+            """)
+    List<PendingVersion> findPendingVersions(@Param("aggregateIds") Collection<UUID> aggregateIds,
+                                             @Param("claimedIds") Collection<Long> claimedIds);
+
+    /**
+     * Время записи самого старого неотправленного события; отправленные события из outbox удаляются.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM TaskOutboxEvent e")
+    Optional<LocalDateTime> findOldestCreatedAt();
+
+    interface PendingVersion {
+
+        UUID getAggregateId();
+
+        long getAggregateVersion();
+    }
+}
@@ -0,0 +1,147 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.dto.TaskSummary;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Чтение задач сразу в проекции через {@code SELECT new ...}: Hibernate не создаёт управляемых сущностей,
+ * не хранит их снимки для dirty checking и не выбирает колонки, которых нет в проекции.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskQueryRepository {
+
+    private final EntityManager entityManager;
+
+    public Optional<TaskDetail> findDetail(UUID id) {
+        return query(TaskDetail.class, TaskQueryRepository::detailColumns,
+                (root, query, cb) -> cb.equal(root.get("id"), id), null, 1)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Первые {@code limit} задач по {@code filter} в порядке ({@code sortAttribute}, id).
+     */
+    public List<TaskDetail> findDetails(Specification<Task> filter, String sortAttribute, int limit) {
+        return query(TaskDetail.class, TaskQueryRepository::detailColumns, filter, sortAttribute, limit);
+    }
+
+    public List<TaskSummary> findSummaries(Specification<Task> filter, String sortAttribute, int limit) {
+        return query(TaskSummary.class, TaskQueryRepository::summaryColumns, filter, sortAttribute, limit);
+    }
+
+    /**
+     * Первые {@code limit} задач, подходящих под {@code text} и {@code filter}, по убыванию ранга ts_rank_cd.
+     * Ранг нельзя передать в конструктор проекции рядом с колонками, поэтому строки читаются как Tuple.
+     */
+    public List<RankedTaskDetail> findRankedDetails(String text, Specification<Task> filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        Selection<?>[] columns = detailColumns(root);
+        Expression<Float> rank = TaskSearchFunctions.rank(cb, root.get("searchVector"), text);
+        Selection<?>[] selection = Arrays.copyOf(columns, columns.length + 1);
+        selection[columns.length] = rank;
+        query.multiselect(selection);
+
+        Predicate match = TaskSearchFunctions.matches(cb, root.get("searchVector"), text);
+        Predicate predicate = filter == null ? null : filter.toPredicate(root, query, cb);
+        query.where(predicate == null ? match : cb.and(match, predicate));
+        query.orderBy(cb.desc(rank), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(limit, 1_000))
+                .getResultStream()
+                .map(tuple -> new RankedTaskDetail(new TaskDetail(
+                        tuple.get(0, UUID.class), tuple.get(1, String.class), tuple.get(2, String.class),
+                        tuple.get(3, TaskStatus.class), tuple.get(4, TaskPriority.class),
+                        tuple.get(5, LocalDateTime.class), tuple.get(6, LocalDateTime.class),
+                        tuple.get(7, LocalDateTime.class), tuple.get(8, Long.class), tuple.get(9, Long.class),
+                        tuple.get(10, Long.class), tuple.get(11, Long.class), tuple.get(12, Integer.class),
+                        tuple.get(13, LocalDateTime.class)),
+                        tuple.get(columns.length, Float.class)))
+                .toList();
+    }
+
+    private <P> List<P> query(Class<P> projection, Function<Root<Task>, Selection<?>[]> columns,
+                              Specification<Task> filter, String sortAttribute, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = cb.createQuery(projection);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.construct(projection, columns.apply(root)));
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sortAttribute != null) {
+            query.orderBy(cb.asc(root.get(sortAttribute)), cb.asc(root.get("id")));
+        }
+
+        TypedQuery<P> typedQuery = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                // проекциям нечего сбрасывать: запрос не должен вызывать flush, даже внутри пишущей транзакции
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(limit, 1_000));
+        return typedQuery.getResultList();
+    }
+
+    private static Selection<?>[] detailColumns(Root<Task> root) {
+        return new Selection<?>[]{
+                root.get("id"), root.get("title"), root.get("description"), root.get("status"),
+                root.get("priority"), root.get("creationDate"), root.get("dueDate"), root.get("completionDate"),
+                root.get("creatorId"), root.get("assigneeId"), root.get("propertyId"), root.get("assetId"),
+                root.get("escalationLevel"), root.get("createdAt")
+        };
+    }
+
+    private static Selection<?>[] summaryColumns(Root<Task> root) {
+        return new Selection<?>[]{
+                root.get("id"), root.get("title"), root.get("status"), root.get("priority"), root.get("dueDate"),
+                root.get("assigneeId"), root.get("escalationLevel"), root.get("createdAt")
+        };
+    }
+
+    /**
+     * Полная карточка задачи без служебных полей сущности (version, updatedAt, escalatedTo).
+     * createdAt нужен для курсора keyset-пагинации.
+     */
+    public record TaskDetail(UUID id, String title, String description, TaskStatus status, TaskPriority priority,
+                             LocalDateTime creationDate, LocalDateTime dueDate, LocalDateTime completionDate,
+                             Long creatorId, Long assigneeId, Long propertyId, Long assetId,
+                             Integer escalationLevel, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Карточка задачи с рангом полнотекстового поиска; ранг нужен для курсора.
+     */
+    public record RankedTaskDetail(TaskDetail detail, float rank) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.config.ReactiveProperties;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неблокирующее чтение задач через R2DBC в те же проекции {@link TaskDetail}, что и у JPA-пути.
+ * Строки отдаются по мере чтения: драйвер запрашивает у Postgres следующую порцию из fetch-size строк,
+ * только когда подписчик её запросил.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "task.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskReactiveRepository {
+
+    private static final String DETAIL_SELECT = """
+            SELECT id, title, description, status, priority, creation_date, due_date, completion_date,
+                   creator_id, assignee_id, property_id, asset_id, escalation_level, created_at
+            FROM tasks
+            """;
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "dueDate", "due_date");
+
+    private final DatabaseClient taskDatabaseClient;
+
+    private final ReactiveProperties reactiveProperties;
+
+    public Mono<TaskDetail> findDetail(UUID id) {
+        return taskDatabaseClient.sql(DETAIL_SELECT + "WHERE id = :id")
+                .bind("id", id)
+                .map(TaskReactiveRepository::toDetail)
+                .one();
+    }
+
+    /**
+     * Задачи, подходящие под фильтр, по возрастанию {@code sortAttribute}, затем id. {@code limit} может быть null.
+     */
+    public Flux<TaskDetail> findDetails(TaskSearchCriteria criteria, String sortAttribute, Integer limit) {
+        return stream(new TaskSqlConditions().criteria(criteria), sortAttribute, limit);
+    }
+
+    public Flux<TaskDetail> findOverdue(LocalDateTime now, Set<TaskStatus> statuses, String sortAttribute,
+                                        Integer limit) {
+        TaskSqlConditions conditions = new TaskSqlConditions()
+                .add("due_date < :now", "now", now)
+                .add("status = ANY(:statuses)", "statuses",
+                        statuses.stream().map(TaskStatus::name).toArray(String[]::new));
+        return stream(conditions, sortAttribute, limit);
+    }
+
+    private Flux<TaskDetail> stream(TaskSqlConditions conditions, String sortAttribute, Integer limit) {
+        String sortColumn = SORT_COLUMNS.get(sortAttribute);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unsupported sort attribute: " + sortAttribute);
+        }
+
+        StringBuilder sql = new StringBuilder(DETAIL_SELECT).append(conditions.where()).append('\n');
+        sql.append("ORDER BY ").append(sortColumn).append(", id");
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+            conditions.bind("limit", limit);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = taskDatabaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(reactiveProperties.getFetchSize()));
+        for (Map.Entry<String, Object> bind : conditions.binds().entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec.map(TaskReactiveRepository::toDetail).all();
+    }
+
+    private static TaskDetail toDetail(Readable row) {
+        return new TaskDetail(
+                row.get("id", UUID.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                TaskStatus.valueOf(row.get("status", String.class)),
+                TaskPriority.valueOf(row.get("priority", String.class)),
+                row.get("creation_date", LocalDateTime.class),
+                row.get("due_date", LocalDateTime.class),
+                row.get("completion_date", LocalDateTime.class),
+                row.get("creator_id", Long.class),
+                row.get("assignee_id", Long.class),
+                row.get("property_id", Long.class),
+                row.get("asset_id", Long.class),
+                row.get("escalation_level", Integer.class),
+                row.get("created_at", LocalDateTime.class));
+    }
+}
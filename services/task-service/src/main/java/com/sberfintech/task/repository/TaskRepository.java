@@ -1,8 +1,6 @@
 package com.sberfintech.task.repository;
 
 import com.sberfintech.task.model.Task;
-import com.sberfintech.task.model.TaskPriority;
-import com.sberfintech.task.model.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -16,19 +14,6 @@ import java.util.UUID;
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
 
-    List<Task> findByAssigneeId(Long assigneeId);
-
-    List<Task> findByCreatorId(Long creatorId);
-
-    List<Task> findByStatus(TaskStatus status);
-
-    List<Task> findByPriority(TaskPriority priority);
-
-    List<Task> findByPropertyId(Long propertyId);
-
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status IN ('NEW', 'ASSIGNED', 'IN_PROGRESS')")
-    List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
-
-    @Query("SELECT t FROM Task t WHERE t.creationDate BETWEEN :start AND :end")
+    @Query("SELECT t FROM Task t WHERE t.createdAt BETWEEN :start AND :end")
     List<Task> findTaskByCreationDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
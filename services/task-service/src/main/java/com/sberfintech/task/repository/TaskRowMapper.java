@@ -0,0 +1,53 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Отображает строку tasks (SELECT * / RETURNING *) в отсоединённую сущность {@link Task}.
+ */
+public class TaskRowMapper implements RowMapper<Task> {
+
+    public static final TaskRowMapper INSTANCE = new TaskRowMapper();
+
+    @Override
+    public Task mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .priority(TaskPriority.valueOf(rs.getString("priority")))
+                .creationDate(rs.getObject("creation_date", LocalDateTime.class))
+                .dueDate(rs.getObject("due_date", LocalDateTime.class))
+                .completionDate(rs.getObject("completion_date", LocalDateTime.class))
+                .assigneeId(getLong(rs, "assignee_id"))
+                .creatorId(rs.getLong("creator_id"))
+                .propertyId(getLong(rs, "property_id"))
+                .assetId(getLong(rs, "asset_id"))
+                .statusBeforeOverdue(getStatus(rs, "status_before_overdue"))
+                .escalationLevel(rs.getInt("escalation_level"))
+                .escalatedTo(getLong(rs, "escalated_to"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .version(rs.getLong("version"))
+                .build();
+    }
+
+    private static TaskStatus getStatus(ResultSet rs, String column) throws SQLException {
+        String value = rs.getString(column);
+        return value == null ? null : TaskStatus.valueOf(value);
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
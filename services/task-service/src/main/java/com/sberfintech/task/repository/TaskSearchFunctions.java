@@ -0,0 +1,38 @@
+package com.sberfintech.task.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Полнотекстовый поиск по tasks.search_vector в Criteria API. Оператора {@code @@} в JPQL нет, поэтому
+ * совпадение и ранг регистрируются как функции Hibernate; запрос разбирает SQL-функция task_search_query
+ * из changeset 008. Регистрируется через META-INF/services.
+ */
+public class TaskSearchFunctions implements FunctionContributor {
+
+    static final String MATCH = "task_search_match";
+    static final String RANK = "task_search_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                "(?1 @@ task_search_query(?2))", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank_cd(?1, task_search_query(?2))", types.resolve(StandardBasicTypes.FLOAT));
+    }
+
+    public static Predicate matches(CriteriaBuilder cb, Path<String> searchVector, String text) {
+        return cb.isTrue(cb.function(MATCH, Boolean.class, searchVector, cb.literal(text)));
+    }
+
+    public static Expression<Float> rank(CriteriaBuilder cb, Path<String> searchVector, String text) {
+        return cb.function(RANK, Float.class, searchVector, cb.literal(text));
+    }
+}
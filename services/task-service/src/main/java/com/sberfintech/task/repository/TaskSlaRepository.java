@@ -0,0 +1,173 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Дневные SLA-итоги: task_sla_rollups хранит число, сумму и максимум длительностей, task_sla_sketch_bins —
+ * скетч перцентилей по корзинам. Запись прибавляет к строкам через INSERT ... ON CONFLICT DO UPDATE,
+ * отчёт сливает дни диапазона через GROUP BY, не трогая tasks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskSlaRepository {
+
+    /*
+     * Итоги и корзины пишутся одним оператором с массивами вместо двух пакетов: число операторов
+     * на переход не зависит от размера пачки. Ключи во входных массивах уникальны, иначе ON CONFLICT
+     * попытался бы обновить строку дважды.
+     */
+    private static final String UPSERT_SQL = """
+            WITH rollups AS (
+                INSERT INTO task_sla_rollups (bucket_date, property_id, priority, metric, count, total_seconds,
+                                              max_seconds)
+                SELECT * FROM unnest(?::date[], ?::bigint[], ?::varchar[], ?::varchar[], ?::bigint[],
+                                     ?::float8[], ?::float8[])
+                ON CONFLICT (bucket_date, property_id, priority, metric) DO UPDATE
+                SET count = task_sla_rollups.count + EXCLUDED.count,
+                    total_seconds = task_sla_rollups.total_seconds + EXCLUDED.total_seconds,
+                    max_seconds = GREATEST(task_sla_rollups.max_seconds, EXCLUDED.max_seconds)
+            )
+            INSERT INTO task_sla_sketch_bins (bucket_date, property_id, priority, metric, bin, count)
+            SELECT * FROM unnest(?::date[], ?::bigint[], ?::varchar[], ?::varchar[], ?::int[], ?::bigint[])
+            ON CONFLICT (bucket_date, property_id, priority, metric, bin) DO UPDATE
+            SET count = task_sla_sketch_bins.count + EXCLUDED.count
+            """;
+
+    private static final String TOTALS_SQL = """
+            SELECT property_id, priority, metric, sum(count) AS count, sum(total_seconds) AS total_seconds,
+                   max(max_seconds) AS max_seconds
+            FROM task_sla_rollups
+            WHERE %s
+            GROUP BY property_id, priority, metric
+            ORDER BY property_id NULLS LAST, priority, metric
+            """;
+
+    private static final String BINS_SQL = """
+            SELECT property_id, priority, metric, bin, sum(count) AS count
+            FROM task_sla_sketch_bins
+            WHERE %s
+            GROUP BY property_id, priority, metric, bin
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Прибавляет итоги и корзины к дневным строкам. Строки идут в порядке ключей, чтобы параллельные
+     * транзакции блокировали их в одном порядке и не взаимоблокировались.
+     */
+    public void add(List<SlaRollup> rollups, List<SlaBin> bins) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            int index = bindKeys(con, ps, 1, rollups.stream().map(SlaRollup::key).toList());
+            ps.setArray(index++, con.createArrayOf("int8", rollups.stream().map(SlaRollup::count).toArray()));
+            ps.setArray(index++, con.createArrayOf("float8",
+                    rollups.stream().map(SlaRollup::totalSeconds).toArray()));
+            ps.setArray(index++, con.createArrayOf("float8", rollups.stream().map(SlaRollup::maxSeconds).toArray()));
+            index = bindKeys(con, ps, index, bins.stream().map(SlaBin::key).toList());
+            ps.setArray(index++, con.createArrayOf("int4", bins.stream().map(SlaBin::bin).toArray()));
+            ps.setArray(index, con.createArrayOf("int8", bins.stream().map(SlaBin::count).toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Итоги за дни с {@code from} по {@code to} включительно, слитые по объекту, приоритету и метрике.
+     * Необязательные фильтры сужают выборку.
+     */
+    public List<SlaTotals> findTotals(LocalDate from, LocalDate to, Long propertyId, TaskPriority priority,
+                                      TaskSlaMetric metric) {
+        MapSqlParameterSource binds = new MapSqlParameterSource();
+        String sql = TOTALS_SQL.formatted(where(binds, from, to, propertyId, priority, metric));
+        return namedParameterJdbcTemplate.query(sql, binds, (rs, rowNum) -> new SlaTotals(
+                group(rs), rs.getLong("count"), rs.getDouble("total_seconds"), rs.getDouble("max_seconds")));
+    }
+
+    /**
+     * Скетчи за тот же диапазон, слитые сложением счётчиков одинаковых корзин.
+     */
+    public Map<SlaGroup, SortedMap<Integer, Long>> findBins(LocalDate from, LocalDate to, Long propertyId,
+                                                            TaskPriority priority, TaskSlaMetric metric) {
+        MapSqlParameterSource binds = new MapSqlParameterSource();
+        String sql = BINS_SQL.formatted(where(binds, from, to, propertyId, priority, metric));
+        Map<SlaGroup, SortedMap<Integer, Long>> sketches = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(sql, binds, rs -> {
+            sketches.computeIfAbsent(group(rs), group -> new TreeMap<>())
+                    .put(rs.getInt("bin"), rs.getLong("count"));
+        });
+        return sketches;
+    }
+
+    private static String where(MapSqlParameterSource binds, LocalDate from, LocalDate to, Long propertyId,
+                                TaskPriority priority, TaskSlaMetric metric) {
+        List<String> conditions = new ArrayList<>(List.of("bucket_date BETWEEN :from AND :to"));
+        binds.addValue("from", from).addValue("to", to);
+        if (propertyId != null) {
+            conditions.add("property_id = :propertyId");
+            binds.addValue("propertyId", propertyId);
+        }
+        if (priority != null) {
+            conditions.add("priority = :priority");
+            binds.addValue("priority", priority.name());
+        }
+        if (metric != null) {
+            conditions.add("metric = :metric");
+            binds.addValue("metric", metric.name());
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private static int bindKeys(Connection con, PreparedStatement ps, int index, List<SlaKey> keys)
+            throws SQLException {
+        ps.setArray(index++, con.createArrayOf("date",
+                keys.stream().map(key -> Date.valueOf(key.bucketDate())).toArray()));
+        ps.setArray(index++, con.createArrayOf("int8", keys.stream().map(SlaKey::propertyId).toArray()));
+        ps.setArray(index++, con.createArrayOf("varchar",
+                keys.stream().map(key -> key.priority().name()).toArray()));
+        ps.setArray(index++, con.createArrayOf("varchar", keys.stream().map(key -> key.metric().name()).toArray()));
+        return index;
+    }
+
+    private static SlaGroup group(ResultSet rs) throws SQLException {
+        return new SlaGroup(rs.getObject("property_id", Long.class), TaskPriority.valueOf(rs.getString("priority")),
+                TaskSlaMetric.valueOf(rs.getString("metric")));
+    }
+
+    /**
+     * Дневная строка итогов; propertyId равен null для задач без объекта.
+     */
+    public record SlaKey(LocalDate bucketDate, Long propertyId, TaskPriority priority, TaskSlaMetric metric) {
+    }
+
+    public record SlaRollup(SlaKey key, long count, double totalSeconds, double maxSeconds) {
+    }
+
+    public record SlaBin(SlaKey key, int bin, long count) {
+    }
+
+    public record SlaGroup(Long propertyId, TaskPriority priority, TaskSlaMetric metric) {
+    }
+
+    public record SlaTotals(SlaGroup group, long count, double totalSeconds, double maxSeconds) {
+    }
+}
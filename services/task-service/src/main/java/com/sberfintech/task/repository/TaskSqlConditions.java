@@ -0,0 +1,58 @@
+package com.sberfintech.task.repository;
+
+import com.sberfintech.task.dto.TaskSearchCriteria;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WHERE по таблице tasks с именованными параметрами для запросов в обход JPA (R2DBC, GROUPING SETS).
+ * {@link #criteria(TaskSearchCriteria)} — единственный перевод фильтра поиска в SQL; он повторяет
+ * {@code TaskSpecificationBuilder.buildSearchSpecification}, совпадение проверяет TaskSearchParityIntegrationTest.
+ */
+final class TaskSqlConditions {
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final Map<String, Object> binds = new LinkedHashMap<>();
+
+    TaskSqlConditions criteria(TaskSearchCriteria criteria) {
+        return add("assignee_id = :assigneeId", "assigneeId", criteria.assigneeId())
+                .add("creator_id = :creatorId", "creatorId", criteria.creatorId())
+                .add("status = :status", "status", criteria.status() == null ? null : criteria.status().name())
+                .add("priority = :priority", "priority",
+                        criteria.priority() == null ? null : criteria.priority().name())
+                .add("property_id = :propertyId", "propertyId", criteria.propertyId())
+                .add("created_at >= :createdAfter", "createdAfter", criteria.createdAfter())
+                .add("created_at <= :createdBefore", "createdBefore", criteria.createdBefore());
+    }
+
+    /**
+     * Добавляет условие {@code sql} с параметром {@code name}, если значение задано.
+     */
+    TaskSqlConditions add(String sql, String name, Object value) {
+        if (value != null) {
+            conditions.add(sql);
+            binds.put(name, value);
+        }
+        return this;
+    }
+
+    TaskSqlConditions bind(String name, Object value) {
+        binds.put(name, value);
+        return this;
+    }
+
+    /**
+     * "WHERE ..." с условиями через AND или пустая строка, если условий нет.
+     */
+    String where() {
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+    }
+
+    Map<String, Object> binds() {
+        return binds;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sberfintech.task.scheduler;
+
+import com.sberfintech.task.config.EscalationProperties;
+import com.sberfintech.task.config.EscalationProperties.Policy;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.event.TaskEventService;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Автоматическая эскалация по правилам {@code task.escalation.policies}.
+ * <p>
+ * Каждое правило применяется кусками: один UPDATE ... FROM (SELECT ... LIMIT n FOR UPDATE SKIP LOCKED)
+ * и одна пачка TASK_ESCALATED на кусок. Правила идут от старшего уровня к младшему, поэтому давно
+ * просроченная задача сразу получает свой уровень, минуя промежуточные. Несколько экземпляров могут
+ * выполнять проход одновременно: SKIP LOCKED раздаёт им разные строки, а условие на уровень не даёт
+ * эскалировать задачу дважды.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.escalation", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EscalationPolicyEngine {
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskEventService taskEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final EscalationProperties escalationProperties;
+    private final ObjectProvider<TaskStatsRegistry> taskStats;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Policy> policies;
+    private final Timer passTimer;
+
+    public EscalationPolicyEngine(TaskJdbcRepository taskJdbcRepository,
+                                  TaskEventService taskEventService,
+                                  TransactionTemplate transactionTemplate,
+                                  EscalationProperties escalationProperties,
+                                  ObjectProvider<TaskStatsRegistry> taskStats,
+                                  MeterRegistry meterRegistry) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskEventService = taskEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.escalationProperties = escalationProperties;
+        this.taskStats = taskStats;
+        this.meterRegistry = meterRegistry;
+        escalationProperties.getPolicies().forEach(EscalationPolicyEngine::validate);
+        this.policies = escalationProperties.getPolicies().stream()
+                .sorted(Comparator.comparingInt(Policy::getLevel).reversed())
+                .toList();
+
+        this.passTimer = Timer.builder("task.escalation.pass")
+                .description("Duration of a full escalation pass over all policies")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.escalation.interval-ms:60000}")
+    public void runPass() {
+        if (policies.isEmpty()) {
+            return;
+        }
+        long total = passTimer.record(() -> {
+            long escalated = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (Policy policy : policies) {
+                try {
+                    escalated += apply(policy, now);
+                } catch (RuntimeException e) {
+                    log.warn("Escalation policy {} overdue by {} -> level {} failed: {}",
+                            policy.getPriority(), policy.getOverdueBy(), policy.getLevel(), e.getMessage());
+                }
+            }
+            return escalated;
+        });
+        if (total > 0) {
+            log.info("Escalation pass escalated {} tasks", total);
+        }
+    }
+
+    private long apply(Policy policy, LocalDateTime now) {
+        LocalDateTime dueBefore = now.minus(policy.getOverdueBy());
+        int chunkSize = escalationProperties.getChunkSize();
+        Counter counter = Counter.builder("task.escalation.escalated")
+                .description("Tasks escalated automatically by policy")
+                .tag("priority", policy.getPriority().name())
+                .tag("level", String.valueOf(policy.getLevel()))
+                .register(meterRegistry);
+
+        long escalated = 0;
+        int chunk;
+        do {
+            List<Task> updated = transactionTemplate.execute(status -> {
+                List<TaskTransition> transitions = taskJdbcRepository.escalateByPolicy(policy.getPriority(),
+                        policy.getLevel(), policy.getEscalateTo(), dueBefore, TaskValidator.ESCALATABLE_STATUSES,
+                        chunkSize);
+                List<Task> tasks = transitions.stream().map(TaskTransition::task).toList();
+                taskEventService.sendTasksEscalated(tasks, policy.getEscalateTo());
+                taskStats.ifAvailable(stats -> stats.transitioned(transitions));
+                return tasks;
+            });
+            chunk = updated == null ? 0 : updated.size();
+            escalated += chunk;
+            counter.increment(chunk);
+        } while (chunk == chunkSize);
+        return escalated;
+    }
+
+    private static void validate(Policy policy) {
+        if (policy.getPriority() == null || policy.getOverdueBy() == null || policy.getOverdueBy().isNegative()) {
+            throw new IllegalArgumentException("Escalation policy needs a priority and a non-negative overdue-by: " + policy);
+        }
+        if (policy.getLevel() < 1) {
+            throw new IllegalArgumentException("Escalation policy level must be at least 1: " + policy);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.sberfintech.task.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Иерархическое колесо таймеров: постановка и отмена за O(уровней), продвижение на тик за O(1) плюс
+ * сработавшие записи. Уровень L имеет шаг tick * size^L; записи верхних уровней каскадом спускаются вниз,
+ * когда время доходит до их слота. Запись срабатывает не раньше своего срока и не позже чем через один тик.
+ * <p>
+ * Класс не потокобезопасен, синхронизацию обеспечивает владелец.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Long> levelTicks = new ArrayList<>();
+    private final List<List<Set<Entry<K>>>> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Set<Entry<K>> expired = new LinkedHashSet<>();
+
+    /**
+     * Начало текущего тика нижнего уровня.
+     */
+    private long currentTime;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("Wheel size must be at least 2: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        addLevel();
+    }
+
+    /**
+     * Ставит или переставляет таймер ключа.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Entry<K> entry = new Entry<>(key, deadlineMillis);
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    /**
+     * Ставит таймер, если его нет или уже стоящий срабатывает позже. Раннее срабатывание безопасно
+     * для владельца, который перепроверяет условие, а позднее — нет.
+     */
+    public void scheduleEarliest(K key, long deadlineMillis) {
+        Entry<K> existing = entries.get(key);
+        if (existing == null || deadlineMillis < existing.deadline) {
+            schedule(key, deadlineMillis);
+        }
+    }
+
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+
+    public void removeIf(Predicate<K> filter) {
+        entries.values().removeIf(entry -> {
+            if (!filter.test(entry.key)) {
+                return false;
+            }
+            entry.bucket.remove(entry);
+            return true;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Продвигает колесо до nowMillis и возвращает ключи, срок которых наступил.
+     */
+    public List<K> advanceTo(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        drain(expired, due);
+        while (currentTime + tickMillis <= nowMillis) {
+            drain(bucket(0, currentTime), due);
+            currentTime += tickMillis;
+            // Сверху вниз, чтобы спущенные с верхнего уровня записи сразу попали в каскад нижнего
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTime % levelTicks.get(level) == 0) {
+                    cascade(bucket(level, currentTime), due);
+                }
+            }
+        }
+        return due;
+    }
+
+    private void place(Entry<K> entry) {
+        if (entry.deadline < currentTime) {
+            entry.bucket = expired;
+            expired.add(entry);
+            return;
+        }
+        int level = 0;
+        while (entry.deadline >= levelStart(level) + levelTicks.get(level) * wheelSize) {
+            level++;
+            if (level == levels.size()) {
+                addLevel();
+            }
+        }
+        Set<Entry<K>> bucket = bucket(level, entry.deadline);
+        entry.bucket = bucket;
+        bucket.add(entry);
+    }
+
+    private void cascade(Set<Entry<K>> bucket, List<K> due) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<K>> moved = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<K> entry : moved) {
+            place(entry);
+        }
+        drain(expired, due);
+    }
+
+    private void drain(Set<Entry<K>> bucket, List<K> due) {
+        for (Entry<K> entry : bucket) {
+            entries.remove(entry.key);
+            due.add(entry.key);
+        }
+        bucket.clear();
+    }
+
+    private long levelStart(int level) {
+        long levelTick = levelTicks.get(level);
+        return Math.floorDiv(currentTime, levelTick) * levelTick;
+    }
+
+    private Set<Entry<K>> bucket(int level, long time) {
+        return levels.get(level).get((int) Math.floorMod(Math.floorDiv(time, levelTicks.get(level)), (long) wheelSize));
+    }
+
+    private void addLevel() {
+        long levelTick = levelTicks.isEmpty()
+                ? tickMillis
+                : Math.multiplyExact(levelTicks.get(levelTicks.size() - 1), (long) wheelSize);
+        List<Set<Entry<K>>> buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+        levelTicks.add(levelTick);
+        levels.add(buckets);
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+        private final long deadline;
+        private Set<Entry<K>> bucket;
+
+        private Entry(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.sberfintech.task.scheduler;
+
+import com.sberfintech.task.config.OverdueProperties;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.event.TaskEventService;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskDeadline;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Помечает задачи просроченными в момент наступления срока и публикует TASK_OVERDUE.
+ * <p>
+ * Сроки открытых задач своих слайсов держатся в {@link HierarchicalTimingWheel}. Колесо заполняется
+ * из БД окнами по due_date на {@code task.overdue.horizon} вперёд и поддерживается в актуальном состоянии
+ * уведомлениями {@link TaskDueDateNotifier}. Сработавшие задачи переводятся в OVERDUE пачками одним
+ * условным UPDATE, поэтому устаревшая запись в колесе безопасна: задача, срок которой сдвинули или которую
+ * закрыли, просто не обновится, а её актуальный срок будет перечитан.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.overdue", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OverdueScheduler {
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskEventService taskEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final OverdueSliceCoordinator coordinator;
+    private final OverdueProperties overdueProperties;
+    private final ObjectProvider<TaskStatsRegistry> taskStats;
+
+    private final HierarchicalTimingWheel<UUID> wheel;
+    private final Set<Integer> ownedSlices = new HashSet<>();
+
+    /**
+     * Граница, до которой сроки своих слайсов уже загружены в колесо.
+     */
+    private LocalDateTime loadedUntil = LocalDateTime.now();
+
+    private final Counter flaggedCounter;
+    private final Timer latenessTimer;
+
+    public OverdueScheduler(TaskJdbcRepository taskJdbcRepository,
+                            TaskEventService taskEventService,
+                            TransactionTemplate transactionTemplate,
+                            OverdueSliceCoordinator coordinator,
+                            OverdueProperties overdueProperties,
+                            ObjectProvider<TaskStatsRegistry> taskStats,
+                            MeterRegistry meterRegistry) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskEventService = taskEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.coordinator = coordinator;
+        this.overdueProperties = overdueProperties;
+        this.taskStats = taskStats;
+        this.wheel = new HierarchicalTimingWheel<>(overdueProperties.getTick().toMillis(),
+                overdueProperties.getWheelSize(), System.currentTimeMillis());
+
+        Gauge.builder("task.overdue.scheduled", this, OverdueScheduler::scheduledCount)
+                .description("Due dates currently held in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("task.overdue.slices.owned", this, OverdueScheduler::ownedSliceCount)
+                .description("Schedule slices owned by this instance")
+                .register(meterRegistry);
+        this.flaggedCounter = Counter.builder("task.overdue.flagged")
+                .description("Tasks switched to OVERDUE by the scheduler")
+                .register(meterRegistry);
+        this.latenessTimer = Timer.builder("task.overdue.lateness")
+                .description("Delay between the due date and the moment the task was flagged OVERDUE")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.overdue.poll-interval-ms:100}")
+    public void tick() {
+        for (String payload : coordinator.pollNotifications()) {
+            apply(payload);
+        }
+        List<UUID> due;
+        synchronized (this) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        int batchSize = overdueProperties.getBatchSize();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            flag(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    /**
+     * Сдвигает горизонт и загружает только новое окно сроков.
+     */
+    @Scheduled(fixedDelayString = "${task.overdue.load-interval-ms:60000}")
+    public void extendHorizon() {
+        LocalDateTime from;
+        LocalDateTime until = LocalDateTime.now().plus(overdueProperties.getHorizon());
+        Set<Integer> slices;
+        synchronized (this) {
+            if (!until.isAfter(loadedUntil)) {
+                return;
+            }
+            // Горизонт сдвигается до запроса: изменения, закоммиченные после этого, придут уведомлением
+            from = loadedUntil;
+            loadedUntil = until;
+            slices = Set.copyOf(ownedSlices);
+        }
+        if (!slices.isEmpty()) {
+            load(slices, from, until);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.overdue.rebalance-interval-ms:10000}")
+    public void rebalance() {
+        OverdueSliceCoordinator.SliceChange change = coordinator.rebalance();
+        LocalDateTime until;
+        synchronized (this) {
+            if (!change.released().isEmpty()) {
+                ownedSlices.removeAll(change.released());
+                wheel.removeIf(id -> change.released().contains(sliceOf(id)));
+            }
+            ownedSlices.addAll(change.acquired());
+            until = loadedUntil;
+        }
+        if (!change.acquired().isEmpty()) {
+            // Новые слайсы загружаются целиком, включая уже наступившие, но не отмеченные сроки
+            load(change.acquired(), null, until);
+        }
+    }
+
+    private void load(Set<Integer> slices, LocalDateTime from, LocalDateTime until) {
+        try {
+            List<TaskDeadline> deadlines = taskJdbcRepository.findDeadlines(TaskValidator.OVERDUE_TRACKED_STATUSES,
+                    from, until, coordinator.slices(), slices);
+            synchronized (this) {
+                for (TaskDeadline deadline : deadlines) {
+                    if (ownedSlices.contains(sliceOf(deadline.id()))) {
+                        wheel.scheduleEarliest(deadline.id(), toEpochMillis(deadline.dueDate()));
+                    }
+                }
+            }
+            log.debug("Loaded {} due dates for slices {} up to {}", deadlines.size(), slices, until);
+        } catch (RuntimeException e) {
+            log.warn("Cannot load due dates for slices {}: {}", slices, e.getMessage());
+        }
+    }
+
+    private void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed due date notification: {}", payload);
+            return;
+        }
+        UUID taskId = UUID.fromString(payload.substring(0, separator));
+        String dueMillis = payload.substring(separator + 1);
+        synchronized (this) {
+            if (!ownedSlices.contains(sliceOf(taskId))) {
+                return;
+            }
+            if (dueMillis.isEmpty() || Long.parseLong(dueMillis) > toEpochMillis(loadedUntil)) {
+                wheel.cancel(taskId);
+            } else {
+                wheel.schedule(taskId, Long.parseLong(dueMillis));
+            }
+        }
+    }
+
+    private void flag(List<UUID> taskIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> flagged;
+        try {
+            flagged = transactionTemplate.execute(status -> {
+                List<TaskTransition> transitions = taskJdbcRepository.markOverdue(taskIds,
+                        TaskValidator.OVERDUE_TRACKED_STATUSES, now);
+                List<Task> updated = transitions.stream().map(TaskTransition::task).toList();
+                taskEventService.sendTasksOverdue(updated);
+                taskStats.ifAvailable(stats -> stats.transitioned(transitions));
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot flag {} overdue tasks, will retry: {}", taskIds.size(), e.getMessage());
+            long retryAt = System.currentTimeMillis() + overdueProperties.getTick().toMillis() * 10;
+            synchronized (this) {
+                taskIds.forEach(id -> wheel.scheduleEarliest(id, retryAt));
+            }
+            return;
+        }
+
+        Set<UUID> missed = new HashSet<>(taskIds);
+        for (Task task : flagged) {
+            missed.remove(task.getId());
+            latenessTimer.record(Duration.between(task.getDueDate(), now));
+        }
+        flaggedCounter.increment(flagged.size());
+        if (!flagged.isEmpty()) {
+            log.info("Flagged {} tasks as OVERDUE", flagged.size());
+        }
+        if (!missed.isEmpty()) {
+            reschedule(missed);
+        }
+    }
+
+    /**
+     * Задачи, которые сработали, но не обновились: срок сдвинули, задачу закрыли или удалили.
+     * Если задача всё ещё открыта, ставим её заново по актуальному сроку.
+     */
+    private void reschedule(Set<UUID> taskIds) {
+        try {
+            List<TaskDeadline> deadlines = taskJdbcRepository.findDeadlinesByIds(taskIds,
+                    TaskValidator.OVERDUE_TRACKED_STATUSES);
+            synchronized (this) {
+                long horizon = toEpochMillis(loadedUntil);
+                for (TaskDeadline deadline : deadlines) {
+                    long dueMillis = toEpochMillis(deadline.dueDate());
+                    if (dueMillis <= horizon && ownedSlices.contains(sliceOf(deadline.id()))) {
+                        wheel.schedule(deadline.id(), dueMillis);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot reload due dates of {} tasks: {}", taskIds.size(), e.getMessage());
+        }
+    }
+
+    private int sliceOf(UUID taskId) {
+        return OverdueSliceCoordinator.sliceOf(taskId, coordinator.slices());
+    }
+
+    private synchronized int scheduledCount() {
+        return wheel.size();
+    }
+
+    private synchronized int ownedSliceCount() {
+        return ownedSlices.size();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,220 @@
+package com.sberfintech.task.scheduler;
+
+import com.sberfintech.task.config.OverdueProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Распределяет слайсы расписания просрочки между экземплярами сервиса через сессионные advisory-локи Postgres.
+ * <p>
+ * Держит отдельное (не из пула) соединение: на нём разделяемый лок членства, по которому считаются живые
+ * экземпляры, эксклюзивные локи владения слайсами и LISTEN на канал {@link TaskDueDateNotifier#CHANNEL}.
+ * При падении экземпляра сессия закрывается, локи освобождаются, и слайсы забирают остальные при следующей
+ * перебалансировке.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.overdue", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OverdueSliceCoordinator {
+
+    private static final int MEMBERSHIP_LOCK_NAMESPACE = 7_301;
+    private static final int SLICE_LOCK_NAMESPACE = 7_302;
+
+    private static final String COUNT_MEMBERS_SQL = """
+            SELECT count(*) FROM pg_locks
+            WHERE locktype = 'advisory' AND granted AND mode = 'ShareLock'
+              AND database = (SELECT oid FROM pg_database WHERE datname = current_database())
+              AND classid::int = ? AND objid::int = 0 AND objsubid = 2
+            """;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final int slices;
+    private final NavigableSet<Integer> owned = new TreeSet<>();
+
+    /**
+     * Слайсы, потерянные вместе с соединением, о которых владелец ещё не узнал из {@link #rebalance()}.
+     */
+    private final Set<Integer> lost = new TreeSet<>();
+
+    private Connection connection;
+
+    public OverdueSliceCoordinator(DataSourceProperties dataSourceProperties, OverdueProperties overdueProperties) {
+        if (overdueProperties.getSlices() < 1 || overdueProperties.getSlices() > 256) {
+            throw new IllegalArgumentException("task.overdue.slices must be between 1 and 256");
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.slices = overdueProperties.getSlices();
+    }
+
+    /**
+     * Слайс задачи. Совпадает с SQL-выражением get_byte(uuid_send(id), 15) % slices.
+     */
+    public static int sliceOf(UUID taskId, int slices) {
+        return (int) (taskId.getLeastSignificantBits() & 0xFF) % slices;
+    }
+
+    /**
+     * Доводит число своих слайсов до справедливой доли ceil(slices / экземпляров).
+     * Лишние слайсы отпускаются, свободные захватываются через pg_try_advisory_lock.
+     */
+    public synchronized SliceChange rebalance() {
+        try {
+            ensureConnected();
+            int members = Math.max(1, countMembers());
+            int fairShare = (slices + members - 1) / members;
+
+            Set<Integer> released = drainLost();
+            while (owned.size() > fairShare) {
+                int slice = owned.last();
+                unlock(slice);
+                owned.remove(slice);
+                released.add(slice);
+            }
+
+            Set<Integer> acquired = new TreeSet<>();
+            for (int slice = 0; slice < slices && owned.size() < fairShare; slice++) {
+                if (!owned.contains(slice) && tryLock(slice)) {
+                    owned.add(slice);
+                    acquired.add(slice);
+                }
+            }
+            if (!acquired.isEmpty() || !released.isEmpty()) {
+                log.info("Overdue slices rebalanced across {} instances: acquired {}, released {}, owned {}",
+                        members, acquired, released, owned);
+            }
+            return new SliceChange(acquired, released);
+        } catch (SQLException e) {
+            log.warn("Lost overdue coordination connection, releasing all slices: {}", e.getMessage());
+            disconnect();
+            return new SliceChange(Set.of(), drainLost());
+        }
+    }
+
+    /**
+     * Забирает накопившиеся уведомления об изменении сроков. Пустой список, если соединения нет.
+     */
+    public synchronized List<String> pollNotifications() {
+        if (connection == null) {
+            return List.of();
+        }
+        try {
+            try (Statement statement = connection.createStatement()) {
+                // Уведомления читаются из сокета только при обмене с сервером
+                statement.execute("SELECT 1");
+            }
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications();
+            if (notifications == null) {
+                return List.of();
+            }
+            List<String> payloads = new ArrayList<>(notifications.length);
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+            return payloads;
+        } catch (SQLException e) {
+            // Слайсы будут отпущены при ближайшей перебалансировке
+            log.warn("Cannot read due date notifications: {}", e.getMessage());
+            disconnect();
+            return List.of();
+        }
+    }
+
+    public synchronized Set<Integer> ownedSlices() {
+        return Collections.unmodifiableSet(new TreeSet<>(owned));
+    }
+
+    public int slices() {
+        return slices;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        disconnect();
+    }
+
+    private void ensureConnected() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            return;
+        }
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock_shared(" + MEMBERSHIP_LOCK_NAMESPACE + ", 0)");
+            statement.execute("LISTEN " + TaskDueDateNotifier.CHANNEL);
+        }
+    }
+
+    private int countMembers() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(COUNT_MEMBERS_SQL)) {
+            ps.setInt(1, MEMBERSHIP_LOCK_NAMESPACE);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private boolean tryLock(int slice) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            ps.setInt(1, SLICE_LOCK_NAMESPACE);
+            ps.setInt(2, slice);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(int slice) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")) {
+            ps.setInt(1, SLICE_LOCK_NAMESPACE);
+            ps.setInt(2, slice);
+            ps.execute();
+        }
+    }
+
+    private Set<Integer> drainLost() {
+        Set<Integer> drained = new TreeSet<>(lost);
+        lost.clear();
+        return drained;
+    }
+
+    /**
+     * Закрывает сессию: Postgres сам снимает все её локи, а слайсы переходят в {@link #lost}.
+     */
+    private void disconnect() {
+        lost.addAll(owned);
+        owned.clear();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Error closing overdue coordination connection: {}", e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    public record SliceChange(Set<Integer> acquired, Set<Integer> released) {
+    }
+}
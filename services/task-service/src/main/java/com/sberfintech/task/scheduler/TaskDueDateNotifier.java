@@ -0,0 +1,93 @@
+package com.sberfintech.task.scheduler;
+
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Сообщает планировщикам просрочки об изменении срока или закрытии задачи через NOTIFY.
+ * NOTIFY транзакционен: уведомление доставляется всем экземплярам только после коммита.
+ * Формат: "id:epochMillis" для отслеживаемой задачи и "id:" для задачи, которую отслеживать не нужно.
+ * <p>
+ * NOTIFY берёт общую для базы блокировку очереди уведомлений на время коммита и выстраивает коммиты
+ * в очередь, поэтому уведомление отправляется только тогда, когда планировщику есть что менять:
+ * появился или сдвинулся отслеживаемый срок, задача вошла в отслеживаемые статусы или вышла из них.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.overdue", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskDueDateNotifier {
+
+    public static final String CHANNEL = "task_due_dates";
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, payload) FROM unnest(?) AS payload";
+
+    private static final RowCallbackHandler IGNORE = rs -> { };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Новые задачи: планировщику нужны только те, у которых есть срок.
+     */
+    public void created(Collection<Task> tasks) {
+        notify(tasks.stream()
+                .filter(TaskDueDateNotifier::tracked)
+                .map(TaskDueDateNotifier::payload)
+                .toArray(String[]::new));
+    }
+
+    /**
+     * Изменённая задача; {@code before} — строка до изменения, null если прежнее состояние неизвестно.
+     */
+    public void changed(Task before, Task after) {
+        if (before != null && tracked(before) == tracked(after)
+                && (!tracked(after) || after.getDueDate().equals(before.getDueDate()))) {
+            return;
+        }
+        notify(new String[] {payload(after)});
+    }
+
+    /**
+     * Закрытые переходом задачи: отменять в колесе нужно только те, чей срок до перехода отслеживался.
+     */
+    public void closed(Collection<TaskTransition> transitions) {
+        notify(transitions.stream()
+                .filter(transition -> transition.task().getDueDate() != null
+                        && TaskValidator.OVERDUE_TRACKED_STATUSES.contains(transition.previousStatus()))
+                .map(transition -> transition.task().getId() + ":")
+                .toArray(String[]::new));
+    }
+
+    private void notify(String[] payloads) {
+        if (payloads.length == 0) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(NOTIFY_SQL);
+            ps.setString(1, CHANNEL);
+            ps.setArray(2, con.createArrayOf("text", payloads));
+            return ps;
+        }, IGNORE);
+    }
+
+    private static boolean tracked(Task task) {
+        return task.getDueDate() != null && TaskValidator.OVERDUE_TRACKED_STATUSES.contains(task.getStatus());
+    }
+
+    private static String payload(Task task) {
+        return task.getId() + ":" + (tracked(task) ? toEpochMillis(task) : "");
+    }
+
+    private static long toEpochMillis(Task task) {
+        return task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
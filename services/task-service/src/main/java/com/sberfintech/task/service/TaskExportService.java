@@ -0,0 +1,95 @@
+package com.sberfintech.task.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sberfintech.task.config.ExportProperties;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Потоковая выгрузка задач в NDJSON. Задачи читаются keyset-чанками по (created_at, id) с LIMIT:
+ * каждый чанк идёт по составному индексу (property_id | status, created_at, id) и продолжается с места,
+ * где закончился предыдущий, поэтому первая строка уходит клиенту без сортировки всей выборки.
+ * Чанки читаются сразу в проекции, управляемых сущностей нет, и heap не зависит от объёма выгрузки.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportService {
+
+    private static final String SORT_ATTRIBUTE = "createdAt";
+
+    private final TaskQueryRepository taskQueryRepository;
+    private final TaskSpecificationBuilder taskSpecificationBuilder;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    @Transactional(readOnly = true)
+    public long exportByProperty(Long propertyId, OutputStream out) throws IOException {
+        long count = write(taskSpecificationBuilder.buildSearchSpecification(
+                new TaskSearchCriteria(null, null, null, null, propertyId, null, null)), out);
+        log.info("Exported {} tasks for property {}", count, propertyId);
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportByStatus(TaskStatus taskStatus, OutputStream out) throws IOException {
+        long count = write(taskSpecificationBuilder.buildSearchSpecification(
+                new TaskSearchCriteria(null, null, taskStatus, null, null, null, null)), out);
+        log.info("Exported {} tasks with status {}", count, taskStatus);
+        return count;
+    }
+
+    private long write(Specification<Task> filter, OutputStream out) throws IOException {
+        long count = 0;
+        int chunkSize = Math.max(1, exportProperties.getChunkSize());
+        int flushInterval = Math.max(1, exportProperties.getFlushIntervalRows());
+        ObjectWriter writer = objectMapper.writerFor(TaskResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            List<TaskDetail> chunk = taskQueryRepository.findDetails(filter, SORT_ATTRIBUTE, chunkSize);
+            while (!chunk.isEmpty()) {
+                for (TaskDetail detail : chunk) {
+                    writer.writeValue(generator, taskMapper.toResponse(detail));
+                    generator.writeRaw('\n');
+
+                    count++;
+                    if (count == 1 || count % flushInterval == 0) {
+                        generator.flush();
+                    }
+                }
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                TaskDetail last = chunk.get(chunk.size() - 1);
+                chunk = taskQueryRepository.findDetails(
+                        filter.and(taskSpecificationBuilder.createdAfter(last.createdAt(), last.id())),
+                        SORT_ATTRIBUTE, chunkSize);
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
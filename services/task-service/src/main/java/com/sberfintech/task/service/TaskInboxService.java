@@ -0,0 +1,224 @@
+package com.sberfintech.task.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.InboxProperties;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.event.TaskChangedEvent;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.repository.TaskInboxRepository;
+import com.sberfintech.task.repository.TaskInboxRepository.InboxEntry;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Входящие исполнителя: его незакрытые задачи, от старшего приоритета к младшему, внутри приоритета по сроку.
+ * <p>
+ * Карточки готовятся заранее и лежат в Redis ({@link TaskInboxRepository}), так что чтение не обращается к Postgres.
+ * После коммита каждой транзакции, изменившей задачи ({@link TaskChangedEvent}), их текущее состояние
+ * перечитывается из БД и переносится во входящие. Redis общий для всех экземпляров, поэтому синхронизацию
+ * выполняет только экземпляр, сделавший изменение. Непостроенные входящие строятся из БД при первом чтении;
+ * при недоступном Redis ответ собирается из БД.
+ */
+@Service
+@Slf4j
+public class TaskInboxService {
+
+    /**
+     * Версия удалённой задачи: больше любой настоящей и точно представима в Lua.
+     */
+    private static final long DELETED_VERSION = (1L << 53) - 1;
+
+    private static final long PRIORITY_WEIGHT = 10_000_000_000_000L;
+
+    private static final long NO_DUE_DATE = PRIORITY_WEIGHT - 1;
+
+    private static final Comparator<Task> INBOX_ORDER =
+            Comparator.comparingLong(TaskInboxService::score).thenComparing(Task::getId);
+
+    private final TaskInboxRepository taskInboxRepository;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final InboxProperties inboxProperties;
+
+    private final Counter redisReads;
+    private final Counter rebuiltReads;
+    private final Counter databaseReads;
+    private final Counter syncFailures;
+
+    public TaskInboxService(TaskInboxRepository taskInboxRepository,
+                            TaskJdbcRepository taskJdbcRepository,
+                            TaskMapper taskMapper,
+                            ObjectMapper objectMapper,
+                            InboxProperties inboxProperties,
+                            MeterRegistry meterRegistry) {
+        this.taskInboxRepository = taskInboxRepository;
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskMapper = taskMapper;
+        this.objectMapper = objectMapper;
+        this.inboxProperties = inboxProperties;
+
+        this.redisReads = readCounter(meterRegistry, "redis");
+        this.rebuiltReads = readCounter(meterRegistry, "rebuild");
+        this.databaseReads = readCounter(meterRegistry, "database");
+        this.syncFailures = Counter.builder("task.inbox.sync.failures")
+                .description("Task changes that could not be applied to the Redis inbox")
+                .register(meterRegistry);
+    }
+
+    public List<TaskResponse> getInbox(Long assigneeId) {
+        if (!inboxProperties.isEnabled()) {
+            databaseReads.increment();
+            return fromDatabase(assigneeId);
+        }
+        try {
+            List<String> cards = taskInboxRepository.read(assigneeId, inboxProperties.getMaxSize());
+            if (cards != null) {
+                redisReads.increment();
+                return cards.stream().filter(Objects::nonNull).map(this::fromCard).toList();
+            }
+            rebuiltReads.increment();
+            return rebuild(assigneeId, false);
+        } catch (DataAccessException e) {
+            log.warn("Inbox of assignee {} is unavailable in Redis, reading database: {}", assigneeId, e.getMessage());
+            databaseReads.increment();
+            return fromDatabase(assigneeId);
+        }
+    }
+
+    /**
+     * Перестраивает входящие исполнителя по БД. Изменение, закоммиченное между чтением снимка и его записью,
+     * может пропасть из входящих до следующего изменения этой задачи.
+     */
+    public List<TaskResponse> rebuildInbox(Long assigneeId) {
+        if (!inboxProperties.isEnabled()) {
+            return fromDatabase(assigneeId);
+        }
+        return rebuild(assigneeId, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!inboxProperties.isEnabled()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new LinkedHashSet<>(event.taskIds()));
+        int chunkSize = inboxProperties.getSyncChunkSize();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                sync(chunk);
+            } catch (RuntimeException e) {
+                // транзакция уже закоммичена: ошибку нельзя вернуть клиенту, входящие догонит следующее изменение
+                syncFailures.increment(chunk.size());
+                log.warn("Failed to sync {} tasks to inbox: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void sync(List<UUID> ids) {
+        Map<UUID, Task> tasks = taskJdbcRepository.findAllByIds(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<InboxEntry> entries = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Task task = tasks.get(id);
+            entries.add(task == null ? new InboxEntry(id, DELETED_VERSION, null, 0, null) : toEntry(task));
+        }
+        taskInboxRepository.apply(entries);
+    }
+
+    private List<TaskResponse> rebuild(Long assigneeId, boolean replace) {
+        List<Task> tasks = loadOpenTasks(assigneeId);
+        List<InboxEntry> snapshot = tasks.stream().map(this::toEntry).toList();
+        long size = taskInboxRepository.rebuild(assigneeId, snapshot, replace);
+        log.debug("Built inbox of assignee {}: {} tasks", assigneeId, size);
+        return tasks.stream()
+                .limit(inboxProperties.getMaxSize())
+                .map(taskMapper::toResponse)
+                .toList();
+    }
+
+    private List<TaskResponse> fromDatabase(Long assigneeId) {
+        return loadOpenTasks(assigneeId).stream()
+                .limit(inboxProperties.getMaxSize())
+                .map(taskMapper::toResponse)
+                .toList();
+    }
+
+    private List<Task> loadOpenTasks(Long assigneeId) {
+        return taskJdbcRepository.findByAssignee(assigneeId, TaskValidator.OPEN_STATUSES).stream()
+                .sorted(INBOX_ORDER)
+                .toList();
+    }
+
+    private InboxEntry toEntry(Task task) {
+        if (task.getAssigneeId() == null || !TaskValidator.OPEN_STATUSES.contains(task.getStatus())) {
+            return new InboxEntry(task.getId(), task.getVersion(), null, 0, null);
+        }
+        return new InboxEntry(task.getId(), task.getVersion(), task.getAssigneeId(), score(task),
+                toCard(taskMapper.toResponse(task)));
+    }
+
+    /**
+     * Ключ сортировки: старший приоритет даёт меньший разряд, внутри приоритета — время срока,
+     * задачи без срока в конце. Значение остаётся целым и точно представимо в double-оценке sorted set.
+     */
+    private static long score(Task task) {
+        TaskPriority priority = task.getPriority() == null ? TaskPriority.MEDIUM : task.getPriority();
+        long rank = TaskPriority.values().length - 1 - priority.ordinal();
+        return rank * PRIORITY_WEIGHT + dueMillis(task.getDueDate());
+    }
+
+    private static long dueMillis(LocalDateTime dueDate) {
+        if (dueDate == null) {
+            return NO_DUE_DATE;
+        }
+        long millis = dueDate.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return Math.max(0, Math.min(millis, NO_DUE_DATE - 1));
+    }
+
+    private String toCard(TaskResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize inbox card for task " + response.getId(), e);
+        }
+    }
+
+    private TaskResponse fromCard(String card) {
+        try {
+            return objectMapper.readValue(card, TaskResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read inbox card " + card, e);
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("task.inbox.reads")
+                .description("Inbox reads by the source that served them")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.sberfintech.task.service;
+
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.domain.exception.TaskNotFoundException;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.repository.TaskReactiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Реактивное чтение задач: те же фильтры и тот же {@link TaskResponse}, что и у блокирующего API,
+ * но без пагинации — выборка отдаётся потоком с учётом backpressure. Записи идут только через {@link TaskService}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "task.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskReactiveService {
+
+    private final TaskReactiveRepository taskReactiveRepository;
+
+    private final TaskMapper taskMapper;
+
+    public Mono<TaskResponse> getTaskById(UUID id) {
+        return taskReactiveRepository.findDetail(id)
+                .map(taskMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Task not found with id: " + id)));
+    }
+
+    public Flux<TaskResponse> searchTasks(TaskSearchCriteria criteria, TaskSortField sort, Integer limit) {
+        return taskReactiveRepository.findDetails(criteria, sortOrDefault(sort).getAttribute(), checkLimit(limit))
+                .map(taskMapper::toResponse);
+    }
+
+    public Flux<TaskResponse> getOverdueTasks(TaskSortField sort, Integer limit) {
+        return taskReactiveRepository.findOverdue(LocalDateTime.now(), TaskValidator.OVERDUE_STATUSES,
+                        sortOrDefault(sort).getAttribute(), checkLimit(limit))
+                .map(taskMapper::toResponse);
+    }
+
+    private static TaskSortField sortOrDefault(TaskSortField sort) {
+        return sort == null ? TaskSortField.CREATED_AT : sort;
+    }
+
+    private static Integer checkLimit(Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sberfintech.task.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sberfintech.task.config.TaskCacheProperties;
+import com.sberfintech.task.datasource.ReplicaRoutingContext;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.event.TaskChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Локальный кэш карточек задач для GET /tasks/{id}.
+ * <p>
+ * Записи вытесняются после коммита любой транзакции, изменившей задачу ({@link TaskChangedEvent}),
+ * и по событиям из Kafka, пришедшим с других экземпляров. Загрузка атомарна по ключу, поэтому
+ * вытеснение дожидается параллельной загрузки и не оставляет в кэше значение, прочитанное до коммита.
+ */
+@Component
+public class TaskResponseCache {
+
+    private final Cache<UUID, TaskResponse> cache;
+
+    public TaskResponseCache(TaskCacheProperties taskCacheProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(taskCacheProperties.getMaxSize())
+                .expireAfterWrite(taskCacheProperties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "task.response");
+    }
+
+    public TaskResponse get(UUID taskId, Function<UUID, TaskResponse> loader) {
+        // промах читается с primary: карточка с отстающей реплики прожила бы в кэше весь TTL
+        return cache.get(taskId, id -> ReplicaRoutingContext.callOnPrimary(() -> loader.apply(id)));
+    }
+
+    public void evict(UUID taskId) {
+        cache.invalidate(taskId);
+    }
+
+    public void evictAll(Collection<UUID> taskIds) {
+        cache.invalidateAll(taskIds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        evictAll(event.taskIds());
+    }
+}
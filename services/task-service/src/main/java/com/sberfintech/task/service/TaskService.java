@@ -1,92 +1,160 @@
 package com.sberfintech.task.service;
 
+import com.sberfintech.task.config.BatchProperties;
+import com.sberfintech.task.domain.BulkTransitionResult;
 import com.sberfintech.task.domain.TaskDomainService;
+import com.sberfintech.task.domain.TaskFacetMode;
+import com.sberfintech.task.domain.TaskQueryService;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.dto.BatchCreateTasksResponse;
+import com.sberfintech.task.dto.BatchItemResult;
+import com.sberfintech.task.dto.BulkRejection;
+import com.sberfintech.task.dto.BulkTransitionResponse;
 import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
 import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.dto.TaskSearchResult;
+import com.sberfintech.task.dto.TaskSummary;
 import com.sberfintech.task.dto.UpdateTaskRequest;
 import com.sberfintech.task.event.TaskEventService;
 import com.sberfintech.task.mapper.TaskMapper;
 import com.sberfintech.task.model.Task;
 import com.sberfintech.task.model.TaskPriority;
-import com.sberfintech.task.model.TaskStatus;
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
 
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
 
     private final TaskDomainService taskDomainService;
+    private final TaskQueryService taskQueryService;
     private final TaskEventService taskEventService;
     private final TaskMapper taskMapper;
+    private final TaskSpecificationBuilder taskSpecificationBuilder;
+    private final TaskValidator taskValidator;
+    private final BatchProperties batchProperties;
+    private final TaskResponseCache taskResponseCache;
+    private final TaskInboxService taskInboxService;
 
 
-    public List<TaskResponse> getAllTasks() {
-        return taskDomainService.findAll().stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public TaskResponse getTaskById(UUID Id) {
+        return taskResponseCache.get(Id, id -> taskMapper.toResponse(taskQueryService.findDetail(id)));
     }
 
-    public TaskResponse getTaskById(UUID Id) {
-        Task task = taskDomainService.findById(Id);
-        return taskMapper.toResponse(task);
+    public List<TaskResponse> getInbox(Long assigneeId) {
+        return taskInboxService.getInbox(assigneeId);
     }
 
-    public List<TaskResponse> getTasksByAssignee(Long assigneeId) {
-        return taskDomainService.findByAssignee(assigneeId).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<TaskResponse> rebuildInbox(Long assigneeId) {
+        return taskInboxService.rebuildInbox(assigneeId);
     }
 
-    public List<TaskResponse> getTasksByCreator(Long creatorId) {
-        return taskDomainService.findByCreator(creatorId).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> getAllTasks(TaskPageRequest pageRequest) {
+        return taskQueryService.findDetailPage(null, pageRequest).map(taskMapper::toResponse);
     }
 
-    public List<TaskResponse> getTasksByStatus(String status) {
-        TaskStatus taskStatus = TaskStatus.valueOf(status.toUpperCase());
-        return taskDomainService.findByStatus(taskStatus).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> getTasksByAssignee(Long assigneeId, TaskPageRequest pageRequest) {
+        return searchTasks(assigneeId, null, null, null, null, null, null, pageRequest);
     }
 
-    public List<TaskResponse> getTasksByPriority(String priority) {
-        TaskPriority taskPriority = TaskPriority.valueOf(priority.toUpperCase());
-        return taskDomainService.findByPriority(taskPriority).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> getTasksByCreator(Long creatorId, TaskPageRequest pageRequest) {
+        return searchTasks(null, creatorId, null, null, null, null, null, pageRequest);
+    }
+
+    public CursorPage<TaskResponse> getTasksByStatus(String status, TaskPageRequest pageRequest) {
+        return searchTasks(null, null, status, null, null, null, null, pageRequest);
     }
 
-    public List<TaskResponse> getOverdueTasks(){
-        return taskDomainService.findOverdue().stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> getTasksByPriority(String priority, TaskPageRequest pageRequest) {
+        return searchTasks(null, null, null, priority, null, null, null, pageRequest);
     }
 
-    public List<TaskResponse> getTasksByProperty(Long propertyId) {
-        return taskDomainService.findByPropertyId(propertyId).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> getTasksByProperty(Long propertyId, TaskPageRequest pageRequest) {
+        return searchTasks(null, null, null, null, propertyId, null, null, pageRequest);
     }
 
+    public CursorPage<TaskResponse> getOverdueTasks(TaskPageRequest pageRequest) {
+        return taskQueryService.findDetailPage(taskSpecificationBuilder.overdue(LocalDateTime.now()), pageRequest)
+                .map(taskMapper::toResponse);
+    }
 
-    public List<TaskResponse> searchTasks(Long assigneeId, Long creatorId, String status,
-                                          String priority, Long propertyId,
-                                          LocalDateTime createdAfter, LocalDateTime createdBefore) {
-        return taskDomainService.search(assigneeId, creatorId, status, priority,
-                propertyId, createdAfter, createdBefore).stream()
-                .map(taskMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<TaskResponse> searchTasks(Long assigneeId, Long creatorId, String status,
+                                                String priority, Long propertyId,
+                                                LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                                TaskPageRequest pageRequest) {
+        Specification<Task> spec = taskSpecificationBuilder.buildSearchSpecification(assigneeId, creatorId, status,
+                priority, propertyId, createdAfter, createdBefore);
+        return taskQueryService.findDetailPage(spec, pageRequest).map(taskMapper::toResponse);
+    }
+
+    /**
+     * Поиск с текстовым запросом {@code text}: фильтры те же, выдача по релевантности. Без текста —
+     * обычный поиск с сортировкой из {@code pageRequest}.
+     */
+    public CursorPage<TaskResponse> searchTasks(String text, Long assigneeId, Long creatorId, String status,
+                                                String priority, Long propertyId,
+                                                LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                                TaskPageRequest pageRequest) {
+        if (text == null || text.isBlank()) {
+            return searchTasks(assigneeId, creatorId, status, priority, propertyId, createdAfter, createdBefore,
+                    pageRequest);
+        }
+        String query = text.strip();
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Search query must not exceed " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        Specification<Task> spec = taskSpecificationBuilder.buildSearchSpecification(assigneeId, creatorId, status,
+                priority, propertyId, createdAfter, createdBefore);
+        return taskQueryService.findRankedDetailPage(query, spec, pageRequest).map(taskMapper::toResponse);
+    }
+
+    /**
+     * Поиск со счётчиками фасетов: страница и фасеты считаются по одним и тем же фильтрам и тексту,
+     * фасеты — одним сгруппированным запросом. Фасеты от курсора не зависят, поэтому считаются только
+     * для первой страницы; страницы по курсору возвращаются без них.
+     */
+    public TaskSearchResult searchTasks(String text, Long assigneeId, Long creatorId, String status,
+                                        String priority, Long propertyId,
+                                        LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                        TaskPageRequest pageRequest, TaskFacetMode facets) {
+        CursorPage<TaskResponse> page = searchTasks(text, assigneeId, creatorId, status, priority, propertyId,
+                createdAfter, createdBefore, pageRequest);
+        boolean firstPage = pageRequest.cursor() == null || pageRequest.cursor().isBlank();
+        if (facets == null || facets == TaskFacetMode.NONE || !firstPage) {
+            return new TaskSearchResult(page, null);
+        }
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(assigneeId, creatorId, status, priority, propertyId,
+                createdAfter, createdBefore);
+        String query = text == null || text.isBlank() ? null : text.strip();
+        return new TaskSearchResult(page,
+                taskQueryService.findFacets(criteria, query, facets == TaskFacetMode.APPROXIMATE));
+    }
+
+    public CursorPage<TaskSummary> searchTaskSummaries(Long assigneeId, Long creatorId, String status,
+                                                       String priority, Long propertyId,
+                                                       LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                                       TaskPageRequest pageRequest) {
+        Specification<Task> spec = taskSpecificationBuilder.buildSearchSpecification(assigneeId, creatorId, status,
+                priority, propertyId, createdAfter, createdBefore);
+        return taskQueryService.findSummaryPage(spec, pageRequest);
     }
 
     @Transactional
@@ -98,6 +166,49 @@ public class TaskService {
         return taskMapper.toResponse(savedTask);
     }
 
+    /**
+     * Пакетное создание: элементы валидируются заранее, корректные вставляются одной JDBC-пачкой,
+     * события публикуются одной пачкой. Ошибки валидации возвращаются по каждому элементу.
+     */
+    @Transactional
+    public BatchCreateTasksResponse createTasks(List<CreateTaskRequest> requests) {
+        if (requests.size() > batchProperties.getMaxItems()) {
+            throw new IllegalArgumentException(String.format("Batch size %d exceeds limit %d",
+                    requests.size(), batchProperties.getMaxItems()));
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Task> validTasks = new ArrayList<>(requests.size());
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                Task task = taskMapper.toEntity(requests.get(i));
+                taskValidator.validateForCreate(task);
+                validTasks.add(task);
+                validIndexes.add(i);
+            } catch (ValidationException | IllegalArgumentException e) {
+                results[i] = BatchItemResult.builder().index(i).success(false).error(e.getMessage()).build();
+            }
+        }
+
+        if (!validTasks.isEmpty()) {
+            List<Task> created = taskDomainService.createAll(validTasks);
+            taskEventService.sendTasksCreated(created);
+            for (int i = 0; i < created.size(); i++) {
+                int index = validIndexes.get(i);
+                results[index] = BatchItemResult.builder().index(index).success(true).id(created.get(i).getId()).build();
+            }
+        }
+
+        log.info("Batch create: {} created, {} rejected", validTasks.size(), requests.size() - validTasks.size());
+        return BatchCreateTasksResponse.builder()
+                .created(validTasks.size())
+                .failed(requests.size() - validTasks.size())
+                .items(Arrays.asList(results))
+                .build();
+    }
+
     @Transactional
     public TaskResponse updateTask(UUID id, UpdateTaskRequest request) {
         Task task = taskDomainService.findById(id);
@@ -141,6 +252,61 @@ public class TaskService {
         return taskMapper.toResponse(task);
     }
 
+    //==================== BULK TRANSITIONS =====================
+
+    @Transactional
+    public BulkTransitionResponse bulkAssign(List<UUID> taskIds, Long assigneeId) {
+        checkBulkSize(taskIds);
+        BulkTransitionResult result = taskDomainService.bulkAssign(taskIds, assigneeId);
+        taskEventService.sendTasksAssigned(result.updated(), assigneeId);
+        return toBulkResponse(result);
+    }
+
+    @Transactional
+    public BulkTransitionResponse bulkComplete(List<UUID> taskIds, Long userId) {
+        checkBulkSize(taskIds);
+        BulkTransitionResult result = taskDomainService.bulkComplete(taskIds, userId);
+        taskEventService.sendTasksCompleted(result.updated(), userId);
+        return toBulkResponse(result);
+    }
+
+    @Transactional
+    public BulkTransitionResponse bulkCancel(List<UUID> taskIds, String reason) {
+        checkBulkSize(taskIds);
+        BulkTransitionResult result = taskDomainService.bulkCancel(taskIds, reason);
+        taskEventService.sendTasksCanceled(result.updated(), reason);
+        return toBulkResponse(result);
+    }
+
+    @Transactional
+    public BulkTransitionResponse bulkEscalate(List<UUID> taskIds, Long escalatedTo) {
+        checkBulkSize(taskIds);
+        BulkTransitionResult result = taskDomainService.bulkEscalate(taskIds, escalatedTo);
+        taskEventService.sendTasksEscalated(result.updated(), escalatedTo);
+        return toBulkResponse(result);
+    }
+
+    private void checkBulkSize(List<UUID> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            throw new IllegalArgumentException("Task IDs cannot be empty");
+        }
+        if (taskIds.size() > batchProperties.getMaxItems()) {
+            throw new IllegalArgumentException(String.format("Batch size %d exceeds limit %d",
+                    taskIds.size(), batchProperties.getMaxItems()));
+        }
+    }
+
+    private BulkTransitionResponse toBulkResponse(BulkTransitionResult result) {
+        List<BulkRejection> rejected = result.rejected().entrySet().stream()
+                .map(e -> BulkRejection.builder().taskId(e.getKey()).reason(e.getValue()).build())
+                .toList();
+        log.info("Bulk transition: {} updated, {} rejected", result.updated().size(), rejected.size());
+        return BulkTransitionResponse.builder()
+                .updated(result.updated().stream().map(taskMapper::toResponse).toList())
+                .rejected(rejected)
+                .build();
+    }
+
     @Transactional
     public TaskResponse updatePriority(UUID taskId, String priority) {
         Task task = taskDomainService.findById(taskId);
@@ -162,7 +328,9 @@ public class TaskService {
 
     @Transactional
     public void deleteTask(UUID taskId) {
+        Task task = taskDomainService.findById(taskId);
         taskDomainService.delete(taskId);
+        taskEventService.sendTaskDeleted(task);
         log.info("Deleted task with id: {}", taskId);
     }
 }
@@ -0,0 +1,136 @@
+import com.sberfintech.task.config.EscalationProperties;
+import com.sberfintech.task.config.EscalationProperties.Policy;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.event.TaskEventService;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import com.sberfintech.task.scheduler.EscalationPolicyEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для EscalationPolicyEngine")
+class EscalationPolicyEngineTest {
+
+    private static final int CHUNK = 2;
+
+    @Mock
+    private TaskJdbcRepository taskJdbcRepository;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<TaskStatsRegistry> taskStats;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<List<Task>>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Полный кусок запрашивает следующий, неполный или пустой завершает правило")
+    void runPass_shouldContinueWhileChunksAreFull() {
+        when(escalate(TaskPriority.CRITICAL, 1)).thenReturn(transitions(2), transitions(2), transitions(1));
+        when(escalate(TaskPriority.HIGH, 1)).thenReturn(transitions(2), transitions(0));
+
+        engine(policy(TaskPriority.CRITICAL, 1), policy(TaskPriority.HIGH, 1)).runPass();
+
+        verify(taskJdbcRepository, times(3)).escalateByPolicy(eq(TaskPriority.CRITICAL), eq(1), any(), any(),
+                eq(TaskValidator.ESCALATABLE_STATUSES), eq(CHUNK));
+        verify(taskJdbcRepository, times(2)).escalateByPolicy(eq(TaskPriority.HIGH), eq(1), any(), any(),
+                eq(TaskValidator.ESCALATABLE_STATUSES), eq(CHUNK));
+        verify(taskEventService, times(5)).sendTasksEscalated(anyList(), any());
+        assertEquals(5, escalatedCount(TaskPriority.CRITICAL, 1));
+        assertEquals(2, escalatedCount(TaskPriority.HIGH, 1));
+    }
+
+    @Test
+    @DisplayName("Правила применяются от старшего уровня к младшему, ошибка одного не останавливает остальные")
+    void runPass_shouldApplyPoliciesFromHighestLevelAndSurviveFailures() {
+        when(escalate(TaskPriority.CRITICAL, 2)).thenThrow(new IllegalStateException("lock timeout"));
+        when(escalate(TaskPriority.CRITICAL, 1)).thenReturn(transitions(1));
+
+        engine(policy(TaskPriority.CRITICAL, 1), policy(TaskPriority.CRITICAL, 2)).runPass();
+
+        InOrder inOrder = inOrder(taskJdbcRepository);
+        inOrder.verify(taskJdbcRepository).escalateByPolicy(eq(TaskPriority.CRITICAL), eq(2), any(), any(), any(),
+                anyInt());
+        inOrder.verify(taskJdbcRepository).escalateByPolicy(eq(TaskPriority.CRITICAL), eq(1), any(), any(), any(),
+                anyInt());
+        assertEquals(1, escalatedCount(TaskPriority.CRITICAL, 1));
+    }
+
+    @Test
+    @DisplayName("Правило без приоритета или с нулевым уровнем отклоняется при старте")
+    void constructor_shouldRejectInvalidPolicy() {
+        Policy withoutPriority = policy(null, 1);
+        Policy zeroLevel = policy(TaskPriority.HIGH, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> engine(withoutPriority));
+        assertThrows(IllegalArgumentException.class, () -> engine(zeroLevel));
+    }
+
+    private List<TaskTransition> escalate(TaskPriority priority, int level) {
+        return taskJdbcRepository.escalateByPolicy(eq(priority), eq(level), any(), any(), any(), anyInt());
+    }
+
+    private EscalationPolicyEngine engine(Policy... policies) {
+        EscalationProperties properties = new EscalationProperties();
+        properties.setChunkSize(CHUNK);
+        properties.setPolicies(List.of(policies));
+        return new EscalationPolicyEngine(taskJdbcRepository, taskEventService, transactionTemplate, properties,
+                taskStats, meterRegistry);
+    }
+
+    private static Policy policy(TaskPriority priority, int level) {
+        Policy policy = new Policy();
+        policy.setPriority(priority);
+        policy.setOverdueBy(Duration.ofHours(2));
+        policy.setLevel(level);
+        return policy;
+    }
+
+    private static List<TaskTransition> transitions(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new TaskTransition(Task.builder().id(UUID.randomUUID()).build(),
+                        TaskStatus.IN_PROGRESS, null))
+                .toList();
+    }
+
+    private double escalatedCount(TaskPriority priority, int level) {
+        return meterRegistry.get("task.escalation.escalated")
+                .tag("priority", priority.name())
+                .tag("level", String.valueOf(level))
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,108 @@
+import com.sberfintech.task.datasource.GovernedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для GovernedDataSource")
+class GovernedDataSourceTest {
+
+    private static final int POOL_SIZE = 2;
+
+    @Mock
+    private HikariDataSource pool;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        when(pool.getPoolName()).thenReturn("test-pool");
+        when(pool.getMaximumPoolSize()).thenReturn(POOL_SIZE);
+        lenient().when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Соединений выдаётся не больше maximum-pool-size, лишний запрос отказывает по таймауту")
+    void getConnection_shouldCapConcurrencyAndTimeOut() throws SQLException {
+        GovernedDataSource governed = new GovernedDataSource(pool, Duration.ofMillis(100), meterRegistry);
+        governed.getConnection();
+        governed.getConnection();
+
+        long started = System.nanoTime();
+        SQLTransientConnectionException e = assertThrows(SQLTransientConnectionException.class,
+                governed::getConnection);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 100);
+        assertTrue(e.getMessage().startsWith("test-pool - no database permit within 100 ms"), e.getMessage());
+        verify(pool, times(POOL_SIZE)).getConnection();
+        assertEquals(1, meterRegistry.get("task.db.governor.timeouts").tag("pool", "test-pool").counter().count());
+    }
+
+    @Test
+    @DisplayName("Повторное закрытие соединения не отдаёт второе разрешение")
+    void close_shouldReleasePermitOnce() throws SQLException {
+        GovernedDataSource governed = new GovernedDataSource(pool, Duration.ofMillis(100), meterRegistry);
+        Connection first = governed.getConnection();
+        governed.getConnection();
+
+        first.close();
+        first.close();
+
+        assertNotNull(governed.getConnection());
+        assertThrows(SQLTransientConnectionException.class, governed::getConnection);
+    }
+
+    @Test
+    @DisplayName("Ждущий запрос получает соединение, как только другое закрыто")
+    void close_shouldHandPermitToWaitingRequest() throws Exception {
+        GovernedDataSource governed = new GovernedDataSource(pool, Duration.ofSeconds(5), meterRegistry);
+        Connection first = governed.getConnection();
+        governed.getConnection();
+
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return governed.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("task.db.governor.queued").tag("pool", "test-pool").gauge().value());
+
+        first.close();
+
+        assertNotNull(waiting.get(2, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("task.db.governor.queued").tag("pool", "test-pool").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Ошибка пула возвращает разрешение")
+    void getConnection_shouldReleasePermitWhenPoolFails() throws SQLException {
+        GovernedDataSource governed = new GovernedDataSource(pool, Duration.ofMillis(100), meterRegistry);
+        when(pool.getConnection()).thenThrow(new SQLException("pool is down"));
+
+        for (int i = 0; i < POOL_SIZE + 1; i++) {
+            SQLException e = assertThrows(SQLException.class, governed::getConnection);
+            assertEquals("pool is down", e.getMessage());
+        }
+        assertEquals(0, meterRegistry.get("task.db.governor.timeouts").tag("pool", "test-pool").counter().count());
+    }
+}
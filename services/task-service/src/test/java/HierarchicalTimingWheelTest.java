@@ -0,0 +1,72 @@
+import com.sberfintech.task.scheduler.HierarchicalTimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit-тесты для HierarchicalTimingWheel")
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int SIZE = 8;
+    private static final long START = 1_000_000;
+
+    private HierarchicalTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel<>(TICK, SIZE, START);
+    }
+
+    @Test
+    @DisplayName("Таймер срабатывает не раньше срока и не позже чем через тик")
+    void advanceTo_shouldFireWithinOneTickAfterDeadline() {
+        wheel.schedule("task", START + 250);
+
+        assertTrue(wheel.advanceTo(START + 249).isEmpty());
+        assertEquals(List.of("task"), wheel.advanceTo(START + 300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Дальние сроки спускаются с верхних уровней и срабатывают вовремя")
+    void advanceTo_shouldCascadeFromUpperLevels() {
+        long farDeadline = START + TICK * SIZE * SIZE * 3 + 50;
+        wheel.schedule("far", farDeadline);
+
+        assertTrue(wheel.advanceTo(farDeadline - 1).isEmpty());
+        assertEquals(List.of("far"), wheel.advanceTo(farDeadline + TICK));
+    }
+
+    @Test
+    @DisplayName("Отменённый и переставленный таймеры не срабатывают по старому сроку")
+    void cancelAndReschedule_shouldReplaceOldDeadline() {
+        wheel.schedule("cancelled", START + 200);
+        wheel.schedule("moved", START + 200);
+        wheel.cancel("cancelled");
+        wheel.schedule("moved", START + 2_000);
+
+        assertTrue(wheel.advanceTo(START + 1_000).isEmpty());
+        assertEquals(List.of("moved"), wheel.advanceTo(START + 2_100));
+    }
+
+    @Test
+    @DisplayName("scheduleEarliest оставляет более ранний срок")
+    void scheduleEarliest_shouldKeepEarlierDeadline() {
+        wheel.schedule("task", START + 500);
+        wheel.scheduleEarliest("task", START + 5_000);
+
+        assertEquals(List.of("task"), wheel.advanceTo(START + 600));
+    }
+
+    @Test
+    @DisplayName("Уже прошедший срок срабатывает на ближайшем продвижении")
+    void schedule_withPastDeadline_shouldFireImmediately() {
+        wheel.schedule("late", START - 10_000);
+
+        assertEquals(List.of("late"), wheel.advanceTo(START));
+    }
+}
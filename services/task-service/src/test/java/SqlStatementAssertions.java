@@ -0,0 +1,50 @@
+import com.sberfintech.task.metrics.SqlStatementCounter;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки числа SQL-операторов, подготовленных в текущем потоке. Считает
+ * {@link com.sberfintech.task.datasource.StatementCountingDataSource}, поэтому в контексте должен быть
+ * включён task.sql-stats.
+ * <pre>
+ * CursorPage&lt;TaskResponse&gt; page = assertMaxStatements(2, () -&gt; taskService.getTasksByProperty(propertyId, pageRequest));
+ * </pre>
+ */
+final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    static <T> T assertStatements(int expected, Supplier<T> action) {
+        Counted<T> counted = count(action);
+        assertEquals(expected, counted.statements(), "SQL statements prepared");
+        return counted.result();
+    }
+
+    static <T> T assertMaxStatements(int max, Supplier<T> action) {
+        Counted<T> counted = count(action);
+        assertTrue(counted.statements() <= max,
+                () -> "Expected at most " + max + " SQL statements, but " + counted.statements() + " were prepared");
+        return counted.result();
+    }
+
+    static int countStatements(Runnable action) {
+        return count(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    private static <T> Counted<T> count(Supplier<T> action) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            T result = action.get();
+            return new Counted<>(result, scope.statements());
+        }
+    }
+
+    private record Counted<T>(T result, int statements) {
+    }
+}
@@ -0,0 +1,362 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.TaskServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный прогон одного экземпляра сервиса: Postgres, Kafka и Redis в контейнерах, синтетический набор задач
+ * и замкнутый цикл клиентов со смесью 70% чтений по id/исполнителю, 20% переходов жизненного цикла и
+ * 10% поиска/просроченных. Пропускная способность и перцентили по каждому endpoint пишутся в JSON.
+ * <p>
+ * Запуск: mvn test -Pload [-Dload.tasks=100000 -Dload.clients=128 -Dload.duration-seconds=120
+ * -Dload.build=$(git rev-parse --short HEAD)]
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "task.overdue.enabled=false",
+                "task.escalation.enabled=false",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.sberfintech.task=WARN",
+                "logging.level.org.hibernate.SQL=INFO",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+        })
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Нагрузочный прогон REST API")
+@Slf4j
+class TaskApiLoadTest {
+
+    private static final int TASKS = Integer.getInteger("load.tasks", 20_000);
+    private static final int ASSIGNEES = Integer.getInteger("load.assignees", 500);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmup-seconds", 15);
+    private static final long DURATION_SECONDS = Long.getLong("load.duration-seconds", 60);
+    private static final String BUILD = System.getProperty("load.build", "local");
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+    private static final String[] STATUSES = {"NEW", "ASSIGNED", "IN_PROGRESS", "COMPLETED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @Container
+    static final KafkaContainer KAFKA = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.4.0"));
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void containers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", KAFKA::getBootstrapServers);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient http;
+    private List<UUID> taskIds;
+    private final ConcurrentLinkedQueue<Lifecycle> lifecycles = new ConcurrentLinkedQueue<>();
+
+    @Test
+    @DisplayName("Смешанная нагрузка 70/20/10")
+    void mixedWorkload() throws Exception {
+        seed();
+        taskIds = jdbcTemplate.queryForList("SELECT id FROM tasks", UUID.class);
+        jdbcTemplate.queryForList("SELECT id FROM tasks WHERE status = 'NEW' AND assignee_id IS NULL", UUID.class)
+                .forEach(id -> lifecycles.add(new Lifecycle(id, randomAssignee(), 0)));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            run(clients, WARMUP_SECONDS);
+            Instant startedAt = Instant.now();
+            Map<String, Samples> results = run(clients, DURATION_SECONDS);
+            Map<String, Object> report = report(startedAt, results);
+
+            Files.createDirectories(REPORT.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+            log.info("Load report: {}", REPORT.toAbsolutePath());
+            assertTrue(results.values().stream().mapToInt(samples -> samples.size).sum() > 0, "no request succeeded");
+        }
+    }
+
+    /**
+     * Замкнутый цикл: каждый клиент отправляет следующий запрос сразу после ответа на предыдущий.
+     */
+    private Map<String, Samples> run(ExecutorService clients, long seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Map<String, Samples>>> futures = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                Map<String, Samples> local = new HashMap<>();
+                while (System.nanoTime() < deadline) {
+                    nextOperation(local);
+                }
+                return local;
+            }));
+        }
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Future<Map<String, Samples>> future : futures) {
+            future.get().forEach((endpoint, samples) -> merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+
+    private void nextOperation(Map<String, Samples> samples) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            call(samples, "GET /tasks/{id}", get("/tasks/" + randomTask()));
+        } else if (roll < 70) {
+            call(samples, "GET /tasks/assignee/{assigneeId}", get("/tasks/assignee/" + randomAssignee() + "?size=20"));
+        } else if (roll < 90) {
+            transition(samples);
+        } else if (roll < 95) {
+            call(samples, "GET /tasks/search", get("/tasks/search?status=" + STATUSES[random.nextInt(STATUSES.length)]
+                    + "&priority=" + PRIORITIES[random.nextInt(PRIORITIES.length)] + "&size=20"));
+        } else {
+            call(samples, "GET /tasks/overdue", get("/tasks/overdue?size=20"));
+        }
+    }
+
+    /**
+     * Продвигает одну задачу на шаг: назначение, старт, завершение. Задача принадлежит тому клиенту,
+     * который достал её из очереди, поэтому переходы одной задачи не конкурируют между собой.
+     */
+    private void transition(Map<String, Samples> samples) {
+        Lifecycle lifecycle = lifecycles.poll();
+        if (lifecycle == null) {
+            String body = "{\"title\":\"Нагрузочный прогон\",\"creatorId\":1,\"priority\":\""
+                    + PRIORITIES[ThreadLocalRandom.current().nextInt(PRIORITIES.length)] + "\"}";
+            String created = call(samples, "POST /tasks", post("/tasks", body));
+            if (created != null) {
+                lifecycles.add(new Lifecycle(readId(created), randomAssignee(), 0));
+            }
+            return;
+        }
+        String path = "/tasks/" + lifecycle.id();
+        boolean ok = switch (lifecycle.step()) {
+            case 0 -> call(samples, "POST /tasks/{id}/assign/{assigneeId}",
+                    post(path + "/assign/" + lifecycle.assigneeId(), "")) != null;
+            case 1 -> call(samples, "POST /tasks/{id}/start",
+                    post(path + "/start?userId=" + lifecycle.assigneeId(), "")) != null;
+            default -> call(samples, "POST /tasks/{id}/complete",
+                    post(path + "/complete?userId=" + lifecycle.assigneeId(), "")) != null;
+        };
+        if (ok && lifecycle.step() < 2) {
+            lifecycles.add(new Lifecycle(lifecycle.id(), lifecycle.assigneeId(), lifecycle.step() + 1));
+        }
+    }
+
+    /**
+     * Выполняет запрос и записывает задержку успешного ответа. Возвращает тело или null при ошибке.
+     */
+    private String call(Map<String, Samples> samples, String endpoint, HttpRequest request) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, e -> new Samples());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                endpointSamples.errors++;
+                return null;
+            }
+            endpointSamples.add(System.nanoTime() - started);
+            return response.body();
+        } catch (Exception e) {
+            endpointSamples.errors++;
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/v1" + path);
+    }
+
+    private UUID readId(String json) {
+        try {
+            return UUID.fromString(objectMapper.readTree(json).get("id").asText());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private UUID randomTask() {
+        return taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+    }
+
+    private static long randomAssignee() {
+        return ThreadLocalRandom.current().nextInt(ASSIGNEES) + 1;
+    }
+
+    /**
+     * 20% новых неназначенных задач, остальные назначены; каждая десятая назначенная просрочена.
+     */
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, status, priority, creation_date, due_date, creator_id,
+                                   assignee_id, escalation_level, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'Нагрузка ' || g, repeat('описание ', 20),
+                       CASE WHEN g % 10 < 2 THEN 'NEW'
+                            WHEN g % 10 < 6 THEN 'ASSIGNED'
+                            WHEN g % 10 < 8 THEN 'IN_PROGRESS'
+                            WHEN g % 10 = 8 THEN 'COMPLETED'
+                            ELSE 'ASSIGNED' END,
+                       (ARRAY['LOW', 'MEDIUM', 'HIGH', 'CRITICAL'])[g % 4 + 1],
+                       now() - interval '30 days',
+                       CASE WHEN g % 10 = 9 THEN now() - interval '1 day' ELSE now() + (g % 30) * interval '1 day' END,
+                       1,
+                       CASE WHEN g % 10 < 2 THEN NULL ELSE g % ? + 1 END,
+                       0, now() - g * interval '1 second', now(), 0
+                FROM generate_series(1, ?) AS g
+                """, ASSIGNEES, TASKS);
+        jdbcTemplate.execute("ANALYZE tasks");
+    }
+
+    private Map<String, Object> report(Instant startedAt, Map<String, Samples> results) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Samples total = new Samples();
+        results.forEach((endpoint, samples) -> {
+            endpoints.put(endpoint, summary(samples));
+            total.addAll(samples);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("build", BUILD);
+        report.put("startedAt", startedAt.toString());
+        report.put("durationSeconds", DURATION_SECONDS);
+        report.put("clients", CLIENTS);
+        report.put("tasks", TASKS);
+        report.put("assignees", ASSIGNEES);
+        report.put("total", summary(total));
+        report.put("endpoints", endpoints);
+
+        log.info("%-40s %10s %8s %9s %9s %9s %9s".formatted("endpoint", "req/s", "errors", "p50 ms", "p95 ms",
+                "p99 ms", "max ms"));
+        endpoints.forEach((endpoint, summary) -> print(endpoint, summary));
+        print("total", report.get("total"));
+        return report;
+    }
+
+    private static Map<String, Object> summary(Samples samples) {
+        long[] sorted = Arrays.copyOf(samples.values, samples.size);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", samples.size);
+        summary.put("errors", samples.errors);
+        summary.put("throughputPerSecond", samples.size / (double) DURATION_SECONDS);
+        summary.put("p50Millis", percentile(sorted, 0.50));
+        summary.put("p95Millis", percentile(sorted, 0.95));
+        summary.put("p99Millis", percentile(sorted, 0.99));
+        summary.put("p999Millis", percentile(sorted, 0.999));
+        summary.put("maxMillis", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String endpoint, Object summary) {
+        Map<String, Object> s = (Map<String, Object>) summary;
+        log.info("%-40s %10.1f %8d %9.2f %9.2f %9.2f %9.2f".formatted(endpoint, s.get("throughputPerSecond"),
+                s.get("errors"), s.get("p50Millis"), s.get("p95Millis"), s.get("p99Millis"), s.get("maxMillis")));
+    }
+
+    private record Lifecycle(UUID id, long assigneeId, int step) {
+    }
+
+    /**
+     * Задержки успешных ответов в наносекундах. Заполняется одним клиентом, сливается после прогона.
+     */
+    private static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Загружает в tasks синтетический набор заданного объёма через COPY FROM STDIN, минуя JPA.
+ * <p>
+ * Распределения приближены к боевым: исполнители и объекты недвижимости по закону Ципфа (несколько «тяжёлых»
+ * и длинный хвост), смесь статусов с преобладанием закрытых, сроки сгруппированы вокруг {@code now},
+ * уровни эскалации убывают геометрически. При одинаковых seed и now набор совпадает до байта.
+ * <p>
+ * Как фикстура: {@code TaskDatasetGenerator.generate(connection, options)}. Как CLI, схема накатывается
+ * из changelog Liquibase:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=TaskDatasetGenerator \
+ *     -Dexec.args="--url=jdbc:postgresql://localhost:5432/task_db --user=task --password=task --rows=5000000 --seed=42"
+ * </pre>
+ */
+public final class TaskDatasetGenerator {
+
+    private static final String COPY_SQL = """
+            COPY tasks (id, title, description, status, priority, creation_date, due_date, completion_date,
+                        assignee_id, creator_id, property_id, asset_id, escalation_level, escalated_to,
+                        created_at, updated_at, version)
+            FROM STDIN
+            """;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private static final String[] TITLES = {
+            "Ремонт кондиционера", "Замена фильтров вентиляции", "Проверка пожарной сигнализации",
+            "Устранение протечки", "Замена освещения", "Осмотр лифта", "Уборка территории",
+            "Покраска фасада", "Проверка счётчиков", "Ремонт двери"
+    };
+
+    private static final String[] STATUSES = {
+            "NEW", "ASSIGNED", "IN_PROGRESS", "COMPLETED", "CANCELED", "OVERDUE", "ESCALATED"
+    };
+    private static final double[] STATUS_WEIGHTS = {0.10, 0.15, 0.15, 0.45, 0.05, 0.05, 0.05};
+
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final double[] PRIORITY_WEIGHTS = {0.30, 0.45, 0.20, 0.05};
+
+    private TaskDatasetGenerator() {
+    }
+
+    /**
+     * @param rows        сколько задач вставить
+     * @param seed        зерно генератора
+     * @param assignees   число исполнителей, id от 1
+     * @param properties  число объектов недвижимости, id от 1
+     * @param skew        показатель Ципфа для исполнителей и объектов: чем больше, тем тяжелее голова
+     * @param now         момент, вокруг которого группируются сроки
+     */
+    public record Options(long rows, long seed, int assignees, int properties, double skew, LocalDateTime now) {
+
+        public static Options defaults(long rows) {
+            return new Options(rows, 42, 5_000, 20_000, 1.1, LocalDate.now().atStartOfDay());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            params.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        Options defaults = Options.defaults(Long.parseLong(params.getOrDefault("rows", "1000000")));
+        Options options = new Options(
+                defaults.rows(),
+                Long.parseLong(params.getOrDefault("seed", String.valueOf(defaults.seed()))),
+                Integer.parseInt(params.getOrDefault("assignees", String.valueOf(defaults.assignees()))),
+                Integer.parseInt(params.getOrDefault("properties", String.valueOf(defaults.properties()))),
+                Double.parseDouble(params.getOrDefault("skew", String.valueOf(defaults.skew()))),
+                params.containsKey("now") ? LocalDateTime.parse(params.get("now")) : defaults.now());
+
+        try (Connection connection = DriverManager.getConnection(
+                params.getOrDefault("url", "jdbc:postgresql://localhost:5432/task_db"),
+                params.get("user"), params.get("password"))) {
+            if (!"false".equals(params.get("migrate"))) {
+                migrate(connection);
+            }
+            long started = System.nanoTime();
+            generate(connection, options);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%,d tasks in %.1f s (%,.0f rows/s)%n", options.rows(), seconds, options.rows() / seconds);
+        }
+    }
+
+    /**
+     * Накатывает схему из db.changelog-master.yaml, как при старте сервиса.
+     */
+    @SuppressWarnings("deprecation")
+    public static void migrate(Connection connection) throws Exception {
+        Liquibase liquibase = new Liquibase("db.changelog-master.yaml", new ClassLoaderResourceAccessor(),
+                new JdbcConnection(connection));
+        liquibase.update(new Contexts());
+    }
+
+    /**
+     * Вставляет {@code options.rows()} задач одной командой COPY и обновляет статистику таблицы.
+     */
+    public static void generate(Connection connection, Options options) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        double[] assigneeCdf = zipfCdf(options.assignees(), options.skew());
+        double[] propertyCdf = zipfCdf(options.properties(), options.skew());
+        double[] statusCdf = cdf(STATUS_WEIGHTS);
+        double[] priorityCdf = cdf(PRIORITY_WEIGHTS);
+        LocalDateTime now = options.now();
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+                for (long row = 0; row < options.rows(); row++) {
+                    appendRow(buffer, random, now, pick(random, assigneeCdf) + 1, pick(random, propertyCdf) + 1,
+                            STATUSES[pick(random, statusCdf)], PRIORITIES[pick(random, priorityCdf)]);
+                    if (buffer.length() >= FLUSH_BYTES) {
+                        flush(copy, buffer);
+                    }
+                }
+                flush(copy, buffer);
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE tasks");
+        }
+    }
+
+    private static void appendRow(StringBuilder out, SplittableRandom random, LocalDateTime now,
+                                  long assigneeId, long propertyId, String status, String priority) {
+        // создание за последний год, сроки в основном в пределах пары недель от now
+        LocalDateTime createdAt = now.minusMinutes(random.nextLong(365L * 24 * 60));
+        long dueOffsetMinutes = Math.round(gaussian(random) * 7 * 24 * 60);
+        boolean pastDue = status.equals("OVERDUE") || status.equals("ESCALATED");
+        LocalDateTime dueDate = pastDue
+                ? now.minusMinutes(Math.abs(dueOffsetMinutes) + 1)
+                : now.plusMinutes(dueOffsetMinutes);
+        if (dueDate.isBefore(createdAt)) {
+            dueDate = createdAt.plusHours(1 + random.nextInt(72));
+        }
+        boolean hasDueDate = pastDue || random.nextInt(10) != 0;
+        long ageMinutes = Math.max(1, Duration.between(createdAt, now).toMinutes());
+        LocalDateTime completionDate = status.equals("COMPLETED")
+                ? createdAt.plusMinutes(random.nextLong(ageMinutes))
+                : null;
+        int escalationLevel = switch (status) {
+            case "ESCALATED" -> 1 + geometric(random, 0.6, 4);
+            case "NEW", "CANCELED" -> 0;
+            default -> random.nextInt(20) == 0 ? 1 : 0;
+        };
+        boolean assigned = !status.equals("NEW");
+        LocalDateTime updatedAt = completionDate != null
+                ? completionDate
+                : createdAt.plusMinutes(random.nextLong(ageMinutes));
+
+        uuid(out, random).append('\t');
+        out.append(TITLES[random.nextInt(TITLES.length)]).append('\t');
+        out.append("Синтетическая задача объекта ").append(propertyId).append('\t');
+        out.append(status).append('\t');
+        out.append(priority).append('\t');
+        timestamp(out, createdAt).append('\t');
+        nullableTimestamp(out, hasDueDate ? dueDate : null).append('\t');
+        nullableTimestamp(out, completionDate).append('\t');
+        nullable(out, assigned ? assigneeId : null).append('\t');
+        out.append(1 + random.nextInt(200)).append('\t');
+        out.append(propertyId).append('\t');
+        nullable(out, random.nextInt(5) < 3 ? (Long) (propertyId * 10 + random.nextInt(10)) : null).append('\t');
+        out.append(escalationLevel).append('\t');
+        nullable(out, escalationLevel > 0 && assigned ? assigneeId : null).append('\t');
+        timestamp(out, createdAt).append('\t');
+        timestamp(out, updatedAt).append('\t');
+        out.append(0).append('\n');
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static StringBuilder uuid(StringBuilder out, SplittableRandom random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return out.append(new UUID(most, least));
+    }
+
+    private static StringBuilder timestamp(StringBuilder out, LocalDateTime value) {
+        return out.append(TIMESTAMP.format(value));
+    }
+
+    private static StringBuilder nullableTimestamp(StringBuilder out, LocalDateTime value) {
+        return value == null ? out.append("\\N") : timestamp(out, value);
+    }
+
+    private static StringBuilder nullable(StringBuilder out, Long value) {
+        return value == null ? out.append("\\N") : out.append(value.longValue());
+    }
+
+    /**
+     * Нормальное распределение по Боксу — Мюллеру: у SplittableRandom нет nextGaussian.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static int geometric(SplittableRandom random, double p, int max) {
+        int value = 0;
+        while (value < max && random.nextDouble() > p) {
+            value++;
+        }
+        return value;
+    }
+
+    private static double[] zipfCdf(int size, double exponent) {
+        double[] weights = new double[size];
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, exponent);
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        cdf[cdf.length - 1] = 1.0;
+        return cdf;
+    }
+
+    private static int pick(SplittableRandom random, double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Генератор синтетического набора задач")
+class TaskDatasetGeneratorTest {
+
+    private static final int ROWS = 20_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        try (Connection connection = connect()) {
+            TaskDatasetGenerator.migrate(connection);
+        }
+    }
+
+    @Test
+    @DisplayName("Одинаковые seed и now дают одинаковый набор")
+    void generate_shouldBeReproducible() throws Exception {
+        try (Connection connection = connect()) {
+            String first = generateAndChecksum(connection, 7);
+            String second = generateAndChecksum(connection, 7);
+            String other = generateAndChecksum(connection, 8);
+
+            assertEquals(first, second);
+            assertNotEquals(first, other);
+        }
+    }
+
+    @Test
+    @DisplayName("Распределения: перекос исполнителей, новые задачи без исполнителя")
+    void generate_shouldProduceRealisticDistributions() throws Exception {
+        try (Connection connection = connect()) {
+            truncate(connection);
+            TaskDatasetGenerator.generate(connection, options(11));
+
+            assertEquals(ROWS, queryLong(connection, "SELECT count(*) FROM tasks"));
+            assertEquals(0, queryLong(connection,
+                    "SELECT count(*) FROM tasks WHERE status = 'NEW' AND assignee_id IS NOT NULL"));
+            assertEquals(0, queryLong(connection,
+                    "SELECT count(*) FROM tasks WHERE status = 'OVERDUE' AND due_date >= '2024-06-01'"));
+            // при равномерном распределении на самого загруженного исполнителя пришлось бы ~0.02% задач
+            long topAssignee = queryLong(connection, """
+                    SELECT count(*) FROM tasks WHERE assignee_id IS NOT NULL
+                    GROUP BY assignee_id ORDER BY count(*) DESC LIMIT 1
+                    """);
+            assertTrue(topAssignee > ROWS / 100, "assignees are not skewed: " + topAssignee);
+        }
+    }
+
+    private static String generateAndChecksum(Connection connection, long seed) throws Exception {
+        truncate(connection);
+        TaskDatasetGenerator.generate(connection, options(seed));
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT md5(string_agg(concat_ws('|', id, status, priority, due_date, assignee_id, property_id,
+                                                     escalation_level), ',' ORDER BY id))
+                     FROM tasks
+                     """)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static TaskDatasetGenerator.Options options(long seed) {
+        return new TaskDatasetGenerator.Options(ROWS, seed, 5_000, 20_000, 1.1, NOW);
+    }
+
+    private static void truncate(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE tasks CASCADE");
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws Exception {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,83 @@
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import com.sberfintech.task.scheduler.TaskDueDateNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для TaskDueDateNotifier")
+class TaskDueDateNotifierTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskDueDateNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new TaskDueDateNotifier(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Правка без смены срока и отслеживаемого статуса не отправляет NOTIFY")
+    void changed_shouldSkipUpdateThatKeepsDeadline() {
+        Task before = task(TaskStatus.ASSIGNED, DUE);
+        Task renamed = task(TaskStatus.ASSIGNED, DUE);
+        Task undated = task(TaskStatus.NEW, null);
+        Task started = task(TaskStatus.IN_PROGRESS, DUE);
+
+        notifier.changed(before, renamed);
+        notifier.changed(undated, task(TaskStatus.NEW, null));
+        notifier.changed(before, started);
+        notifier.changed(task(TaskStatus.OVERDUE, DUE), task(TaskStatus.ESCALATED, DUE));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Сдвиг срока, появление срока и выход из отслеживания отправляют NOTIFY")
+    void changed_shouldNotifyWhenDeadlineOrTrackingChanges() {
+        notifier.changed(task(TaskStatus.NEW, DUE), task(TaskStatus.NEW, DUE.plusDays(1)));
+        notifier.changed(task(TaskStatus.NEW, null), task(TaskStatus.NEW, DUE));
+        notifier.changed(task(TaskStatus.OVERDUE, DUE), task(TaskStatus.ASSIGNED, DUE.plusDays(1)));
+        notifier.changed(task(TaskStatus.ASSIGNED, DUE), task(TaskStatus.ASSIGNED, null));
+
+        verify(jdbcTemplate, times(4)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Создание и закрытие уведомляют только о задачах с отслеживаемым сроком")
+    void createdAndClosed_shouldSkipUntrackedTasks() {
+        notifier.created(List.of(task(TaskStatus.NEW, null), task(TaskStatus.NEW, null)));
+        notifier.closed(List.of(
+                new TaskTransition(task(TaskStatus.CANCELED, null), TaskStatus.NEW, null),
+                new TaskTransition(task(TaskStatus.ESCALATED, DUE), TaskStatus.OVERDUE, 7L)));
+        verifyNoInteractions(jdbcTemplate);
+
+        notifier.created(List.of(task(TaskStatus.NEW, null), task(TaskStatus.NEW, DUE)));
+        notifier.closed(List.of(new TaskTransition(task(TaskStatus.COMPLETED, DUE), TaskStatus.IN_PROGRESS, 7L)));
+
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static Task task(TaskStatus status, LocalDateTime dueDate) {
+        return Task.builder().id(UUID.randomUUID()).title("Задача").creatorId(1L).status(status).dueDate(dueDate)
+                .build();
+    }
+}
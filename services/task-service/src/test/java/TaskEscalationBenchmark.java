@@ -0,0 +1,80 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.scheduler.EscalationPolicyEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Длительность прохода эскалации по 1M активных задач. Примерно 10% задач CRITICAL, из них часть
+ * просрочена больше чем на 2h и 6h; HIGH — на 8h.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.interval-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бенчмарк прохода автоматической эскалации")
+@Slf4j
+class TaskEscalationBenchmark {
+
+    private static final int ACTIVE_TASKS = 1_000_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private EscalationPolicyEngine escalationPolicyEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Проход по 1M активных задач")
+    void escalationPass() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, status, priority, creation_date, due_date, creator_id,
+                                   escalation_level, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'Бенчмарк эскалации ' || g,
+                       CASE WHEN g % 3 = 0 THEN 'IN_PROGRESS' ELSE 'ASSIGNED' END,
+                       CASE WHEN g % 10 = 0 THEN 'CRITICAL' WHEN g % 10 < 4 THEN 'HIGH' ELSE 'MEDIUM' END,
+                       now(), now() + ((g % 48) - 24) * interval '1 hour', 1, 0, now(), now(), 0
+                FROM generate_series(1, ?) AS g
+                """, ACTIVE_TASKS);
+        jdbcTemplate.execute("ANALYZE tasks");
+
+        long started = System.nanoTime();
+        escalationPolicyEngine.runPass();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Integer escalated = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE status = 'ESCALATED'",
+                Integer.class);
+        log.info("escalation pass over %,d active tasks: %.2f s, %,d escalated (%,.0f tasks/sec)"
+                .formatted(ACTIVE_TASKS, seconds, escalated, escalated / seconds));
+    }
+}
@@ -0,0 +1,243 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.config.EscalationProperties;
+import com.sberfintech.task.config.EscalationProperties.Policy;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.event.TaskEventService;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.scheduler.EscalationPolicyEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Автоматическая эскалация по правилам")
+class TaskEscalationPolicyIntegrationTest {
+
+    private static final long ESCALATE_TO = 900L;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskJdbcRepository taskJdbcRepository;
+
+    @Autowired
+    private TaskEventService taskEventService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectProvider<TaskStatsRegistry> taskStats;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        meterRegistry = new SimpleMeterRegistry();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Эскалируются только задачи нужного приоритета, просроченные на срок правила, открытые и ниже уровня")
+    void runPass_shouldEscalateOnlyMatchingTasks() {
+        Task matching = save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(3), 0);
+        Task notOverdueEnough = save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(1), 0);
+        Task otherPriority = save(TaskPriority.HIGH, TaskStatus.IN_PROGRESS, Duration.ofHours(3), 0);
+        Task completed = save(TaskPriority.CRITICAL, TaskStatus.COMPLETED, Duration.ofHours(3), 0);
+        Task canceled = save(TaskPriority.CRITICAL, TaskStatus.CANCELED, Duration.ofHours(3), 0);
+        Task alreadyAtLevel = save(TaskPriority.CRITICAL, TaskStatus.ESCALATED, Duration.ofHours(3), 1);
+        Task withoutDueDate = save(TaskPriority.CRITICAL, TaskStatus.NEW, null, 0);
+
+        engine(2, policy(TaskPriority.CRITICAL, Duration.ofHours(2), 1)).runPass();
+
+        Map<UUID, Task> stored = reload();
+        Task escalated = stored.get(matching.getId());
+        assertEquals(TaskStatus.ESCALATED, escalated.getStatus());
+        assertEquals(1, escalated.getEscalationLevel());
+        assertEquals(ESCALATE_TO, escalated.getEscalatedTo());
+        assertEquals(ESCALATE_TO, escalated.getAssigneeId());
+        assertEquals(matching.getVersion() + 1, escalated.getVersion());
+        for (Task untouched : List.of(notOverdueEnough, otherPriority, completed, canceled, alreadyAtLevel,
+                withoutDueDate)) {
+            assertEquals(untouched.getStatus(), stored.get(untouched.getId()).getStatus());
+            assertEquals(untouched.getEscalationLevel(), stored.get(untouched.getId()).getEscalationLevel());
+            assertEquals(untouched.getVersion(), stored.get(untouched.getId()).getVersion());
+        }
+        assertEquals(List.of(matching.getId()), escalatedEventTaskIds());
+        assertEquals(1, escalatedCount(TaskPriority.CRITICAL, 1));
+    }
+
+    @Test
+    @DisplayName("Давно просроченная задача сразу получает старший уровень одним событием")
+    void runPass_shouldApplyHighestMatchingLevelFirst() {
+        Task longOverdue = save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(30), 0);
+        Task recentlyOverdue = save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(3), 0);
+
+        engine(2,
+                policy(TaskPriority.CRITICAL, Duration.ofHours(2), 1),
+                policy(TaskPriority.CRITICAL, Duration.ofHours(24), 2)).runPass();
+
+        Map<UUID, Task> stored = reload();
+        assertEquals(2, stored.get(longOverdue.getId()).getEscalationLevel());
+        assertEquals(longOverdue.getVersion() + 1, stored.get(longOverdue.getId()).getVersion());
+        assertEquals(1, stored.get(recentlyOverdue.getId()).getEscalationLevel());
+        assertEquals(2, escalatedEventTaskIds().size());
+    }
+
+    @Test
+    @DisplayName("Проход дочитывает все куски: и неполный последний, и ровно кратное размеру куска число задач")
+    void runPass_shouldEscalateAcrossChunkBoundaries() {
+        List<UUID> critical = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            critical.add(save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(3), 0).getId());
+        }
+        List<UUID> high = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            high.add(save(TaskPriority.HIGH, TaskStatus.NEW, Duration.ofHours(3), 0).getId());
+        }
+
+        engine(2,
+                policy(TaskPriority.CRITICAL, Duration.ofHours(2), 1),
+                policy(TaskPriority.HIGH, Duration.ofHours(2), 1)).runPass();
+
+        Map<UUID, Task> stored = reload();
+        assertTrue(stored.values().stream().allMatch(task -> task.getEscalationLevel() == 1));
+        assertEquals(5, escalatedCount(TaskPriority.CRITICAL, 1));
+        assertEquals(4, escalatedCount(TaskPriority.HIGH, 1));
+        List<UUID> events = escalatedEventTaskIds();
+        assertEquals(9, events.size());
+        assertTrue(events.containsAll(critical) && events.containsAll(high));
+    }
+
+    @Test
+    @DisplayName("Повторный проход ничего не меняет и не пишет событий")
+    void runPass_shouldBeIdempotentOnRerun() {
+        for (int i = 0; i < 3; i++) {
+            save(TaskPriority.CRITICAL, TaskStatus.IN_PROGRESS, Duration.ofHours(30), 0);
+        }
+        EscalationPolicyEngine engine = engine(2,
+                policy(TaskPriority.CRITICAL, Duration.ofHours(2), 1),
+                policy(TaskPriority.CRITICAL, Duration.ofHours(24), 2));
+
+        engine.runPass();
+        Map<UUID, Task> afterFirst = reload();
+        long eventsAfterFirst = escalatedEventTaskIds().size();
+
+        engine.runPass();
+        Map<UUID, Task> afterSecond = reload();
+
+        assertEquals(3, eventsAfterFirst);
+        assertEquals(eventsAfterFirst, escalatedEventTaskIds().size());
+        afterFirst.forEach((id, task) -> {
+            assertEquals(2, afterSecond.get(id).getEscalationLevel());
+            assertEquals(task.getVersion(), afterSecond.get(id).getVersion());
+        });
+        assertEquals(3, escalatedCount(TaskPriority.CRITICAL, 2));
+        assertEquals(0, escalatedCount(TaskPriority.CRITICAL, 1));
+    }
+
+    private EscalationPolicyEngine engine(int chunkSize, Policy... policies) {
+        EscalationProperties properties = new EscalationProperties();
+        properties.setChunkSize(chunkSize);
+        properties.setPolicies(List.of(policies));
+        return new EscalationPolicyEngine(taskJdbcRepository, taskEventService, transactionTemplate, properties,
+                taskStats, meterRegistry);
+    }
+
+    private static Policy policy(TaskPriority priority, Duration overdueBy, int level) {
+        Policy policy = new Policy();
+        policy.setPriority(priority);
+        policy.setOverdueBy(overdueBy);
+        policy.setLevel(level);
+        policy.setEscalateTo(ESCALATE_TO);
+        return policy;
+    }
+
+    private Task save(TaskPriority priority, TaskStatus status, Duration overdue, int escalationLevel) {
+        return taskRepository.saveAndFlush(Task.builder()
+                .title("Проверка эскалации")
+                .creatorId(1L)
+                .assigneeId(500L)
+                .priority(priority)
+                .status(status)
+                .dueDate(overdue == null ? null : now.minus(overdue))
+                .escalationLevel(escalationLevel)
+                .build());
+    }
+
+    private Map<UUID, Task> reload() {
+        return taskRepository.findAll().stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private List<UUID> escalatedEventTaskIds() {
+        return taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getEventType() == EventType.TASK_ESCALATED)
+                .map(TaskOutboxEvent::getAggregateId)
+                .toList();
+    }
+
+    private double escalatedCount(TaskPriority priority, int level) {
+        return meterRegistry.get("task.escalation.escalated")
+                .tag("priority", priority.name())
+                .tag("level", String.valueOf(level))
+                .counter()
+                .count();
+    }
+}
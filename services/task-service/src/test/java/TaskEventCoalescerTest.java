@@ -0,0 +1,94 @@
+import com.sberfintech.task.config.TaskEventsProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.event.TaskEventCoalescer;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit-тесты для TaskEventCoalescer")
+class TaskEventCoalescerTest {
+
+    private TaskEventCoalescer coalescer;
+    private LocalDateTime now;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        TaskEventsProperties properties = new TaskEventsProperties();
+        properties.setCoalesceWindow(Duration.ofMillis(500));
+        coalescer = new TaskEventCoalescer(properties);
+        now = LocalDateTime.now();
+        nextId = 1;
+    }
+
+    @Test
+    @DisplayName("Подряд идущие обновления одной задачи схлопываются в последнее")
+    void coalesce_shouldKeepLastUpdateOfSeries() {
+        UUID taskId = UUID.randomUUID();
+        TaskOutboxEvent first = event(taskId, EventType.TASK_UPDATED, 0);
+        TaskOutboxEvent second = event(taskId, EventType.TASK_UPDATED, 100);
+        TaskOutboxEvent third = event(taskId, EventType.TASK_UPDATED, 200);
+
+        List<TaskOutboxEvent> result = coalescer.coalesce(List.of(first, second, third));
+
+        assertEquals(List.of(third), result);
+    }
+
+    @Test
+    @DisplayName("Обновления вне окна не схлопываются")
+    void coalesce_shouldKeepUpdatesOutsideWindow() {
+        UUID taskId = UUID.randomUUID();
+        TaskOutboxEvent first = event(taskId, EventType.TASK_UPDATED, 0);
+        TaskOutboxEvent second = event(taskId, EventType.TASK_UPDATED, 1_000);
+
+        List<TaskOutboxEvent> result = coalescer.coalesce(List.of(first, second));
+
+        assertEquals(List.of(first, second), result);
+    }
+
+    @Test
+    @DisplayName("Другое событие задачи разрывает серию обновлений")
+    void coalesce_shouldNotMergeAcrossOtherEventTypes() {
+        UUID taskId = UUID.randomUUID();
+        TaskOutboxEvent update = event(taskId, EventType.TASK_UPDATED, 0);
+        TaskOutboxEvent assigned = event(taskId, EventType.TASK_ASSIGNED, 10);
+        TaskOutboxEvent secondUpdate = event(taskId, EventType.TASK_UPDATED, 20);
+
+        List<TaskOutboxEvent> result = coalescer.coalesce(List.of(update, assigned, secondUpdate));
+
+        assertEquals(List.of(update, assigned, secondUpdate), result);
+    }
+
+    @Test
+    @DisplayName("События других задач не мешают схлопыванию и сохраняют порядок")
+    void coalesce_shouldPreserveOrderOfOtherTasks() {
+        UUID taskId = UUID.randomUUID();
+        UUID otherTaskId = UUID.randomUUID();
+        TaskOutboxEvent update = event(taskId, EventType.TASK_UPDATED, 0);
+        TaskOutboxEvent other = event(otherTaskId, EventType.TASK_CREATED, 10);
+        TaskOutboxEvent secondUpdate = event(taskId, EventType.TASK_UPDATED, 20);
+
+        List<TaskOutboxEvent> result = coalescer.coalesce(List.of(update, other, secondUpdate));
+
+        assertEquals(List.of(other, secondUpdate), result);
+    }
+
+    private TaskOutboxEvent event(UUID taskId, EventType eventType, long offsetMillis) {
+        return TaskOutboxEvent.builder()
+                .id(nextId++)
+                .aggregateId(taskId)
+                .eventType(eventType)
+                .topic("task-events")
+                .payload("{}")
+                .createdAt(now.plus(Duration.ofMillis(offsetMillis)))
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.config.OutboxProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.event.TaskEventCoalescer;
+import com.sberfintech.task.event.TaskOutboxRelay;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение доставки событий задач из outbox в Kafka: прежний путь "по одному" (событие за транзакцию,
+ * продьюсер по умолчанию, ожидание каждого подтверждения) и TaskOutboxRelay с TaskEventCoalescer
+ * на продьюсере из application.yml (linger, lz4, пачки с общим ожиданием подтверждений).
+ * Оба прогона разбирают одинаково наполненный outbox, часть событий — серии обновлений одной задачи.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=WARN",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бенчмарк конвейера отправки событий задач")
+@Slf4j
+class TaskEventPipelineBenchmark {
+
+    private static final int EVENTS = 50_000;
+    // каждая пятая задача получает серию обновлений внутри окна схлопывания
+    private static final int BURST_EVERY = 5;
+    private static final int BURST_LENGTH = 4;
+    private static final int SEED_CHUNK = 5_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @Container
+    static final KafkaContainer KAFKA = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.4.0"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", KAFKA::getBootstrapServers);
+    }
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private KafkaTemplate<String, TaskEvent> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private TaskEventCoalescer taskEventCoalescer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("events/sec и p99 до и после")
+    void compareSendPipelines() throws Exception {
+        seed("benchmark-one-by-one");
+        Result before = drainOneByOne(defaultTemplate());
+
+        seed("benchmark-pipeline");
+        Result after = drainWithRelay();
+
+        log.info("one-by-one: %,.0f events/sec, p99 %.2f ms, %,d messages"
+                .formatted(before.eventsPerSecond(), before.p99Millis(), before.messages()));
+        log.info("pipeline:   %,.0f events/sec, p99 %.2f ms, %,d messages"
+                .formatted(after.eventsPerSecond(), after.p99Millis(), after.messages()));
+    }
+
+    /**
+     * Прежняя отправка: одно событие за транзакцию, синхронное ожидание подтверждения, без схлопывания.
+     */
+    private Result drainOneByOne(KafkaTemplate<String, TaskEvent> template) throws Exception {
+        long[] latencies = new long[EVENTS];
+        int[] sent = {0};
+        long started = System.nanoTime();
+        Integer drained;
+        do {
+            drained = transactionTemplate.execute(status -> {
+                List<TaskOutboxEvent> batch = taskOutboxRepository.lockNextBatch(1);
+                for (TaskOutboxEvent outboxEvent : batch) {
+                    long sentAt = System.nanoTime();
+                    try {
+                        template.send(outboxEvent.getTopic(), outboxEvent.getAggregateId().toString(),
+                                objectMapper.readValue(outboxEvent.getPayload(), TaskEvent.class))
+                                .get(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    latencies[sent[0]++] = System.nanoTime() - sentAt;
+                }
+                taskOutboxRepository.deleteAllInBatch(batch);
+                return batch.size();
+            });
+        } while (drained != null && drained > 0);
+        long elapsed = System.nanoTime() - started;
+
+        long[] recorded = Arrays.copyOf(latencies, sent[0]);
+        Arrays.sort(recorded);
+        double p99Millis = recorded[(int) Math.ceil(recorded.length * 0.99) - 1] / 1e6;
+        return new Result(EVENTS / (elapsed / 1e9), p99Millis, sent[0]);
+    }
+
+    /**
+     * Тот же outbox через TaskOutboxRelay: пачки outbox.batch-size, схлопывание TASK_UPDATED и общее ожидание
+     * подтверждений на продьюсере приложения.
+     */
+    private Result drainWithRelay() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskOutboxRelay relay = new TaskOutboxRelay(taskOutboxRepository, kafkaTemplate, objectMapper,
+                outboxProperties, transactionTemplate, taskEventCoalescer, meterRegistry);
+
+        long started = System.nanoTime();
+        while (taskOutboxRepository.count() > 0) {
+            relay.relay();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        assertEquals(0, meterRegistry.get("task.outbox.relay.failures").counter().count());
+        Timer send = meterRegistry.get("task.outbox.relay.send").timer();
+        double p99Millis = Arrays.stream(send.takeSnapshot().percentileValues())
+                .filter(percentile -> percentile.percentile() == 0.99)
+                .mapToDouble(percentile -> percentile.value(TimeUnit.MILLISECONDS))
+                .findFirst()
+                .orElseThrow();
+        long messages = (long) meterRegistry.get("task.outbox.relay.events").counter().count();
+        return new Result(EVENTS / (elapsed / 1e9), p99Millis, messages);
+    }
+
+    /**
+     * Наполняет outbox EVENTS событиями, как их записал бы TaskEventService: у каждой задачи возрастающая version,
+     * у каждой пятой — серия TASK_UPDATED с интервалом в несколько миллисекунд.
+     */
+    private void seed(String topic) throws JsonProcessingException {
+        List<TaskOutboxEvent> events = new ArrayList<>(SEED_CHUNK);
+        LocalDateTime createdAt = LocalDateTime.now();
+        int written = 0;
+        for (int task = 0; written < EVENTS; task++) {
+            UUID taskId = UUID.randomUUID();
+            int length = task % BURST_EVERY == 0 ? BURST_LENGTH : 1;
+            for (int version = 0; version < length && written < EVENTS; version++, written++) {
+                createdAt = createdAt.plusNanos(1_000_000);
+                events.add(outboxEvent(topic, taskId, version, createdAt));
+                if (events.size() == SEED_CHUNK) {
+                    taskOutboxRepository.saveAll(events);
+                    events.clear();
+                }
+            }
+        }
+        taskOutboxRepository.saveAll(events);
+    }
+
+    private TaskOutboxEvent outboxEvent(String topic, UUID taskId, long version, LocalDateTime createdAt)
+            throws JsonProcessingException {
+        TaskEvent event = TaskEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(EventType.TASK_UPDATED)
+                .taskId(taskId)
+                .userId(1L)
+                .description("Task Ремонт кондиционера: TASK_UPDATED")
+                .timestamp(createdAt)
+                .build();
+        return TaskOutboxEvent.builder()
+                .aggregateId(taskId)
+                .aggregateVersion(version)
+                .eventType(EventType.TASK_UPDATED)
+                .topic(topic)
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static KafkaTemplate<String, TaskEvent> defaultTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+    private record Result(double eventsPerSecond, double p99Millis, long messages) {
+    }
+}
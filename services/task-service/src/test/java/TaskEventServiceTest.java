@@ -0,0 +1,75 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.TaskEventsProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.event.TaskEventService;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для TaskEventService")
+class TaskEventServiceTest {
+
+    @Mock
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskEventService taskEventService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskEventService = new TaskEventService(taskOutboxRepository, new TaskEventsProperties(),
+                new ObjectMapper().findAndRegisterModules(), applicationEventPublisher, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Одиночные и пакетные события увеличивают счётчик своего типа на число задач")
+    void send_shouldCountTransitionsPerEventType() {
+        taskEventService.sendTaskCreated(task());
+        taskEventService.sendTaskAssigned(task(), 7L);
+        taskEventService.sendTasksCompleted(List.of(task(), task(), task()), 7L);
+        taskEventService.sendTasksEscalated(List.of(task(), task()), 9L);
+
+        assertEquals(1, transitions(EventType.TASK_CREATED));
+        assertEquals(1, transitions(EventType.TASK_ASSIGNED));
+        assertEquals(3, transitions(EventType.TASK_COMPLETED));
+        assertEquals(2, transitions(EventType.TASK_ESCALATED));
+        assertEquals(0, transitions(EventType.TASK_CANCELED));
+        verify(taskOutboxRepository, times(2)).save(any());
+        verify(taskOutboxRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Пустая пачка не пишет в outbox и не двигает счётчик")
+    void sendEvents_shouldSkipEmptyBatch() {
+        taskEventService.sendTasksCanceled(List.of(), "Дубликат");
+
+        assertEquals(0, transitions(EventType.TASK_CANCELED));
+        verifyNoInteractions(taskOutboxRepository, applicationEventPublisher);
+    }
+
+    private double transitions(EventType eventType) {
+        return meterRegistry.get("task.transitions").tag("event", eventType.name()).counter().count();
+    }
+
+    private static Task task() {
+        return Task.builder().id(UUID.randomUUID()).title("Задача").creatorId(1L).version(0L).build();
+    }
+}
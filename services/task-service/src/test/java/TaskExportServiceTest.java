@@ -0,0 +1,158 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.ExportProperties;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import com.sberfintech.task.service.TaskExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для TaskExportService")
+class TaskExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private TaskQueryRepository taskQueryRepository;
+
+    @Mock
+    private TaskSpecificationBuilder taskSpecificationBuilder;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    private final Specification<Task> filter = (root, query, cb) -> null;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ExportProperties exportProperties;
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        exportProperties = new ExportProperties();
+        exportProperties.setChunkSize(2);
+        exportProperties.setFlushIntervalRows(3);
+        taskExportService = new TaskExportService(taskQueryRepository, taskSpecificationBuilder, taskMapper,
+                objectMapper, exportProperties);
+        lenient().when(taskSpecificationBuilder.createdAfter(any(), any())).thenReturn((root, query, cb) -> null);
+        lenient().when(taskMapper.toResponse(any(TaskDetail.class))).thenAnswer(invocation -> {
+            TaskDetail detail = invocation.getArgument(0);
+            return TaskResponse.builder().id(detail.id()).title(detail.title()).priority(detail.priority()).build();
+        });
+    }
+
+    @Test
+    @DisplayName("Выгрузка пишет по строке JSON на задачу и продолжает каждый чанк после последней строки предыдущего")
+    void exportByStatus_shouldWriteNdjsonAcrossChunks() throws IOException {
+        List<TaskDetail> details = details(5);
+        when(taskSpecificationBuilder.buildSearchSpecification(
+                new TaskSearchCriteria(null, null, TaskStatus.ESCALATED, null, null, null, null))).thenReturn(filter);
+        when(taskQueryRepository.findDetails(any(), eq("createdAt"), eq(2)))
+                .thenReturn(details.subList(0, 2), details.subList(2, 4), details.subList(4, 5));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = taskExportService.exportByStatus(TaskStatus.ESCALATED, out);
+
+        assertEquals(5, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(6, lines.length);
+        assertEquals("", lines[5]);
+        for (int i = 0; i < 5; i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertEquals(details.get(i).id().toString(), line.get("id").asText());
+            assertEquals(details.get(i).title(), line.get("title").asText());
+        }
+        verify(taskQueryRepository).findDetails(filter, "createdAt", 2);
+        InOrder inOrder = inOrder(taskSpecificationBuilder);
+        inOrder.verify(taskSpecificationBuilder).createdAfter(CREATED_AT.plusMinutes(1), details.get(1).id());
+        inOrder.verify(taskSpecificationBuilder).createdAfter(CREATED_AT.plusMinutes(3), details.get(3).id());
+        verify(taskQueryRepository, times(3)).findDetails(any(), eq("createdAt"), eq(2));
+    }
+
+    @Test
+    @DisplayName("Полный последний чанк дочитывается пустым запросом, неполный завершает выгрузку")
+    void exportByProperty_shouldStopOnShortOrEmptyChunk() throws IOException {
+        List<TaskDetail> details = details(2);
+        when(taskSpecificationBuilder.buildSearchSpecification(
+                new TaskSearchCriteria(null, null, null, null, 101L, null, null))).thenReturn(filter);
+        when(taskQueryRepository.findDetails(any(), eq("createdAt"), eq(2))).thenReturn(details, List.of());
+
+        long count = taskExportService.exportByProperty(101L, new ByteArrayOutputStream());
+
+        assertEquals(2, count);
+        verify(taskQueryRepository, times(2)).findDetails(any(), eq("createdAt"), eq(2));
+    }
+
+    @Test
+    @DisplayName("Первая строка сбрасывается клиенту сразу, дальше — каждые flush-interval-rows строк")
+    void exportByStatus_shouldFlushFirstRowAndEveryInterval() throws IOException {
+        exportProperties.setChunkSize(10);
+        List<TaskDetail> details = details(7);
+        when(taskSpecificationBuilder.buildSearchSpecification(any(TaskSearchCriteria.class))).thenReturn(filter);
+        when(taskQueryRepository.findDetails(any(), eq("createdAt"), eq(10))).thenReturn(details);
+        FlushRecordingStream out = new FlushRecordingStream();
+
+        taskExportService.exportByStatus(TaskStatus.NEW, out);
+
+        // строки 1, 3 и 6 сбрасываются по ходу, хвост — при закрытии генератора и в конце выгрузки
+        assertEquals(List.of(1L, 3L, 6L, 7L, 7L), out.linesAtFlush);
+    }
+
+    @Test
+    @DisplayName("Пустая выборка даёт пустой ответ одним запросом")
+    void exportByStatus_shouldWriteNothingForEmptyResult() throws IOException {
+        when(taskSpecificationBuilder.buildSearchSpecification(any(TaskSearchCriteria.class))).thenReturn(filter);
+        when(taskQueryRepository.findDetails(any(), eq("createdAt"), eq(2))).thenReturn(List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = taskExportService.exportByStatus(TaskStatus.CANCELED, out);
+
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+        verify(taskQueryRepository, times(1)).findDetails(any(), any(), anyInt());
+        verify(taskSpecificationBuilder, never()).createdAfter(any(), any());
+    }
+
+    private static List<TaskDetail> details(int count) {
+        List<TaskDetail> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            details.add(new TaskDetail(UUID.randomUUID(), "Задача " + i, null, TaskStatus.ESCALATED,
+                    TaskPriority.HIGH, null, null, null, 1L, null, 101L, null, 0, CREATED_AT.plusMinutes(i)));
+        }
+        return details;
+    }
+
+    private static class FlushRecordingStream extends ByteArrayOutputStream {
+
+        private final List<Long> linesAtFlush = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            linesAtFlush.add(toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.UpdateTaskRequest;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Полнотекстовый поиск задач")
+class TaskFullTextSearchIntegrationTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(70_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    @DisplayName("Русские словоформы находятся по основе, английские слова — по английскому словарю")
+    void search_shouldMatchWordForms() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID leak = createTask(propertyId, "Устранение протечки", "Течёт крыша над третьим подъездом");
+        UUID elevator = createTask(propertyId, "Осмотр лифта", "Elevator inspection before winter");
+
+        assertEquals(List.of(leak), ids(search("протечка", propertyId)));
+        assertEquals(List.of(elevator), ids(search("лифты", propertyId)));
+        assertEquals(List.of(elevator), ids(search("inspections", propertyId)));
+        assertTrue(search("кондиционер", propertyId).getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Совпадение в названии ранжируется выше совпадения в описании")
+    void search_shouldRankTitleAboveDescription() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID inDescription = createTask(propertyId, "Плановый обход", "Проверить вентиляцию в подвале");
+        UUID inTitle = createTask(propertyId, "Вентиляция в подвале", "Плановый обход");
+
+        assertEquals(List.of(inTitle, inDescription), ids(search("вентиляция", propertyId)));
+    }
+
+    @Test
+    @DisplayName("Текстовый запрос сочетается с фильтрами поиска")
+    void search_shouldCombineWithFilters() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID own = createTask(propertyId, "Замена освещения", "Лестничная клетка");
+        createTask(PROPERTIES.incrementAndGet(), "Замена освещения", "Лестничная клетка");
+
+        assertEquals(List.of(own), ids(search("освещение", propertyId)));
+    }
+
+    @Test
+    @DisplayName("Текст индексируется заново после изменения задачи")
+    void search_shouldFollowUpdates() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID id = createTask(propertyId, "Покраска фасада", null);
+
+        taskService.updateTask(id, UpdateTaskRequest.builder()
+                .title("Ремонт двери")
+                .propertyId(propertyId)
+                .build());
+
+        assertTrue(search("фасад", propertyId).getItems().isEmpty());
+        assertEquals(List.of(id), ids(search("дверь", propertyId)));
+    }
+
+    @Test
+    @DisplayName("Страницы по курсору идут в порядке ранга без повторов и пропусков")
+    void search_shouldPageByRank() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID strongest = createTask(propertyId, "Счётчики: проверка счётчиков", "Сверка показаний счётчиков");
+        UUID strong = createTask(propertyId, "Проверка счётчиков", "Сверка показаний");
+        UUID weak = createTask(propertyId, "Сверка показаний", "Заодно проверить счётчики");
+        UUID tie = createTask(propertyId, "Сверка показаний", "Заодно проверить счётчики");
+
+        List<UUID> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TaskResponse> page = page("счётчик", propertyId, cursor);
+            assertTrue(page.getItems().size() <= 1);
+            pages.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Postgres сравнивает uuid побайтно, как строки в нижнем регистре, а не как UUID.compareTo
+        List<UUID> ties = weak.toString().compareTo(tie.toString()) < 0 ? List.of(weak, tie) : List.of(tie, weak);
+        assertEquals(List.of(strongest, strong, ties.get(0), ties.get(1)), pages);
+    }
+
+    @Test
+    @DisplayName("Слишком длинный запрос и чужой курсор отклоняются")
+    void search_shouldRejectInvalidInput() {
+        long propertyId = PROPERTIES.incrementAndGet();
+
+        assertThrows(IllegalArgumentException.class, () -> search("а".repeat(201), propertyId));
+        assertThrows(IllegalArgumentException.class, () -> page("счётчик", propertyId, "bm90LWEtY3Vyc29y"));
+    }
+
+    private CursorPage<TaskResponse> search(String q, long propertyId) {
+        return taskService.searchTasks(q, null, null, null, null, propertyId, null, null,
+                new TaskPageRequest(null, null, null));
+    }
+
+    private CursorPage<TaskResponse> page(String q, long propertyId, String cursor) {
+        return taskService.searchTasks(q, null, null, null, null, propertyId, null, null,
+                new TaskPageRequest(cursor, 1, null));
+    }
+
+    private UUID createTask(long propertyId, String title, String description) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title(title)
+                .description(description)
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .build()).getId();
+    }
+
+    private static List<UUID> ids(CursorPage<TaskResponse> page) {
+        return page.getItems().stream().map(TaskResponse::getId).toList();
+    }
+}
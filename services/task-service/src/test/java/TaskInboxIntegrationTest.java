@@ -0,0 +1,142 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Входящие исполнителя в Redis")
+class TaskInboxIntegrationTest {
+
+    private static final AtomicLong ASSIGNEES = new AtomicLong(10_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void containers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    @DisplayName("Входящие упорядочены по приоритету, затем по сроку")
+    void getInbox_shouldOrderByPriorityThenDueDate() {
+        long assigneeId = ASSIGNEES.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        UUID lowSoon = createTask(TaskPriority.LOW, now.plusHours(1));
+        UUID criticalLate = createTask(TaskPriority.CRITICAL, now.plusDays(2));
+        UUID criticalSoon = createTask(TaskPriority.CRITICAL, now.plusHours(2));
+        UUID highNoDue = createTask(TaskPriority.HIGH, null);
+        List.of(lowSoon, criticalLate, criticalSoon, highNoDue).forEach(id -> taskService.assignTask(id, assigneeId));
+
+        assertEquals(List.of(criticalSoon, criticalLate, highNoDue, lowSoon), ids(taskService.getInbox(assigneeId)));
+    }
+
+    @Test
+    @DisplayName("Назначение, эскалация и завершение обновляют входящие без перестроения")
+    void transitions_shouldUpdateInboxIncrementally() {
+        long assigneeId = ASSIGNEES.incrementAndGet();
+        long escalatedTo = ASSIGNEES.incrementAndGet();
+        assertTrue(taskService.getInbox(assigneeId).isEmpty());
+        assertTrue(taskService.getInbox(escalatedTo).isEmpty());
+
+        UUID kept = createTask(TaskPriority.MEDIUM, null);
+        UUID escalated = createTask(TaskPriority.HIGH, null);
+        taskService.assignTask(kept, assigneeId);
+        taskService.assignTask(escalated, assigneeId);
+        assertEquals(List.of(escalated, kept), ids(taskService.getInbox(assigneeId)));
+
+        taskService.escalateTask(escalated, escalatedTo);
+        assertEquals(List.of(kept), ids(taskService.getInbox(assigneeId)));
+        assertEquals(List.of(escalated), ids(taskService.getInbox(escalatedTo)));
+        assertEquals(1, taskService.getInbox(escalatedTo).get(0).getEscalationLevel());
+
+        taskService.completeTask(kept, assigneeId);
+        taskService.cancelTask(escalated, "Не актуально");
+        assertTrue(taskService.getInbox(assigneeId).isEmpty());
+        assertTrue(taskService.getInbox(escalatedTo).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Перестроение восстанавливает потерянные входящие из БД")
+    void rebuildInbox_shouldRestoreFromDatabase() {
+        long assigneeId = ASSIGNEES.incrementAndGet();
+        UUID taskId = createTask(TaskPriority.HIGH, null);
+        taskService.assignTask(taskId, assigneeId);
+        taskService.getInbox(assigneeId);
+
+        redisTemplate.delete("task:inbox:" + assigneeId + ":cards");
+
+        assertEquals(List.of(taskId), ids(taskService.rebuildInbox(assigneeId)));
+        assertEquals(List.of(taskId), ids(taskService.getInbox(assigneeId)));
+    }
+
+    @Test
+    @DisplayName("Удалённая задача исчезает из входящих")
+    void deleteTask_shouldRemoveFromInbox() {
+        long assigneeId = ASSIGNEES.incrementAndGet();
+        UUID taskId = createTask(TaskPriority.LOW, null);
+        taskService.assignTask(taskId, assigneeId);
+        assertEquals(List.of(taskId), ids(taskService.getInbox(assigneeId)));
+
+        taskService.deleteTask(taskId);
+
+        assertTrue(taskService.getInbox(assigneeId).isEmpty());
+    }
+
+    private UUID createTask(TaskPriority priority, LocalDateTime dueDate) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title("Проверка входящих")
+                .creatorId(1L)
+                .priority(priority)
+                .dueDate(dueDate)
+                .build()).getId();
+    }
+
+    private static List<UUID> ids(List<TaskResponse> inbox) {
+        return inbox.stream().map(TaskResponse::getId).toList();
+    }
+}
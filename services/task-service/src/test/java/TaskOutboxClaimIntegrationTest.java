@@ -0,0 +1,245 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.config.OutboxProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.event.TaskEventCoalescer;
+import com.sberfintech.task.event.TaskOutboxRelay;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskOutboxRepository.PendingVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Разбор outbox несколькими экземплярами")
+class TaskOutboxClaimIntegrationTest {
+
+    private static final String TOPIC = "task-events";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskEventCoalescer taskEventCoalescer;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxRepository.deleteAllInBatch();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    @DisplayName("Второй экземпляр пропускает заблокированные строки и видит их как более ранние события задачи")
+    void lockNextBatch_shouldSkipRowsClaimedByAnotherRelay() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        UUID otherTaskId = UUID.randomUUID();
+        TaskOutboxEvent first = save(taskId, EventType.TASK_CREATED, 0, 0);
+        TaskOutboxEvent second = save(otherTaskId, EventType.TASK_CREATED, 0, 10);
+        TaskOutboxEvent third = save(taskId, EventType.TASK_ASSIGNED, 1, 20);
+        TaskOutboxEvent fourth = save(otherTaskId, EventType.TASK_ASSIGNED, 1, 30);
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> holder = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<Long> ids = ids(taskOutboxRepository.lockNextBatch(2));
+                    claimed.countDown();
+                    await(release);
+                    return ids;
+                }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<TaskOutboxEvent> batch = taskOutboxRepository.lockNextBatch(2);
+                assertEquals(List.of(third.getId(), fourth.getId()), ids(batch));
+
+                Map<UUID, Long> pending = taskOutboxRepository.findPendingVersions(
+                                Set.of(taskId, otherTaskId), ids(batch)).stream()
+                        .collect(Collectors.toMap(PendingVersion::getAggregateId, PendingVersion::getAggregateVersion));
+                assertEquals(Map.of(taskId, 0L, otherTaskId, 0L), pending);
+            });
+        } finally {
+            release.countDown();
+        }
+        assertEquals(List.of(first.getId(), second.getId()), holder.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Пока раннее событие задачи у другого экземпляра, поздние ждут; затем уходят по порядку version")
+    void relay_shouldPublishTaskEventsInVersionOrderAcrossRelays() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        UUID otherTaskId = UUID.randomUUID();
+        TaskOutboxEvent created = save(taskId, EventType.TASK_CREATED, 0, 0);
+        TaskOutboxEvent assigned = save(taskId, EventType.TASK_ASSIGNED, 1, 10);
+        TaskOutboxEvent completed = save(taskId, EventType.TASK_COMPLETED, 2, 20);
+        TaskOutboxEvent other = save(otherTaskId, EventType.TASK_CREATED, 0, 30);
+        KafkaTemplate<String, TaskEvent> kafkaTemplate = acknowledgingKafka();
+        TaskOutboxRelay relay = relay(kafkaTemplate);
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    taskOutboxRepository.lockNextBatch(1);
+                    claimed.countDown();
+                    await(release);
+                    status.setRollbackOnly();
+                }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+        try {
+            relay.relay();
+        } finally {
+            release.countDown();
+        }
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(other.getAggregateId()), sentTaskIds(kafkaTemplate));
+        assertEquals(List.of(created.getId(), assigned.getId(), completed.getId()),
+                ids(taskOutboxRepository.findAll().stream()
+                        .sorted((a, b) -> Long.compare(a.getAggregateVersion(), b.getAggregateVersion()))
+                        .toList()));
+
+        relay.relay();
+
+        ArgumentCaptor<TaskEvent> sent = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(kafkaTemplate, times(4)).send(eq(TOPIC), anyString(), sent.capture());
+        assertEquals(List.of(EventType.TASK_CREATED, EventType.TASK_ASSIGNED, EventType.TASK_COMPLETED),
+                sent.getAllValues().stream()
+                        .filter(event -> event.getTaskId().equals(taskId))
+                        .map(TaskEvent::getEventType)
+                        .toList());
+        assertEquals(0, taskOutboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Откат пачки после ошибки брокера оставляет события в outbox, следующий проход их отправляет")
+    void relay_shouldRetryRolledBackBatch() throws Exception {
+        save(UUID.randomUUID(), EventType.TASK_CREATED, 0, 0);
+        save(UUID.randomUUID(), EventType.TASK_CREATED, 0, 10);
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, TaskEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker is down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        TaskOutboxRelay relay = relay(kafkaTemplate);
+
+        relay.relay();
+        assertEquals(2, taskOutboxRepository.count());
+        assertTrue(taskOutboxRepository.findOldestCreatedAt().isPresent());
+
+        relay.relay();
+        assertEquals(0, taskOutboxRepository.count());
+        assertTrue(taskOutboxRepository.findOldestCreatedAt().isEmpty());
+    }
+
+    private TaskOutboxRelay relay(KafkaTemplate<String, TaskEvent> kafkaTemplate) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(10);
+        return new TaskOutboxRelay(taskOutboxRepository, kafkaTemplate, objectMapper, properties,
+                transactionTemplate, taskEventCoalescer, new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaTemplate<String, TaskEvent> acknowledgingKafka() {
+        KafkaTemplate<String, TaskEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(null));
+        return kafkaTemplate;
+    }
+
+    private static List<UUID> sentTaskIds(KafkaTemplate<String, TaskEvent> kafkaTemplate) {
+        ArgumentCaptor<TaskEvent> sent = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(kafkaTemplate, atLeast(0)).send(eq(TOPIC), anyString(), sent.capture());
+        return sent.getAllValues().stream().map(TaskEvent::getTaskId).toList();
+    }
+
+    private TaskOutboxEvent save(UUID taskId, EventType eventType, long version, long offsetMillis)
+            throws JsonProcessingException {
+        TaskEvent event = TaskEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .taskId(taskId)
+                .timestamp(now)
+                .build();
+        return taskOutboxRepository.save(TaskOutboxEvent.builder()
+                .aggregateId(taskId)
+                .aggregateVersion(version)
+                .eventType(eventType)
+                .topic(TOPIC)
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(now.plusNanos(offsetMillis * 1_000_000))
+                .build());
+    }
+
+    private static List<Long> ids(List<TaskOutboxEvent> events) {
+        return events.stream().map(TaskOutboxEvent::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
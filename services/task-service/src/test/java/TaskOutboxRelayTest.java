@@ -0,0 +1,209 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.config.OutboxProperties;
+import com.sberfintech.task.config.TaskEventsProperties;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.dto.TaskEvent;
+import com.sberfintech.task.event.TaskEventCoalescer;
+import com.sberfintech.task.event.TaskOutboxRelay;
+import com.sberfintech.task.model.TaskOutboxEvent;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskOutboxRepository.PendingVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для TaskOutboxRelay")
+class TaskOutboxRelayTest {
+
+    private static final String TOPIC = "task-events";
+
+    @Mock
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, TaskEvent> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private TaskOutboxRelay relay;
+    private LocalDateTime now;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(3);
+        outboxProperties.setSendTimeout(Duration.ofSeconds(1));
+        TaskEventsProperties eventsProperties = new TaskEventsProperties();
+        eventsProperties.setCoalesceWindow(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new TaskOutboxRelay(taskOutboxRepository, kafkaTemplate, objectMapper, outboxProperties,
+                transactionTemplate, new TaskEventCoalescer(eventsProperties), meterRegistry);
+        now = LocalDateTime.now();
+        nextId = 1;
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        lenient().when(taskOutboxRepository.findPendingVersions(any(), any())).thenReturn(List.of());
+        lenient().when(taskOutboxRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("События одной задачи уходят по возрастанию version, даже если id и created_at идут иначе")
+    void relay_shouldSendEventsOfTaskInVersionOrder() throws JsonProcessingException {
+        UUID taskId = UUID.randomUUID();
+        UUID otherTaskId = UUID.randomUUID();
+        // события записаны разными экземплярами: блок id и часы второго экземпляра отстают
+        TaskOutboxEvent assigned = event(taskId, EventType.TASK_ASSIGNED, 2, 0);
+        TaskOutboxEvent other = event(otherTaskId, EventType.TASK_CREATED, 0, 1);
+        TaskOutboxEvent created = event(taskId, EventType.TASK_CREATED, 0, 2);
+        List<TaskOutboxEvent> batch = List.of(assigned, other, created);
+        when(taskOutboxRepository.lockNextBatch(3)).thenReturn(batch, List.of());
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        ArgumentCaptor<TaskEvent> sent = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(kafkaTemplate, times(3)).send(eq(TOPIC), anyString(), sent.capture());
+        assertEquals(List.of(EventType.TASK_CREATED, EventType.TASK_ASSIGNED), sent.getAllValues().stream()
+                .filter(event -> event.getTaskId().equals(taskId))
+                .map(TaskEvent::getEventType)
+                .toList());
+        verify(taskOutboxRepository).deleteAllInBatch(List.of(other, created, assigned));
+        verify(taskOutboxRepository, times(2)).lockNextBatch(3);
+        assertEquals(3, meterRegistry.get("task.outbox.relay.events").counter().count());
+    }
+
+    @Test
+    @DisplayName("Событие остаётся в outbox, пока более раннее событие той же задачи не отправлено")
+    void relay_shouldDeferEventsBehindPendingEarlierVersion() throws JsonProcessingException {
+        UUID blockedTaskId = UUID.randomUUID();
+        UUID freeTaskId = UUID.randomUUID();
+        TaskOutboxEvent blocked = event(blockedTaskId, EventType.TASK_COMPLETED, 3, 0);
+        TaskOutboxEvent blockedLater = event(blockedTaskId, EventType.TASK_UPDATED, 4, 1);
+        TaskOutboxEvent free = event(freeTaskId, EventType.TASK_CREATED, 0, 2);
+        when(taskOutboxRepository.lockNextBatch(3)).thenReturn(List.of(blocked, blockedLater, free));
+        when(taskOutboxRepository.findPendingVersions(any(), any()))
+                .thenReturn(List.of(pending(blockedTaskId, 2)));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        verify(kafkaTemplate, times(1)).send(eq(TOPIC), eq(freeTaskId.toString()), any(TaskEvent.class));
+        verify(kafkaTemplate, never()).send(eq(TOPIC), eq(blockedTaskId.toString()), any(TaskEvent.class));
+        verify(taskOutboxRepository).deleteAllInBatch(List.of(free));
+        // пачка была полной, но отложенные события не забираются повторно в том же проходе
+        verify(taskOutboxRepository, times(1)).lockNextBatch(3);
+        assertEquals(2, meterRegistry.get("task.outbox.relay.deferred").counter().count());
+    }
+
+    @Test
+    @DisplayName("Без подтверждения брокера пачка не удаляется и отправляется повторно в следующем проходе")
+    void relay_shouldKeepBatchWhenBrokerFailsAndRetry() throws JsonProcessingException {
+        TaskOutboxEvent created = event(UUID.randomUUID(), EventType.TASK_CREATED, 0, 0);
+        when(taskOutboxRepository.lockNextBatch(3)).thenReturn(List.of(created));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker is down")))
+                .thenReturn(acknowledged());
+
+        relay.relay();
+
+        verify(taskOutboxRepository, never()).deleteAllInBatch(any());
+        assertEquals(1, meterRegistry.get("task.outbox.relay.failures").counter().count());
+        assertEquals(1, meterRegistry.get("task.outbox.relay.send.failures").counter().count());
+
+        relay.relay();
+
+        verify(kafkaTemplate, times(2)).send(eq(TOPIC), anyString(), any(TaskEvent.class));
+        verify(taskOutboxRepository).deleteAllInBatch(List.of(created));
+        assertEquals(1, meterRegistry.get("task.outbox.relay.events").counter().count());
+    }
+
+    @Test
+    @DisplayName("Битое событие удаляется, не блокируя остальные")
+    void relay_shouldDropCorruptedEvent() throws JsonProcessingException {
+        TaskOutboxEvent corrupted = event(UUID.randomUUID(), EventType.TASK_CREATED, 0, 0);
+        corrupted.setPayload("{not json");
+        TaskOutboxEvent valid = event(UUID.randomUUID(), EventType.TASK_CREATED, 0, 1);
+        when(taskOutboxRepository.lockNextBatch(3)).thenReturn(List.of(corrupted, valid));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any(TaskEvent.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        verify(kafkaTemplate, times(1)).send(eq(TOPIC), anyString(), any(TaskEvent.class));
+        verify(taskOutboxRepository).deleteAllInBatch(List.of(corrupted, valid));
+    }
+
+    @Test
+    @DisplayName("Лаг — возраст самого старого неотправленного события")
+    void relay_shouldReportLagOfOldestPendingEvent() {
+        when(taskOutboxRepository.lockNextBatch(3)).thenReturn(List.of());
+        when(taskOutboxRepository.findOldestCreatedAt()).thenReturn(Optional.of(LocalDateTime.now().minusSeconds(5)));
+
+        relay.relay();
+
+        double lagMillis = meterRegistry.get("task.outbox.relay.lag").timeGauge().value(TimeUnit.MILLISECONDS);
+        assertTrue(lagMillis >= 5_000 && lagMillis < 60_000, String.valueOf(lagMillis));
+    }
+
+    private TaskOutboxEvent event(UUID taskId, EventType eventType, long version, long offsetMillis)
+            throws JsonProcessingException {
+        TaskEvent event = TaskEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .taskId(taskId)
+                .build();
+        return TaskOutboxEvent.builder()
+                .id(nextId++)
+                .aggregateId(taskId)
+                .aggregateVersion(version)
+                .eventType(eventType)
+                .topic(TOPIC)
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(now.plus(Duration.ofMillis(offsetMillis)))
+                .build();
+    }
+
+    private static CompletableFuture<SendResult<String, TaskEvent>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static PendingVersion pending(UUID aggregateId, long version) {
+        return new PendingVersion() {
+            @Override
+            public UUID getAggregateId() {
+                return aggregateId;
+            }
+
+            @Override
+            public long getAggregateVersion() {
+                return version;
+            }
+        };
+    }
+}
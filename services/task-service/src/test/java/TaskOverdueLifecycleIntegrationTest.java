@@ -0,0 +1,125 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Переходы просроченной задачи")
+class TaskOverdueLifecycleIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskJdbcRepository taskJdbcRepository;
+
+    @Test
+    @DisplayName("Просроченную задачу назначают и берут в работу, перенос срока возвращает её в работу")
+    void overdueTask_shouldBeAssignedStartedAndRestored() {
+        UUID id = saveFlagged(null);
+        assertEquals(TaskStatus.NEW, reload(id).getStatusBeforeOverdue());
+
+        taskService.assignTask(id, 7L);
+        Task assigned = reload(id);
+        assertEquals(TaskStatus.OVERDUE, assigned.getStatus());
+        assertEquals(TaskStatus.ASSIGNED, assigned.getStatusBeforeOverdue());
+        assertEquals(7L, assigned.getAssigneeId());
+
+        taskService.startTask(id, 7L);
+        assertEquals(TaskStatus.IN_PROGRESS, reload(id).getStatusBeforeOverdue());
+        assertThrows(IllegalStateException.class, () -> taskService.startTask(id, 7L));
+
+        taskService.updateDueDate(id, LocalDateTime.now().plusDays(1));
+        Task restored = reload(id);
+        assertEquals(TaskStatus.IN_PROGRESS, restored.getStatus());
+        assertNull(restored.getStatusBeforeOverdue());
+    }
+
+    @Test
+    @DisplayName("Срок, перенесённый в пределах прошлого, оставляет задачу просроченной")
+    void overdueTask_shouldStayOverdueWhileDueDateIsPast() {
+        UUID id = saveFlagged(7L);
+
+        taskService.updateDueDate(id, LocalDateTime.now().minusMinutes(1));
+
+        Task stored = reload(id);
+        assertEquals(TaskStatus.OVERDUE, stored.getStatus());
+        assertEquals(TaskStatus.ASSIGNED, stored.getStatusBeforeOverdue());
+    }
+
+    @Test
+    @DisplayName("Просроченная задача без сохранённого статуса возвращается по исполнителю")
+    void overdueTask_shouldFallBackToAssigneeWhenPreviousStatusIsUnknown() {
+        UUID id = taskRepository.saveAndFlush(Task.builder()
+                .title("Просроченная задача")
+                .creatorId(1L)
+                .assigneeId(7L)
+                .status(TaskStatus.OVERDUE)
+                .dueDate(LocalDateTime.now().minusHours(1))
+                .build()).getId();
+
+        taskService.updateDueDate(id, null);
+
+        assertEquals(TaskStatus.ASSIGNED, reload(id).getStatus());
+    }
+
+    private UUID saveFlagged(Long assigneeId) {
+        UUID id = taskRepository.saveAndFlush(Task.builder()
+                .title("Просроченная задача")
+                .creatorId(1L)
+                .assigneeId(assigneeId)
+                .status(assigneeId == null ? TaskStatus.NEW : TaskStatus.ASSIGNED)
+                .dueDate(LocalDateTime.now().minusHours(1))
+                .build()).getId();
+        assertEquals(1, taskJdbcRepository.markOverdue(List.of(id), TaskValidator.OVERDUE_TRACKED_STATUSES,
+                LocalDateTime.now()).size());
+        return id;
+    }
+
+    private Task reload(UUID id) {
+        return taskRepository.findById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,467 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskCursor;
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskFacetRepository;
+import com.sberfintech.task.repository.TaskJdbcRepository;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы всех запросов TaskRepository, проекций TaskQueryRepository, фасетов и типовых комбинаций поиска на наборе
+ * в миллионы задач. Запрос выполняется через репозиторий, его SQL и параметры перехватываются на уровне JDBC
+ * и повторяются под EXPLAIN (ANALYZE, BUFFERS). Падает, если tasks читается последовательно или запрос
+ * выходит за бюджет буферов и времени. Планы пишутся в target/query-plans.
+ * Запуск: mvn test -Pplan [-Dplan.rows=5000000 -Dplan.max-millis=200]
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "task.stats.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import(TaskQueryPlanTest.CaptureConfiguration.class)
+@Tag("plan")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Планы запросов к задачам на большом наборе")
+@Slf4j
+class TaskQueryPlanTest {
+
+    private static final long ROWS = Long.getLong("plan.rows", 2_000_000);
+    private static final double MAX_MILLIS = Long.getLong("plan.max-millis", 200);
+    private static final Path REPORT_DIR = Path.of(System.getProperty("plan.report-dir", "target/query-plans"));
+
+    private static final TaskDatasetGenerator.Options DATASET = TaskDatasetGenerator.Options.defaults(ROWS);
+    private static final LocalDateTime NOW = DATASET.now();
+
+    // хвост распределения Ципфа: у таких исполнителя и объекта десятки задач, у первых — сотни тысяч
+    private static final long TAIL_ASSIGNEE = 2_500;
+    private static final long TAIL_PROPERTY = 5_000;
+    // авторы распределены равномерно: около 0,5% таблицы на каждого
+    private static final long CREATOR = 17;
+    private static final int PAGE = 50;
+    private static final int EXPORT_CHUNK = 1_000;
+
+    private static final String STATS_REBUILD =
+            "пересчёт счётчиков открытых задач — фоновый полный проход раз в несколько минут";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withCommand("postgres", "-c", "fsync=off");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskQueryRepository taskQueryRepository;
+
+    @Autowired
+    private TaskFacetRepository taskFacetRepository;
+
+    @Autowired
+    private TaskJdbcRepository taskJdbcRepository;
+
+    @Autowired
+    private TaskSpecificationBuilder taskSpecificationBuilder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            TaskDatasetGenerator.migrate(connection);
+            TaskDatasetGenerator.generate(connection, DATASET);
+            // установившийся режим: всё, что просрочено больше часа, планировщик уже перевёл в OVERDUE
+            try (PreparedStatement sweep = connection.prepareStatement("""
+                    UPDATE tasks SET status = 'OVERDUE'
+                    WHERE status IN ('NEW', 'ASSIGNED', 'IN_PROGRESS') AND due_date < ?
+                    """)) {
+                sweep.setObject(1, NOW.minusHours(1));
+                sweep.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE tasks");
+            }
+        }
+        Files.createDirectories(REPORT_DIR);
+    }
+
+    @TestFactory
+    @DisplayName("Запросы не читают tasks последовательно и укладываются в бюджет")
+    Stream<DynamicTest> queryPlans() {
+        UUID sampleId = jdbcTemplate.queryForObject(
+                "SELECT id FROM tasks WHERE property_id = ? LIMIT 1", UUID.class, TAIL_PROPERTY);
+        return cases(sampleId).stream().map(planCase -> DynamicTest.dynamicTest(planCase.name(), () -> check(planCase)));
+    }
+
+    private List<PlanCase> cases(UUID sampleId) {
+        return List.of(
+                indexed("findById", 20, () -> taskRepository.findById(sampleId)),
+                indexed("findTaskByCreationDateRange", 10_000,
+                        () -> taskRepository.findTaskByCreationDateRange(NOW.minusDays(1), NOW)),
+                indexed("export: property chunk", 500, () -> taskQueryRepository.findDetails(
+                        searchByProperty(TAIL_PROPERTY, null), "createdAt", EXPORT_CHUNK)),
+                indexed("export: status chunk", 1_500, () -> taskQueryRepository.findDetails(
+                        search(null, null, "ESCALATED", null, null, null), "createdAt", EXPORT_CHUNK)),
+                indexed("export: status next chunk", 1_500, () -> taskQueryRepository.findDetails(
+                        search(null, null, "ESCALATED", null, null, null)
+                                .and(taskSpecificationBuilder.createdAfter(NOW.minusDays(180), new UUID(0, 0))),
+                        "createdAt", EXPORT_CHUNK)),
+
+                indexed("search: assignee", 1_000,
+                        () -> taskRepository.findAll(search(TAIL_ASSIGNEE, null, null, null, null, null))),
+                indexed("search: assignee + status", 1_000,
+                        () -> taskRepository.findAll(search(TAIL_ASSIGNEE, null, "IN_PROGRESS", null, null, null))),
+                indexed("search: creator + createdAfter", 15_000,
+                        () -> taskRepository.findAll(search(null, CREATOR, null, null, NOW.minusDays(7), null))),
+                indexed("search: property + priority", 500,
+                        () -> taskRepository.findAll(searchByProperty(TAIL_PROPERTY, "HIGH"))),
+                indexed("search: status + priority", 10_000,
+                        () -> taskRepository.findAll(search(null, null, "ESCALATED", "CRITICAL", null, null))),
+                indexed("search: created range", 10_000,
+                        () -> taskRepository.findAll(search(null, null, null, null, NOW.minusDays(1), NOW))),
+
+                indexed("findDetail", 20, () -> taskQueryRepository.findDetail(sampleId)),
+                indexed("page: all by createdAt", 200, () -> taskQueryRepository.findDetails(null, "createdAt", PAGE)),
+                indexed("page: status by createdAt", 200, () -> taskQueryRepository.findDetails(
+                        search(null, null, "ESCALATED", null, null, null), "createdAt", PAGE)),
+                indexed("page: priority by createdAt", 5_000, () -> taskQueryRepository.findDetails(
+                        search(null, null, null, "CRITICAL", null, null), "createdAt", PAGE)),
+                indexed("page: all by dueDate", 200, () -> taskQueryRepository.findDetails(null, "dueDate", PAGE)),
+                indexed("page: overdue by dueDate", 200, () -> taskQueryRepository.findDetails(
+                        taskSpecificationBuilder.overdue(NOW), "dueDate", PAGE)),
+                // страница N: курсор посередине набора, граница field >= value ограничивает сканирование индекса
+                indexed("page N: all by createdAt", 200, () -> taskQueryRepository.findDetails(
+                        after(TaskSortField.CREATED_AT, NOW.minusDays(90)), "createdAt", PAGE)),
+                indexed("page N: status by createdAt", 200, () -> taskQueryRepository.findDetails(
+                        search(null, null, "ESCALATED", null, null, null)
+                                .and(after(TaskSortField.CREATED_AT, NOW.minusDays(90))), "createdAt", PAGE)),
+                indexed("page N: all by dueDate", 200, () -> taskQueryRepository.findDetails(
+                        after(TaskSortField.DUE_DATE, NOW), "dueDate", PAGE)),
+                indexed("page N: overdue by dueDate", 200, () -> taskQueryRepository.findDetails(
+                        taskSpecificationBuilder.overdue(NOW)
+                                .and(after(TaskSortField.DUE_DATE, NOW.minusDays(7))), "dueDate", PAGE)),
+                indexed("page N: dueDate null tail", 200, () -> taskQueryRepository.findDetails(
+                        taskSpecificationBuilder.nullTail(TaskSortField.DUE_DATE), "dueDate", PAGE)),
+                indexed("page N: dueDate null tail by cursor", 200, () -> taskQueryRepository.findDetails(
+                        taskSpecificationBuilder.after(new TaskCursor(TaskSortField.DUE_DATE, null, new UUID(0, 0))),
+                        "dueDate", PAGE)),
+                indexed("summaries: assignee by createdAt", 1_000, () -> taskQueryRepository.findSummaries(
+                        search(TAIL_ASSIGNEE, null, null, null, null, null), "createdAt", PAGE)),
+
+                // номер объекта есть только в описаниях его задач: редкий терм, ранжируется малое число строк
+                indexed("text: rare term", 1_000, () -> taskQueryRepository.findRankedDetails(
+                        String.valueOf(TAIL_PROPERTY), null, PAGE)),
+                indexed("text: common term + property", 1_000, () -> taskQueryRepository.findRankedDetails(
+                        "лифт", searchByProperty(TAIL_PROPERTY, null), PAGE)),
+
+                indexed("facets: property", 500, () -> taskFacetRepository.count(
+                        new TaskSearchCriteria(null, null, null, null, TAIL_PROPERTY, null, null), null, false)),
+                indexed("facets: creator", 15_000, () -> taskFacetRepository.count(
+                        new TaskSearchCriteria(null, CREATOR, null, null, null, null, null), null, false)),
+                // без фильтра точный подсчёт — полный проход; приблизительный читает sample-percent страниц
+                indexed("facets: all, approximate", 2_000, () -> taskFacetRepository.count(
+                        new TaskSearchCriteria(null, null, null, null, null, null, null), null, true)),
+
+                scan("stats: rebuild", STATS_REBUILD,
+                        () -> taskJdbcRepository.countOpen(TaskValidator.OPEN_STATUSES))
+        );
+    }
+
+    private void check(PlanCase planCase) throws Exception {
+        CapturedQuery query = capture(planCase);
+        explain(query);
+        // второй прогон на прогретом кэше: время не должно зависеть от порядка случаев
+        JsonNode result = explain(query);
+        JsonNode plan = result.get("Plan");
+        long buffers = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+        double millis = result.path("Execution Time").asDouble();
+        List<String> seqScans = seqScans(plan, new ArrayList<>());
+
+        Files.writeString(REPORT_DIR.resolve(planCase.name().replaceAll("[^A-Za-z0-9]+", "-") + ".json"),
+                query.sql() + "\n\n" + result.toPrettyString());
+        log.info("%-36s %9.1f ms %9d buffers  %s".formatted(planCase.name(), millis, buffers,
+                seqScans.isEmpty() ? "" : "seq scan " + seqScans));
+
+        if (planCase.seqScanReason() != null) {
+            return;
+        }
+        assertTrue(seqScans.isEmpty(), () -> planCase.name() + " reads " + seqScans + " sequentially\n"
+                + query.sql() + "\n" + plan.toPrettyString());
+        assertTrue(buffers <= planCase.maxBuffers(), () -> String.format("%s touched %d buffers, budget is %d%n%s",
+                planCase.name(), buffers, planCase.maxBuffers(), plan.toPrettyString()));
+        assertTrue(millis <= MAX_MILLIS, () -> String.format("%s took %.1f ms, budget is %.0f ms%n%s",
+                planCase.name(), millis, MAX_MILLIS, plan.toPrettyString()));
+    }
+
+    /**
+     * Выполняет запрос случая через репозиторий в read-only транзакции и возвращает последний
+     * подготовленный им оператор вместе с параметрами.
+     */
+    private CapturedQuery capture(PlanCase planCase) {
+        List<CapturedQuery> captured = new ArrayList<>();
+        CapturingDataSource.CAPTURED.set(captured);
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.execute(status -> {
+                Object result = planCase.query().get();
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        return stream.count();
+                    }
+                }
+                return result;
+            });
+        } finally {
+            CapturingDataSource.CAPTURED.remove();
+        }
+        assertFalse(captured.isEmpty(), () -> planCase.name() + " did not reach the database");
+        return captured.get(captured.size() - 1);
+    }
+
+    private JsonNode explain(CapturedQuery query) {
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query.sql())) {
+                for (Bind bind : query.binds()) {
+                    bind.replay(statement);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return objectMapper.readTree(rs.getString(1)).get(0);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Unreadable plan for " + query.sql(), e);
+                }
+            }
+        });
+    }
+
+    private static List<String> seqScans(JsonNode plan, List<String> found) {
+        if (plan.path("Node Type").asText().endsWith("Seq Scan")) {
+            found.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            seqScans(child, found);
+        }
+        return found;
+    }
+
+    private Specification<Task> search(Long assigneeId, Long creatorId, String status, String priority,
+                                       LocalDateTime createdAfter, LocalDateTime createdBefore) {
+        return taskSpecificationBuilder.buildSearchSpecification(assigneeId, creatorId, status, priority, null,
+                createdAfter, createdBefore);
+    }
+
+    private Specification<Task> after(TaskSortField sortField, LocalDateTime value) {
+        return taskSpecificationBuilder.after(new TaskCursor(sortField, value, new UUID(0, 0)));
+    }
+
+    private Specification<Task> searchByProperty(Long propertyId, String priority) {
+        return taskSpecificationBuilder.buildSearchSpecification(null, null, null, priority, propertyId, null, null);
+    }
+
+    private static PlanCase indexed(String name, long maxBuffers, Supplier<?> query) {
+        return new PlanCase(name, query, maxBuffers, null);
+    }
+
+    /**
+     * Случай, для которого последовательное чтение — правильный план; он выполняется и попадает в отчёт,
+     * но бюджеты к нему не применяются.
+     */
+    private static PlanCase scan(String name, String reason, Supplier<?> query) {
+        return new PlanCase(name, query, Long.MAX_VALUE, reason);
+    }
+
+    private record PlanCase(String name, Supplier<?> query, long maxBuffers, String seqScanReason) {
+    }
+
+    private record CapturedQuery(String sql, List<Bind> binds) {
+    }
+
+    private record Bind(Method setter, Object[] args) {
+
+        void replay(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                if (e.getTargetException() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IllegalStateException(e.getTargetException());
+            }
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            ? new CapturingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Пока в потоке открыт перехват, запоминает SQL каждого подготовленного оператора и вызовы set*
+     * с номером параметра, чтобы повторить их на EXPLAIN.
+     */
+    static final class CapturingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+        CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return capturing(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return capturing(super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+
+        private static Connection capturing(Connection connection) {
+            List<CapturedQuery> captured = CAPTURED.get();
+            if (captured == null) {
+                return connection;
+            }
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if ("prepareStatement".equals(method.getName())) {
+                    CapturedQuery query = new CapturedQuery((String) args[0], new ArrayList<>());
+                    captured.add(query);
+                    return recordingBinds((PreparedStatement) result, query);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recordingBinds(PreparedStatement statement, CapturedQuery query) {
+            return proxy(PreparedStatement.class, statement, (method, args) -> {
+                // параметры — set*(индекс, значение, ...); setFetchSize и прочие настройки с одним аргументом
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    query.binds().add(new Bind(method, args.clone()));
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                try {
+                    return invocation.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+        }
+
+        @FunctionalInterface
+        private interface Invocation {
+
+            Object invoke(Method method, Object[] args) throws Exception;
+        }
+    }
+}
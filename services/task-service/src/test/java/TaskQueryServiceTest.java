@@ -0,0 +1,104 @@
+import com.sberfintech.task.config.PaginationProperties;
+import com.sberfintech.task.domain.TaskCursor;
+import com.sberfintech.task.domain.TaskQueryService;
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskFacetRepository;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-тесты для TaskQueryService")
+class TaskQueryServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    @Mock
+    private TaskQueryRepository taskQueryRepository;
+
+    @Mock
+    private TaskFacetRepository taskFacetRepository;
+
+    private TaskSpecificationBuilder taskSpecificationBuilder;
+    private TaskQueryService taskQueryService;
+
+    @BeforeEach
+    void setUp() {
+        taskSpecificationBuilder = spy(new TaskSpecificationBuilder());
+        taskQueryService = new TaskQueryService(taskQueryRepository, taskFacetRepository, taskSpecificationBuilder,
+                new PaginationProperties());
+    }
+
+    @Test
+    @DisplayName("Когда заполненные сроки кончаются, страница дочитывает задачи без срока отдельным запросом")
+    void findDetailPage_shouldAppendNullTailAfterLastDueDate() {
+        List<TaskDetail> dated = details(2, NOW);
+        List<TaskDetail> undated = details(2, null);
+        when(taskQueryRepository.findDetails(any(), eq("dueDate"), eq(4))).thenReturn(dated);
+        when(taskQueryRepository.findDetails(any(), eq("dueDate"), eq(2))).thenReturn(undated);
+
+        CursorPage<TaskDetail> page = taskQueryService.findDetailPage(null, pageAfter(TaskSortField.DUE_DATE, NOW));
+
+        assertEquals(3, page.getItems().size());
+        assertEquals(List.of(dated.get(0), dated.get(1), undated.get(0)), page.getItems());
+        assertTrue(page.isHasNext());
+        TaskCursor next = TaskCursor.decode(page.getNextCursor(), TaskSortField.DUE_DATE);
+        assertNull(next.value());
+        assertEquals(undated.get(0).id(), next.id());
+        verify(taskSpecificationBuilder, times(1)).nullTail(TaskSortField.DUE_DATE);
+    }
+
+    @Test
+    @DisplayName("Полная страница заполненных сроков обходится одним запросом")
+    void findDetailPage_shouldSkipNullTailWhenPageIsFull() {
+        when(taskQueryRepository.findDetails(any(), eq("dueDate"), eq(4))).thenReturn(details(4, NOW));
+
+        CursorPage<TaskDetail> page = taskQueryService.findDetailPage(null, pageAfter(TaskSortField.DUE_DATE, NOW));
+
+        assertEquals(3, page.getItems().size());
+        assertTrue(page.isHasNext());
+        verify(taskQueryRepository, times(1)).findDetails(any(), any(), anyInt());
+        verify(taskSpecificationBuilder, never()).nullTail(any());
+    }
+
+    @Test
+    @DisplayName("Курсор в хвосте без срока и сортировка по дате создания не дают второго запроса")
+    void findDetailPage_shouldNotSplitNullCursorOrNonNullableField() {
+        when(taskQueryRepository.findDetails(any(), any(), eq(4))).thenReturn(details(1, null));
+
+        taskQueryService.findDetailPage(null, pageAfter(TaskSortField.DUE_DATE, null));
+        taskQueryService.findDetailPage(null, pageAfter(TaskSortField.CREATED_AT, NOW));
+
+        verify(taskQueryRepository, times(2)).findDetails(any(), any(), anyInt());
+        verify(taskSpecificationBuilder, never()).nullTail(any());
+    }
+
+    private static TaskPageRequest pageAfter(TaskSortField sortField, LocalDateTime value) {
+        return new TaskPageRequest(new TaskCursor(sortField, value, new UUID(0, 0)).encode(), 3, sortField);
+    }
+
+    private static List<TaskDetail> details(int count, LocalDateTime dueDate) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new TaskDetail(UUID.randomUUID(), "Задача " + i, null, TaskStatus.NEW,
+                        TaskPriority.MEDIUM, NOW, dueDate, null, 1L, null, 101L, null, 0, NOW.plusMinutes(i)))
+                .toList();
+    }
+}
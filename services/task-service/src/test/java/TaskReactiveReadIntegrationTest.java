@@ -0,0 +1,137 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.domain.exception.TaskNotFoundException;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.service.TaskReactiveService;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "task.reactive.fetch-size=2",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Реактивное чтение задач через R2DBC")
+class TaskReactiveReadIntegrationTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(50_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskReactiveService taskReactiveService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    @DisplayName("Задача по ID совпадает с ответом блокирующего API")
+    void getTaskById_shouldMatchBlockingApi() {
+        UUID id = createTask(PROPERTIES.incrementAndGet(), TaskPriority.HIGH, null);
+
+        TaskResponse reactive = taskReactiveService.getTaskById(id).block();
+
+        assertEquals(taskService.getTaskById(id), reactive);
+        assertThrows(TaskNotFoundException.class, () -> taskReactiveService.getTaskById(UUID.randomUUID()).block());
+    }
+
+    @Test
+    @DisplayName("Поиск применяет фильтры и сортировку, выборка читается порциями")
+    void searchTasks_shouldFilterAndSort() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        UUID late = createTask(propertyId, TaskPriority.HIGH, now.plusDays(3));
+        UUID soon = createTask(propertyId, TaskPriority.HIGH, now.plusDays(1));
+        UUID middle = createTask(propertyId, TaskPriority.HIGH, now.plusDays(2));
+        createTask(propertyId, TaskPriority.LOW, now.plusDays(1));
+        createTask(PROPERTIES.incrementAndGet(), TaskPriority.HIGH, now.plusDays(1));
+
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(null, null, null, "high", propertyId, null, null);
+
+        assertEquals(List.of(soon, middle, late),
+                ids(taskReactiveService.searchTasks(criteria, TaskSortField.DUE_DATE, null).collectList().block()));
+        assertEquals(List.of(soon, middle),
+                ids(taskReactiveService.searchTasks(criteria, TaskSortField.DUE_DATE, 2).collectList().block()));
+    }
+
+    @Test
+    @DisplayName("Просроченные задачи отдаются в открытых статусах и в OVERDUE")
+    void getOverdueTasks_shouldReturnOpenPastDue() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID pastDue = savePastDue(propertyId, TaskStatus.IN_PROGRESS);
+        UUID flagged = savePastDue(propertyId, TaskStatus.OVERDUE);
+        UUID canceled = savePastDue(propertyId, TaskStatus.CANCELED);
+
+        List<UUID> ids = ids(taskReactiveService.getOverdueTasks(TaskSortField.DUE_DATE, null).collectList().block());
+
+        assertTrue(ids.contains(pastDue));
+        assertTrue(ids.contains(flagged));
+        assertFalse(ids.contains(canceled));
+    }
+
+    private UUID savePastDue(long propertyId, TaskStatus status) {
+        return taskRepository.saveAndFlush(Task.builder()
+                .title("Проверка реактивного чтения")
+                .creatorId(1L)
+                .assigneeId(500L)
+                .propertyId(propertyId)
+                .status(status)
+                .dueDate(LocalDateTime.now().minusHours(1))
+                .build()).getId();
+    }
+
+    private UUID createTask(long propertyId, TaskPriority priority, LocalDateTime dueDate) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title("Проверка реактивного чтения")
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .priority(priority)
+                .dueDate(dueDate)
+                .build()).getId();
+    }
+
+    private static List<UUID> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::getId).toList();
+    }
+}
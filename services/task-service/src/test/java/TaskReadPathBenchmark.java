@@ -0,0 +1,129 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.mapper.TaskMapper;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Время и объём аллокаций при чтении списка из 100k задач: управляемые сущности + MapStruct
+ * против проекций {@link TaskQueryRepository} в read-only транзакции.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бенчмарк пути чтения: сущности против проекций")
+@Slf4j
+class TaskReadPathBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 7;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskQueryRepository taskQueryRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Список из 100k задач")
+    void readPath() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, status, priority, creation_date, due_date, creator_id,
+                                   assignee_id, escalation_level, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'Бенчмарк чтения ' || g, repeat('описание ', 100),
+                       'ASSIGNED', 'MEDIUM', now(), now() + interval '1 day', 1, g % 500, 0,
+                       now() - g * interval '1 second', now(), 0
+                FROM generate_series(1, ?) AS g
+                """, TASKS);
+        jdbcTemplate.execute("ANALYZE tasks");
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        measure("entities + mapper", () -> readWrite.execute(status ->
+                taskRepository.findAll(Sort.by("createdAt", "id")).stream().map(taskMapper::toResponse).toList()));
+        measure("detail projection", () -> readOnly.execute(status ->
+                taskQueryRepository.findDetails(null, "createdAt", TASKS).stream().map(taskMapper::toResponse)
+                        .toList()));
+        measure("summary projection", () -> readOnly.execute(status ->
+                taskQueryRepository.findSummaries(null, "createdAt", TASKS)));
+    }
+
+    private void measure(String name, Supplier<List<?>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(TASKS, read.get().size());
+        }
+
+        double[] millis = new double[ITERATIONS];
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(thread);
+            long started = System.nanoTime();
+            List<?> rows = read.get();
+            millis[i] = (System.nanoTime() - started) / 1e6;
+            allocated += threads.getThreadAllocatedBytes(thread) - bytesBefore;
+            assertEquals(TASKS, rows.size());
+        }
+        Arrays.sort(millis);
+        log.info("%-20s median %8.1f ms, p100 %8.1f ms, %8.1f MB allocated per read"
+                .formatted(name, millis[ITERATIONS / 2], millis[ITERATIONS - 1],
+                        allocated / (double) ITERATIONS / (1 << 20)));
+    }
+}
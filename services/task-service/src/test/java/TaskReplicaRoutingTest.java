@@ -0,0 +1,189 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.datasource.ReadYourWritesFilter;
+import com.sberfintech.task.datasource.ReplicaRoutingContext;
+import com.sberfintech.task.datasource.TaskRoutingDataSource;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Маршрутизация на локальной паре primary/реплика: реплика поднимается через pg_basebackup с primary
+ * и дальше получает WAL потоковой репликацией.
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "task.datasource.routing.enabled=true",
+        "task.datasource.routing.max-lag=500ms",
+        "task.datasource.routing.read-your-writes-window=5s",
+        "task.datasource.routing.lag-check-interval-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Маршрутизация чтений на реплику")
+class TaskReplicaRoutingTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    private static final String IN_RECOVERY_SQL = "SELECT pg_is_in_recovery()";
+
+    private static final String REPLICA_BOOTSTRAP = """
+            until su-exec postgres pg_basebackup -h primary -U test -D "$PGDATA" -R -X stream; do sleep 1; done
+            exec docker-entrypoint.sh postgres -c fsync=off
+            """;
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(
+                    Transferable.of("echo 'host replication all all trust' >> \"$PGDATA/pg_hba.conf\""),
+                    "/docker-entrypoint-initdb.d/replication.sh")
+            .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=replica", "-c", "max_wal_senders=4");
+
+    @Container
+    static final GenericContainer<?> REPLICA = new GenericContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withNetwork(NETWORK)
+            .dependsOn(PRIMARY)
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("sh", "-c", REPLICA_BOOTSTRAP))
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("task.datasource.routing.replicas[0].url", TaskReplicaRoutingTest::replicaUrl);
+    }
+
+    @Autowired
+    private TaskRoutingDataSource taskRoutingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void resumeReplay() throws Exception {
+        onReplica("SELECT pg_wal_replay_resume()");
+        taskRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    @DisplayName("Read-only транзакции идут на реплику, остальные на primary")
+    void readOnlyTransactions_shouldUseReplica() {
+        taskRoutingDataSource.checkReplicas();
+
+        assertTrue(inRecovery(true));
+        assertFalse(inRecovery(false));
+        assertFalse(jdbcTemplate.queryForObject(IN_RECOVERY_SQL, Boolean.class));
+    }
+
+    @Test
+    @DisplayName("Отстающая реплика выводится из ротации и возвращается после догоняния")
+    void laggingReplica_shouldBeSkipped() throws Exception {
+        onReplica("SELECT pg_wal_replay_pause()");
+        jdbcTemplate.update("CREATE TABLE IF NOT EXISTS lag_probe (id int)");
+        jdbcTemplate.update("INSERT INTO lag_probe VALUES (1)");
+        Thread.sleep(1_500);
+        // вторая транзакция после паузы: без неё received LSN может совпасть с replayed
+        jdbcTemplate.update("INSERT INTO lag_probe VALUES (2)");
+        Thread.sleep(200);
+
+        taskRoutingDataSource.checkReplicas();
+        assertFalse(inRecovery(true));
+
+        onReplica("SELECT pg_wal_replay_resume()");
+        Thread.sleep(500);
+        taskRoutingDataSource.checkReplicas();
+        assertTrue(inRecovery(true));
+    }
+
+    @Test
+    @DisplayName("После записи клиент читает с primary в течение окна")
+    void clientAfterWrite_shouldReadFromPrimary() throws Exception {
+        taskRoutingDataSource.checkReplicas();
+        ReadYourWritesFilter filter = new ReadYourWritesFilter("X-Client-Id", Duration.ofSeconds(5), 100);
+
+        assertTrue(readThroughFilter(filter, "GET", "technician-1"));
+        readThroughFilter(filter, "POST", "technician-1");
+        assertFalse(readThroughFilter(filter, "GET", "technician-1"));
+        assertTrue(readThroughFilter(filter, "GET", "technician-2"));
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    private boolean readThroughFilter(ReadYourWritesFilter filter, String method, String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/tasks");
+        request.addHeader("X-Client-Id", clientId);
+        AtomicBoolean replica = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse res) {
+                        replica.set(inRecovery(true));
+                    }
+                }));
+        return replica.get();
+    }
+
+    /**
+     * Выполняет pg_is_in_recovery() в транзакции: true — запрос обслужила реплика.
+     */
+    private boolean inRecovery(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(template.execute(status ->
+                jdbcTemplate.queryForObject(IN_RECOVERY_SQL, Boolean.class)));
+    }
+
+    private static void onReplica(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(), "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":"
+                + REPLICA.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/test";
+    }
+}
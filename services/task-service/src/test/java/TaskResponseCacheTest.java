@@ -0,0 +1,62 @@
+import com.sberfintech.task.config.TaskCacheProperties;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.event.TaskChangedEvent;
+import com.sberfintech.task.service.TaskResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit-тесты для TaskResponseCache")
+class TaskResponseCacheTest {
+
+    private TaskResponseCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TaskResponseCache(new TaskCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Повторное чтение карточки не обращается к загрузчику")
+    void get_shouldLoadOnce() {
+        UUID taskId = UUID.randomUUID();
+
+        cache.get(taskId, this::load);
+        TaskResponse result = cache.get(taskId, this::load);
+
+        assertEquals(taskId, result.getId());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Изменение задачи вытесняет её карточку")
+    void onTaskChanged_shouldEvictChangedTasks() {
+        UUID changed = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        cache.get(changed, this::load);
+        cache.get(untouched, this::load);
+
+        cache.onTaskChanged(new TaskChangedEvent(List.of(changed)));
+        cache.get(changed, this::load);
+        cache.get(untouched, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    private TaskResponse load(UUID taskId) {
+        loads.incrementAndGet();
+        return TaskResponse.builder().id(taskId).build();
+    }
+}
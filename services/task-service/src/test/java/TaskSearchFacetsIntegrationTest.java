@@ -0,0 +1,125 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskFacetMode;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.FacetCount;
+import com.sberfintech.task.dto.TaskFacets;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.dto.TaskSearchResult;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Счётчики фасетов в ответе поиска")
+class TaskSearchFacetsIntegrationTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(90_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    @DisplayName("Точные счётчики по каждому полю считаются по фильтрам поиска")
+    void search_shouldReturnExactFacets() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        seed(propertyId);
+        createTask(PROPERTIES.incrementAndGet(), "Чужой объект", TaskPriority.CRITICAL);
+
+        TaskSearchResult result = search(null, propertyId, TaskFacetMode.EXACT);
+        TaskFacets facets = result.facets();
+
+        assertEquals(4, result.page().getItems().size());
+        assertEquals(4, facets.getTotal());
+        assertFalse(facets.isApproximate());
+        assertEquals(List.of(new FacetCount("ASSIGNED", 2), new FacetCount("IN_PROGRESS", 1),
+                new FacetCount("NEW", 1)), facets.getStatus());
+        assertEquals(List.of(new FacetCount("HIGH", 2), new FacetCount("LOW", 2)), facets.getPriority());
+        assertEquals(List.of(new FacetCount("7", 2), new FacetCount("8", 1), new FacetCount(null, 1)),
+                facets.getAssigneeId());
+        assertEquals(List.of(new FacetCount(String.valueOf(propertyId), 4)), facets.getPropertyId());
+    }
+
+    @Test
+    @DisplayName("Текстовый запрос сужает и фасеты")
+    void search_shouldApplyTextToFacets() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        seed(propertyId);
+
+        TaskFacets facets = search("освещение", propertyId, TaskFacetMode.EXACT).facets();
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(List.of(new FacetCount("ASSIGNED", 1)), facets.getStatus());
+        assertEquals(List.of(new FacetCount("8", 1)), facets.getAssigneeId());
+    }
+
+    @Test
+    @DisplayName("Без запроса фасеты не считаются, приблизительные помечены флагом")
+    void search_shouldHonourFacetMode() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        seed(propertyId);
+
+        assertNull(search(null, propertyId, TaskFacetMode.NONE).facets());
+        assertTrue(search(null, propertyId, TaskFacetMode.APPROXIMATE).facets().isApproximate());
+    }
+
+    private void seed(long propertyId) {
+        UUID assigned = createTask(propertyId, "Ремонт кондиционера", TaskPriority.HIGH);
+        taskService.assignTask(assigned, 7L);
+        UUID started = createTask(propertyId, "Осмотр лифта", TaskPriority.HIGH);
+        taskService.assignTask(started, 7L);
+        taskService.startTask(started, 7L);
+        createTask(propertyId, "Уборка территории", TaskPriority.LOW);
+        UUID lighting = createTask(propertyId, "Замена освещения", TaskPriority.LOW);
+        taskService.assignTask(lighting, 8L);
+    }
+
+    private TaskSearchResult search(String q, long propertyId, TaskFacetMode facets) {
+        return taskService.searchTasks(q, null, null, null, null, propertyId, null, null,
+                new TaskPageRequest(null, null, null), facets);
+    }
+
+    private UUID createTask(long propertyId, String title, TaskPriority priority) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title(title)
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .priority(priority)
+                .build()).getId();
+    }
+}
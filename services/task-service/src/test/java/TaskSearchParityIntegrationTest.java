@@ -0,0 +1,136 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.dto.TaskSearchCriteria;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskFacetRepository;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskQueryRepository;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import com.sberfintech.task.repository.TaskReactiveRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "task.reactive.fetch-size=3",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Один фильтр поиска через JPA-спецификацию, R2DBC и фасеты")
+class TaskSearchParityIntegrationTest {
+
+    private static final int ALL = 1_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskSpecificationBuilder taskSpecificationBuilder;
+
+    @Autowired
+    private TaskQueryRepository taskQueryRepository;
+
+    @Autowired
+    private TaskReactiveRepository taskReactiveRepository;
+
+    @Autowired
+    private TaskFacetRepository taskFacetRepository;
+
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        for (int i = 0; i < 24; i++) {
+            taskRepository.saveAndFlush(Task.builder()
+                    .title("Проверка фильтра " + i)
+                    .creatorId(1L + i % 2)
+                    .assigneeId(i % 3 == 0 ? null : 100L + i % 3)
+                    .status(statuses[i % statuses.length])
+                    .priority(priorities[i % priorities.length])
+                    .propertyId(200L + i % 4)
+                    .build());
+        }
+        tasks = taskRepository.findAll().stream().sorted(Comparator.comparing(Task::getCreatedAt)).toList();
+    }
+
+    @Test
+    @DisplayName("Каждое поле фильтра и их сочетания дают одинаковые задачи на всех путях")
+    void search_shouldMatchAcrossQueryPaths() {
+        LocalDateTime lower = tasks.get(6).getCreatedAt();
+        LocalDateTime upper = tasks.get(17).getCreatedAt();
+        List<TaskSearchCriteria> criteria = new ArrayList<>(List.of(
+                new TaskSearchCriteria(null, null, null, null, null, null, null),
+                new TaskSearchCriteria(101L, null, null, null, null, null, null),
+                new TaskSearchCriteria(null, 2L, null, null, null, null, null),
+                new TaskSearchCriteria(null, null, null, null, 203L, null, null),
+                new TaskSearchCriteria(null, null, null, null, null, lower, null),
+                new TaskSearchCriteria(null, null, null, null, null, null, upper),
+                new TaskSearchCriteria(null, null, null, null, null, lower, upper),
+                new TaskSearchCriteria(102L, 1L, null, null, 201L, lower, upper),
+                new TaskSearchCriteria(999L, null, null, null, null, null, null)));
+        for (TaskStatus status : TaskStatus.values()) {
+            criteria.add(new TaskSearchCriteria(null, null, status, null, null, null, null));
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            criteria.add(new TaskSearchCriteria(null, 1L, null, priority, null, lower, null));
+        }
+
+        for (TaskSearchCriteria filter : criteria) {
+            List<UUID> jpa = ids(taskQueryRepository.findDetails(
+                    taskSpecificationBuilder.buildSearchSpecification(filter), "createdAt", ALL));
+            List<UUID> reactive = ids(taskReactiveRepository.findDetails(filter, "createdAt", null)
+                    .collectList().block());
+
+            assertEquals(jpa, reactive, filter.toString());
+            assertEquals(jpa.size(), taskFacetRepository.count(filter, null, false).getTotal(), filter.toString());
+        }
+    }
+
+    private static List<UUID> ids(List<TaskDetail> details) {
+        return details.stream().map(TaskDetail::id).toList();
+    }
+}
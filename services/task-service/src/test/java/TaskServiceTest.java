@@ -1,25 +1,44 @@
+import com.sberfintech.task.config.BatchProperties;
+import com.sberfintech.task.domain.BulkTransitionResult;
 import com.sberfintech.task.domain.TaskDomainService;
+import com.sberfintech.task.domain.TaskFacetMode;
+import com.sberfintech.task.domain.TaskQueryService;
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.domain.TaskSpecificationBuilder;
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.dto.BatchCreateTasksResponse;
+import com.sberfintech.task.dto.BulkTransitionResponse;
 import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.dto.TaskFacets;
 import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.dto.TaskSearchResult;
 import com.sberfintech.task.dto.UpdateTaskRequest;
 import com.sberfintech.task.event.TaskEventService;
 import com.sberfintech.task.mapper.TaskMapper;
 import com.sberfintech.task.model.Task;
 import com.sberfintech.task.model.TaskPriority;
 import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskQueryRepository.TaskDetail;
+import com.sberfintech.task.service.TaskInboxService;
+import com.sberfintech.task.service.TaskResponseCache;
 import com.sberfintech.task.service.TaskService;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,12 +50,30 @@ class TaskServiceTest {
     @Mock
     private TaskDomainService taskDomainService;
 
+    @Mock
+    private TaskQueryService taskQueryService;
+
     @Mock
     private TaskEventService taskEventService;
 
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskValidator taskValidator;
+
+    @Mock
+    private BatchProperties batchProperties;
+
+    @Mock
+    private TaskResponseCache taskResponseCache;
+
+    @Mock
+    private TaskInboxService taskInboxService;
+
+    @Spy
+    private TaskSpecificationBuilder taskSpecificationBuilder = new TaskSpecificationBuilder();
+
     @InjectMocks
     private TaskService taskService;
 
@@ -78,126 +115,124 @@ class TaskServiceTest {
     }
 
     @Test
-    @DisplayName("Получение всех задач")
-    void getAllTasks_shouldReturnAllTasks() {
-        when(taskDomainService.findAll()).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+    @DisplayName("Получение страницы задач по курсору")
+    void getAllTasks_withPageRequest_shouldReturnMappedPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 1, TaskSortField.CREATED_AT);
+        TaskDetail detail = detailOf(taskTest);
+        CursorPage<TaskDetail> page = CursorPage.<TaskDetail>builder()
+                .items(List.of(detail))
+                .nextCursor("next")
+                .hasNext(true)
+                .size(1)
+                .build();
+        when(taskQueryService.findDetailPage(null, pageRequest)).thenReturn(page);
+        when(taskMapper.toResponse(detail)).thenReturn(taskResponseTest);
 
-        List<TaskResponse> result = taskService.getAllTasks();
+        CursorPage<TaskResponse> result = taskService.getAllTasks(pageRequest);
 
-        assertEquals(1, result.size());
-        assertEquals("Test Task", result.get(0).getTitle());
-        verify(taskDomainService, times(1)).findAll();
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.isHasNext());
+        assertEquals("next", result.getNextCursor());
+        verify(taskQueryService, times(1)).findDetailPage(null, pageRequest);
+        verify(taskMapper, times(1)).toResponse(detail);
     }
 
     @Test
     @DisplayName("Получение задачи по ID")
     void getTaskById_shouldReturnTask() {
-        when(taskDomainService.findById(taskId)).thenReturn(taskTest);
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+        when(taskResponseCache.get(eq(taskId), any()))
+                .thenAnswer(invocation -> invocation.<Function<UUID, TaskResponse>>getArgument(1).apply(taskId));
+        TaskDetail detail = detailOf(taskTest);
+        when(taskQueryService.findDetail(taskId)).thenReturn(detail);
+        when(taskMapper.toResponse(detail)).thenReturn(taskResponseTest);
 
         TaskResponse result = taskService.getTaskById(taskId);
 
         assertNotNull(result);
         assertEquals(taskId, result.getId());
         assertEquals("Test Task", result.getTitle());
-        verify(taskDomainService, times(1)).findById(taskId);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        verify(taskQueryService, times(1)).findDetail(taskId);
+        verify(taskDomainService, never()).findById(any());
     }
 
     @Test
-    @DisplayName("Получение задачи по исполнителю")
-    void getTaskByAssignee_shouldReturnTask() {
-        when(taskDomainService.findByAssignee(assigneeId)).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
-
-        List<TaskResponse> result = taskService.getTasksByAssignee(assigneeId);
-
-        assertEquals(1, result.size());
-        assertEquals(assigneeId, result.get(0).getAssigneeId());
-        verify(taskDomainService, times(1)).findByAssignee(assigneeId);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+    @DisplayName("Получение страницы задач от создателя")
+    void getTasksByCreator_shouldReturnPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
+
+        CursorPage<TaskResponse> result = taskService.getTasksByCreator(creatorId, pageRequest);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(creatorId, result.getItems().get(0).getCreatorId());
+        verify(taskSpecificationBuilder, times(1))
+                .buildSearchSpecification(null, creatorId, null, null, null, null, null);
+        verify(taskQueryService, times(1)).findDetailPage(any(), eq(pageRequest));
     }
 
     @Test
-    @DisplayName("Получение задачи от создателя")
-    void getTasksByCreator_shouldReturnTask() {
-        when(taskDomainService.findByCreator(creatorId)).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+    @DisplayName("Получение страницы задач по статусу")
+    void getTasksByStatus_shouldReturnPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
 
-        List<TaskResponse> result = taskService.getTasksByCreator(creatorId);
+        CursorPage<TaskResponse> result = taskService.getTasksByStatus("NEW", pageRequest);
 
-        assertEquals(1, result.size());
-        assertEquals(creatorId, result.get(0).getCreatorId());
-        verify(taskDomainService, times(1)).findByCreator(creatorId);
-        verify(taskMapper, times(1)).toResponse(taskTest);
-    }
-
-    @Test
-    @DisplayName("Получение задач по статусу")
-    void getTasksByStatus_shouldReturnTask() {
-        String status = "NEW";
-        when(taskDomainService.findByStatus(TaskStatus.NEW)).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
-
-        List<TaskResponse> result = taskService.getTasksByStatus(status);
-
-        assertEquals(1, result.size());
-        assertEquals("NEW", result.get(0).getStatus());
-        verify(taskDomainService, times(1)).findByStatus(TaskStatus.NEW);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        assertEquals(1, result.getItems().size());
+        assertEquals("NEW", result.getItems().get(0).getStatus());
+        verify(taskSpecificationBuilder, times(1))
+                .buildSearchSpecification(null, null, "NEW", null, null, null, null);
     }
 
     @Test
     @DisplayName("Некорректный статус должен бросать исключение")
     void getTasksByStatus_withInvalidStatus_shouldThrowException() {
-        String status = "INVALID_STATUS";
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
 
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByStatus(status));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksByStatus("INVALID_STATUS", pageRequest));
         assertTrue(exception.getMessage().contains("INVALID_STATUS"));
-        verify(taskDomainService, never()).findByStatus(any());
+        verifyNoInteractions(taskQueryService);
     }
 
     @Test
-    @DisplayName("Получение задач по приоритету")
-    void getTasksByPriority_shouldReturnTask() {
-        String priority = "MEDIUM";
-        when(taskDomainService.findByPriority(TaskPriority.MEDIUM)).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
-
-        List<TaskResponse> result = taskService.getTasksByPriority(priority);
-
-        assertEquals(1, result.size());
-        assertEquals(TaskPriority.MEDIUM, result.get(0).getPriority());
-        verify(taskDomainService, times(1)).findByPriority(TaskPriority.MEDIUM);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+    @DisplayName("Получение страницы задач по приоритету")
+    void getTasksByPriority_shouldReturnPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
+
+        CursorPage<TaskResponse> result = taskService.getTasksByPriority("MEDIUM", pageRequest);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(TaskPriority.MEDIUM, result.getItems().get(0).getPriority());
+        verify(taskSpecificationBuilder, times(1))
+                .buildSearchSpecification(null, null, null, "MEDIUM", null, null, null);
     }
 
     @Test
-    @DisplayName("Получение просроченных задач")
-    void getOverdueTasks_shouldReturnOverdueTasks() {
-        when(taskDomainService.findOverdue()).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+    @DisplayName("Получение страницы просроченных задач")
+    void getOverdueTasks_shouldReturnPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.DUE_DATE);
+        stubPage(pageRequest);
 
-        List<TaskResponse> result = taskService.getOverdueTasks();
+        CursorPage<TaskResponse> result = taskService.getOverdueTasks(pageRequest);
 
-        assertEquals(1, result.size());
-        verify(taskDomainService, times(1)).findOverdue();
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        assertEquals(1, result.getItems().size());
+        verify(taskSpecificationBuilder, times(1)).overdue(any());
+        verify(taskQueryService, times(1)).findDetailPage(any(), eq(pageRequest));
     }
 
     @Test
-    @DisplayName("Получение задач по свойству")
-    void getTasksByProperty_shouldReturnTask() {
-        when(taskDomainService.findByPropertyId(propertyId)).thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+    @DisplayName("Получение страницы задач по объекту")
+    void getTasksByProperty_shouldReturnPage() {
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
 
-        List<TaskResponse> result = taskService.getTasksByProperty(propertyId);
+        CursorPage<TaskResponse> result = taskService.getTasksByProperty(propertyId, pageRequest);
 
-        assertEquals(1, result.size());
-        verify(taskDomainService, times(1)).findByPropertyId(propertyId);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        assertEquals(1, result.getItems().size());
+        verify(taskSpecificationBuilder, times(1))
+                .buildSearchSpecification(null, null, null, null, propertyId, null, null);
     }
 
     @Test
@@ -205,46 +240,17 @@ class TaskServiceTest {
     void searchTasks_shouldReturnFilteredTasks() {
         LocalDateTime createdAfter = LocalDateTime.now().minusDays(1);
         LocalDateTime createdBefore = LocalDateTime.now().plusDays(1);
-        String status = "NEW";
-        String priority = "MEDIUM";
-
-        when(taskDomainService.search(
-                eq(assigneeId),
-                eq(creatorId),
-                eq(status),
-                eq(priority),
-                eq(propertyId),
-                eq(createdAfter),
-                eq(createdBefore)))
-                .thenReturn(Arrays.asList(taskTest));
-
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
-
-        List<TaskResponse> result = taskService.searchTasks(
-                assigneeId,
-                creatorId,
-                status,
-                priority,
-                propertyId,
-                createdAfter,
-                createdBefore
-        );
-
-
-        assertEquals(1, result.size());
-        assertEquals("Test Task", result.get(0).getTitle());
-
-
-        verify(taskDomainService, times(1)).search(
-                eq(assigneeId),
-                eq(creatorId),
-                eq(status),
-                eq(priority),
-                eq(propertyId),
-                eq(createdAfter),
-                eq(createdBefore));
-
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
+
+        CursorPage<TaskResponse> result = taskService.searchTasks(assigneeId, creatorId, "NEW", "MEDIUM",
+                propertyId, createdAfter, createdBefore, pageRequest);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals("Test Task", result.getItems().get(0).getTitle());
+        verify(taskSpecificationBuilder, times(1)).buildSearchSpecification(assigneeId, creatorId, "NEW", "MEDIUM",
+                propertyId, createdAfter, createdBefore);
+        verify(taskQueryService, times(1)).findDetailPage(any(), eq(pageRequest));
     }
 
     @Test
@@ -286,6 +292,36 @@ class TaskServiceTest {
         verify(taskMapper, times(1)).toResponse(newTask);
     }
 
+    @Test
+    @DisplayName("Пакетное создание задач с ошибкой валидации в одном элементе")
+    void createTasks_shouldCreateValidAndReportInvalid() {
+        CreateTaskRequest validRequest = CreateTaskRequest.builder().title("Valid").creatorId(creatorId).build();
+        CreateTaskRequest invalidRequest = CreateTaskRequest.builder().creatorId(creatorId).build();
+        Task validTask = Task.builder().title("Valid").creatorId(creatorId).build();
+        Task invalidTask = Task.builder().creatorId(creatorId).build();
+
+        when(batchProperties.getMaxItems()).thenReturn(100);
+        when(taskMapper.toEntity(validRequest)).thenReturn(validTask);
+        when(taskMapper.toEntity(invalidRequest)).thenReturn(invalidTask);
+        doNothing().when(taskValidator).validateForCreate(argThat(t -> t.getTitle() != null));
+        doThrow(new ValidationException("Task title is required"))
+                .when(taskValidator).validateForCreate(argThat(t -> t.getTitle() == null));
+        when(taskDomainService.createAll(List.of(validTask))).thenAnswer(invocation -> {
+            validTask.setId(taskId);
+            return List.of(validTask);
+        });
+
+        BatchCreateTasksResponse result = taskService.createTasks(List.of(validRequest, invalidRequest));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals(taskId, result.getItems().get(0).getId());
+        assertFalse(result.getItems().get(1).isSuccess());
+        assertEquals("Task title is required", result.getItems().get(1).getError());
+        verify(taskEventService, times(1)).sendTasksCreated(List.of(validTask));
+    }
+
     @Test
     @DisplayName("Обновление задачи")
     void updateTask_shouldUpdateAndReturnTask() {
@@ -450,6 +486,30 @@ class TaskServiceTest {
         verify(taskMapper, times(1)).toResponse(cancelledTask);
     }
 
+    @Test
+    @DisplayName("Пакетная отмена задач возвращает изменённые задачи и причины отказа")
+    void bulkCancel_shouldReturnUpdatedAndRejected() {
+        String reason = "Изменение планов";
+        UUID rejectedId = UUID.randomUUID();
+        Task cancelledTask = Task.builder().id(taskId).status(TaskStatus.CANCELED).build();
+        TaskResponse cancelledResponse = TaskResponse.builder().id(taskId).status("CANCELED").build();
+        List<UUID> ids = List.of(taskId, rejectedId);
+
+        when(batchProperties.getMaxItems()).thenReturn(100);
+        when(taskDomainService.bulkCancel(ids, reason)).thenReturn(new BulkTransitionResult(
+                List.of(cancelledTask), Map.of(rejectedId, "Cannot cancel task with status: COMPLETED")));
+        when(taskMapper.toResponse(cancelledTask)).thenReturn(cancelledResponse);
+
+        BulkTransitionResponse result = taskService.bulkCancel(ids, reason);
+
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(taskId, result.getUpdated().get(0).getId());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(rejectedId, result.getRejected().get(0).getTaskId());
+        assertEquals("Cannot cancel task with status: COMPLETED", result.getRejected().get(0).getReason());
+        verify(taskEventService, times(1)).sendTasksCanceled(List.of(cancelledTask), reason);
+    }
+
     @Test
     @DisplayName("Эскалация задачи")
     void escalateTask_shouldEscalateAndReturnTask() {
@@ -568,30 +628,50 @@ class TaskServiceTest {
         verify(taskDomainService, times(1)).delete(taskId);
     }
 
+    @Test
+    @DisplayName("Фасеты считаются только для первой страницы поиска")
+    void searchTasks_withFacets_shouldCountThemOnFirstPageOnly() {
+        TaskPageRequest firstPage = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        TaskPageRequest nextPage = new TaskPageRequest("next", 10, TaskSortField.CREATED_AT);
+        TaskFacets facets = TaskFacets.builder().total(1).build();
+        stubPage(firstPage);
+        stubPage(nextPage);
+        when(taskQueryService.findFacets(any(), isNull(), eq(false))).thenReturn(facets);
+
+        TaskSearchResult first = taskService.searchTasks(null, null, null, null, null, propertyId, null, null,
+                firstPage, TaskFacetMode.EXACT);
+        TaskSearchResult next = taskService.searchTasks(null, null, null, null, null, propertyId, null, null,
+                nextPage, TaskFacetMode.EXACT);
+
+        assertSame(facets, first.facets());
+        assertNull(next.facets());
+        assertEquals(1, next.page().getItems().size());
+        verify(taskQueryService, times(1)).findFacets(any(), any(), anyBoolean());
+    }
+
     @Test
     @DisplayName("Поиск задач с null параметрами")
     void searchTasks_withNullParameters_shouldHandleCorrectly() {
-        when(taskDomainService.search(null, null, null, null, null, null, null))
-                .thenReturn(Arrays.asList(taskTest));
-        when(taskMapper.toResponse(taskTest)).thenReturn(taskResponseTest);
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+        stubPage(pageRequest);
 
-        List<TaskResponse> result = taskService.searchTasks(null, null, null, null, null, null, null);
+        CursorPage<TaskResponse> result = taskService.searchTasks(null, null, null, null, null, null, null,
+                pageRequest);
 
-        assertEquals(1, result.size());
-        verify(taskDomainService, times(1)).search(null, null, null, null, null, null, null);
-        verify(taskMapper, times(1)).toResponse(taskTest);
+        assertEquals(1, result.getItems().size());
+        verify(taskSpecificationBuilder, times(1)).buildSearchSpecification(null, null, null, null, null, null, null);
     }
 
     @Test
     @DisplayName("Получение задач по некорректному приоритету должно бросать исключение")
     void getTasksByPriority_withInvalidPriority_shouldThrowException() {
-        String invalidPriority = "INVALID_PRIORITY";
+        TaskPageRequest pageRequest = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> taskService.getTasksByPriority(invalidPriority));
+                () -> taskService.getTasksByPriority("INVALID_PRIORITY", pageRequest));
 
         assertTrue(exception.getMessage().contains("INVALID_PRIORITY"));
-        verify(taskDomainService, never()).findByPriority(any());
+        verifyNoInteractions(taskQueryService);
     }
 
     @Test
@@ -611,5 +691,20 @@ class TaskServiceTest {
         assertNull(taskTest.getDueDate());
         verify(taskDomainService, times(1)).update(taskTest);
     }
-}
 
+    private void stubPage(TaskPageRequest pageRequest) {
+        TaskDetail detail = detailOf(taskTest);
+        when(taskQueryService.findDetailPage(any(), eq(pageRequest))).thenReturn(CursorPage.<TaskDetail>builder()
+                .items(List.of(detail))
+                .size(pageRequest.size())
+                .build());
+        when(taskMapper.toResponse(detail)).thenReturn(taskResponseTest);
+    }
+
+    private static TaskDetail detailOf(Task task) {
+        return new TaskDetail(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), task.getCreationDate(), task.getDueDate(), task.getCompletionDate(),
+                task.getCreatorId(), task.getAssigneeId(), task.getPropertyId(), task.getAssetId(),
+                task.getEscalationLevel(), task.getCreatedAt());
+    }
+}
@@ -0,0 +1,203 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskSlaRecorder;
+import com.sberfintech.task.domain.exception.TaskOperationException;
+import com.sberfintech.task.dto.BulkTransitionResponse;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.dto.TaskSlaResponse;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskSlaMetric;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskJdbcRepository.TaskTransition;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Дневные SLA-итоги по объектам и приоритетам")
+class TaskSlaIntegrationTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(130_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSlaRecorder taskSlaRecorder;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Назначение, завершение и отмена попадают в итоги своего дня")
+    void transitions_shouldUpdateRollups() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID completed = createTask(propertyId);
+        UUID assigned = createTask(propertyId);
+        UUID cancelled = createTask(propertyId);
+        taskService.assignTask(completed, 7L);
+        taskService.completeTask(completed, 7L);
+        taskService.bulkAssign(List.of(assigned), 8L);
+        taskService.cancelTask(cancelled, "Дубликат");
+
+        LocalDate today = LocalDate.now();
+        List<TaskSlaResponse> report = taskSlaRecorder.report(today, today, propertyId, null, null);
+
+        assertEquals(List.of(TaskSlaMetric.TIME_TO_ASSIGN, TaskSlaMetric.TIME_TO_CANCEL,
+                TaskSlaMetric.TIME_TO_COMPLETE), report.stream().map(TaskSlaResponse::metric).toList());
+        assertEquals(List.of(2L, 1L, 1L), report.stream().map(TaskSlaResponse::count).toList());
+        for (TaskSlaResponse sla : report) {
+            assertEquals(propertyId, sla.propertyId());
+            assertEquals(TaskPriority.HIGH, sla.priority());
+            assertTrue(sla.p99Seconds() <= sla.maxSeconds());
+        }
+    }
+
+    @Test
+    @DisplayName("Повторное завершение отклоняется и не добавляет ни SLA-замера, ни события")
+    void repeatedCompletion_shouldNotRecordAgain() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID id = createTask(propertyId);
+        taskService.assignTask(id, 7L);
+        taskService.completeTask(id, 7L);
+        Task completed = taskRepository.findById(id).orElseThrow();
+
+        TaskOperationException repeated = assertThrows(TaskOperationException.class,
+                () -> taskService.completeTask(id, 7L));
+        BulkTransitionResponse bulk = taskService.bulkComplete(List.of(id), 7L);
+
+        assertEquals("Cannot complete task with status: COMPLETED", repeated.getMessage());
+        assertTrue(bulk.getUpdated().isEmpty());
+        assertEquals(1, bulk.getRejected().size());
+        Task stored = taskRepository.findById(id).orElseThrow();
+        assertEquals(completed.getVersion(), stored.getVersion());
+        assertEquals(completed.getCompletionDate(), stored.getCompletionDate());
+        assertEquals(1, taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(id) && event.getEventType() == EventType.TASK_COMPLETED)
+                .count());
+
+        LocalDate today = LocalDate.now();
+        TaskSlaResponse sla = single(taskSlaRecorder.report(today, today, propertyId, null,
+                TaskSlaMetric.TIME_TO_COMPLETE));
+        assertEquals(1, sla.count());
+    }
+
+    @Test
+    @DisplayName("Диапазон сливает дни и их скетчи: перцентили с точностью 1%")
+    void report_shouldMergeDays() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        LocalDate firstDay = LocalDate.now().minusDays(10);
+        List<TaskTransition> transitions = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            transitions.add(completedAfter(propertyId, firstDay, 60));
+        }
+        for (int i = 0; i < 10; i++) {
+            transitions.add(completedAfter(propertyId, firstDay.plusDays(1), 3600));
+        }
+        taskSlaRecorder.record(TaskSlaMetric.TIME_TO_COMPLETE, transitions);
+
+        TaskSlaResponse both = single(taskSlaRecorder.report(firstDay, firstDay.plusDays(1), propertyId, null,
+                TaskSlaMetric.TIME_TO_COMPLETE));
+        assertEquals(100, both.count());
+        assertEquals(414, both.meanSeconds(), 0.001);
+        assertEquals(3600, both.maxSeconds(), 0.001);
+        assertEquals(60, both.p50Seconds(), 60 * 0.01);
+        assertEquals(3600, both.p99Seconds(), 3600 * 0.01);
+
+        TaskSlaResponse first = single(taskSlaRecorder.report(firstDay, firstDay, propertyId, null,
+                TaskSlaMetric.TIME_TO_COMPLETE));
+        assertEquals(90, first.count());
+        assertEquals(60, first.p99Seconds(), 60 * 0.01);
+    }
+
+    @Test
+    @DisplayName("Откат перехода не оставляет следа в итогах")
+    void rollback_shouldNotUpdateRollups() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        UUID id = createTask(propertyId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.assignTask(id, 7L);
+            status.setRollbackOnly();
+        });
+
+        LocalDate today = LocalDate.now();
+        assertTrue(taskSlaRecorder.report(today, today, propertyId, null, null).isEmpty());
+    }
+
+    private static TaskTransition completedAfter(long propertyId, LocalDate day, long seconds) {
+        LocalDateTime completedAt = day.atTime(12, 0);
+        Task task = Task.builder()
+                .id(UUID.randomUUID())
+                .status(TaskStatus.COMPLETED)
+                .priority(TaskPriority.LOW)
+                .propertyId(propertyId)
+                .creationDate(completedAt.minusSeconds(seconds))
+                .completionDate(completedAt)
+                .updatedAt(completedAt)
+                .build();
+        return new TaskTransition(task, TaskStatus.IN_PROGRESS, 7L);
+    }
+
+    private static TaskSlaResponse single(List<TaskSlaResponse> report) {
+        assertEquals(1, report.size());
+        return report.get(0);
+    }
+
+    private UUID createTask(long propertyId) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title("Проверка SLA")
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .priority(TaskPriority.HIGH)
+                .build()).getId();
+    }
+}
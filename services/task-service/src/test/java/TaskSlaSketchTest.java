@@ -0,0 +1,42 @@
+import com.sberfintech.task.domain.TaskSlaSketch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit-тесты для TaskSlaSketch")
+class TaskSlaSketchTest {
+
+    @Test
+    @DisplayName("Оценка корзины отличается от исходной длительности не больше чем на 1%")
+    void value_shouldStayWithinRelativeAccuracy() {
+        for (double seconds = 1.5; seconds < 365 * 86_400; seconds *= 1.37) {
+            double estimate = TaskSlaSketch.value(TaskSlaSketch.bin(seconds));
+            assertEquals(seconds, estimate, seconds * TaskSlaSketch.RELATIVE_ACCURACY, "seconds=" + seconds);
+        }
+    }
+
+    @Test
+    @DisplayName("Короткие и отрицательные длительности попадают в корзину 0")
+    void bin_shouldClampShortDurations() {
+        assertEquals(0, TaskSlaSketch.bin(0.2));
+        assertEquals(0, TaskSlaSketch.bin(-5));
+        assertEquals(0, TaskSlaSketch.bin(1));
+    }
+
+    @Test
+    @DisplayName("Квантиль слитого скетча равен квантилю объединённых данных")
+    void quantile_shouldWorkOnMergedBins() {
+        SortedMap<Integer, Long> merged = new TreeMap<>();
+        merged.merge(TaskSlaSketch.bin(60), 90L, Long::sum);
+        merged.merge(TaskSlaSketch.bin(3600), 10L, Long::sum);
+
+        assertEquals(60, TaskSlaSketch.quantile(merged, 0.5), 0.6);
+        assertEquals(60, TaskSlaSketch.quantile(merged, 0.89), 0.6);
+        assertEquals(3600, TaskSlaSketch.quantile(merged, 0.99), 36);
+        assertNull(TaskSlaSketch.quantile(new TreeMap<>(), 0.5));
+    }
+}
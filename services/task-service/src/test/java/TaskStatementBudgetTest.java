@@ -0,0 +1,139 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskSortField;
+import com.sberfintech.task.dto.BatchItemResult;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.CursorPage;
+import com.sberfintech.task.dto.TaskPageRequest;
+import com.sberfintech.task.dto.TaskResponse;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Число SQL-операторов на путях TaskService не должно расти вместе с числом задач: рост означает N+1.
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бюджет SQL-операторов на путях TaskService")
+class TaskStatementBudgetTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(30_000);
+
+    // UPDATE/INSERT пачкой, вставка outbox пачкой и выборки из task_outbox_seq на границе блока
+    private static final int BULK_BUDGET = 5;
+
+    private static final TaskPageRequest PAGE = new TaskPageRequest(null, 100, TaskSortField.CREATED_AT);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    @DisplayName("Карточка задачи читается одним запросом, повторно — из кэша")
+    void getTaskById_shouldUseSingleQuery() {
+        UUID id = createTasks(PROPERTIES.incrementAndGet(), 1).get(0);
+
+        assertEquals(id, SqlStatementAssertions.assertStatements(1, () -> taskService.getTaskById(id)).getId());
+        SqlStatementAssertions.assertStatements(0, () -> taskService.getTaskById(id));
+    }
+
+    @Test
+    @DisplayName("Поиск и список по объекту не зависят от числа найденных задач")
+    void listReads_shouldNotGrowWithResultSize() {
+        long few = PROPERTIES.incrementAndGet();
+        long many = PROPERTIES.incrementAndGet();
+        createTasks(few, 3);
+        createTasks(many, 30);
+
+        int searchFew = SqlStatementAssertions.countStatements(() -> assertEquals(3, search(few).size()));
+        int searchMany = SqlStatementAssertions.countStatements(() -> assertEquals(30, search(many).size()));
+        assertEquals(searchFew, searchMany);
+
+        int byPropertyFew = SqlStatementAssertions.countStatements(() ->
+                assertEquals(3, taskService.getTasksByProperty(few, PAGE).getItems().size()));
+        int byPropertyMany = SqlStatementAssertions.countStatements(() ->
+                assertEquals(30, taskService.getTasksByProperty(many, PAGE).getItems().size()));
+        assertEquals(byPropertyFew, byPropertyMany);
+    }
+
+    @Test
+    @DisplayName("Страница по курсору читается тем же числом запросов, что и первая")
+    void cursorPage_shouldNotGrowWithPageNumber() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        createTasks(propertyId, 30);
+        TaskPageRequest firstPage = new TaskPageRequest(null, 10, TaskSortField.CREATED_AT);
+
+        CursorPage<TaskResponse> first = taskService.getTasksByProperty(propertyId, firstPage);
+        int firstStatements = SqlStatementAssertions.countStatements(() ->
+                taskService.getTasksByProperty(propertyId, firstPage));
+        int nextStatements = SqlStatementAssertions.countStatements(() -> assertEquals(10,
+                taskService.getTasksByProperty(propertyId,
+                        new TaskPageRequest(first.getNextCursor(), 10, TaskSortField.CREATED_AT)).getItems().size()));
+        assertEquals(firstStatements, nextStatements);
+    }
+
+    @Test
+    @DisplayName("Пакетные создание и назначение укладываются в бюджет при любом размере пачки")
+    void batchWrites_shouldStayWithinBudget() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        List<CreateTaskRequest> requests = IntStream.range(0, 50).mapToObj(i -> request(propertyId)).toList();
+
+        List<UUID> ids = SqlStatementAssertions.assertMaxStatements(BULK_BUDGET, () -> taskService.createTasks(requests))
+                .getItems().stream().map(BatchItemResult::getId).toList();
+
+        SqlStatementAssertions.assertMaxStatements(BULK_BUDGET, () -> taskService.bulkAssign(ids.subList(0, 3), 7L));
+        SqlStatementAssertions.assertMaxStatements(BULK_BUDGET, () -> taskService.bulkAssign(ids.subList(3, 50), 7L));
+    }
+
+    private List<TaskResponse> search(long propertyId) {
+        return taskService.searchTasks(null, null, null, null, propertyId, null, null, PAGE).getItems();
+    }
+
+    private List<UUID> createTasks(long propertyId, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> taskService.createTask(request(propertyId)).getId())
+                .toList();
+    }
+
+    private static CreateTaskRequest request(long propertyId) {
+        return CreateTaskRequest.builder()
+                .title("Проверка числа запросов")
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .build();
+    }
+}
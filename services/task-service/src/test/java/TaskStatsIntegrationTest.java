@@ -0,0 +1,172 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskStatsRegistry;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.TaskStatsResponse;
+import com.sberfintech.task.dto.UpdateTaskRequest;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "task.overdue.enabled=false",
+        "task.escalation.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Счётчики открытых задач в памяти")
+class TaskStatsIntegrationTest {
+
+    private static final AtomicLong PROPERTIES = new AtomicLong(110_000);
+
+    private static final int ALL = Integer.MAX_VALUE;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatsRegistry taskStatsRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Каждый переход сдвигает счётчики, и они совпадают с пересчётом по БД")
+    void stats_shouldFollowTransitions() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        taskStatsRegistry.rebuild();
+        TaskStatsResponse before = taskStatsRegistry.stats(ALL);
+
+        UUID started = createTask(propertyId, TaskPriority.HIGH);
+        UUID completed = createTask(propertyId, TaskPriority.HIGH);
+        UUID cancelled = createTask(propertyId, TaskPriority.HIGH);
+        UUID lowered = createTask(propertyId, TaskPriority.HIGH);
+        taskService.assignTask(started, 501L);
+        taskService.startTask(started, 501L);
+        taskService.assignTask(completed, 502L);
+        taskService.completeTask(completed, 502L);
+        taskService.bulkCancel(List.of(cancelled), "Дубликат");
+        taskService.updateTask(lowered, UpdateTaskRequest.builder()
+                .title("Задача с пониженным приоритетом")
+                .propertyId(propertyId)
+                .priority(TaskPriority.LOW)
+                .status(TaskStatus.NEW.name())
+                .build());
+
+        TaskStatsResponse after = taskStatsRegistry.stats(ALL);
+        assertEquals(before.total() + 2, after.total());
+        assertEquals(before.unassigned() + 1, after.unassigned());
+        assertEquals(before.byStatus().get(TaskStatus.IN_PROGRESS) + 1, after.byStatus().get(TaskStatus.IN_PROGRESS));
+        assertEquals(before.byStatus().get(TaskStatus.NEW) + 1, after.byStatus().get(TaskStatus.NEW));
+        assertEquals(before.byPriority().get(TaskPriority.LOW) + 1, after.byPriority().get(TaskPriority.LOW));
+        assertEquals(2L, after.topProperties().get(propertyId));
+        assertEquals(1L, after.topAssignees().get(501L));
+        assertFalse(after.topAssignees().containsKey(502L));
+
+        taskStatsRegistry.rebuild();
+        assertEquals(counts(after), counts(taskStatsRegistry.stats(ALL)));
+    }
+
+    @Test
+    @DisplayName("Откат транзакции не сдвигает счётчики")
+    void stats_shouldIgnoreRolledBackChanges() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        TaskStatsResponse before = taskStatsRegistry.stats(ALL);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            createTask(propertyId, TaskPriority.MEDIUM);
+            status.setRollbackOnly();
+        });
+
+        TaskStatsResponse after = taskStatsRegistry.stats(ALL);
+        assertEquals(counts(before), counts(after));
+        assertFalse(after.topProperties().containsKey(propertyId));
+    }
+
+    @Test
+    @DisplayName("Смена приоритета и объекта переносит задачу между счётчиками")
+    void stats_shouldMoveTaskOnPriorityAndPropertyChange() {
+        long propertyId = PROPERTIES.incrementAndGet();
+        long otherPropertyId = PROPERTIES.incrementAndGet();
+        UUID raised = createTask(propertyId, TaskPriority.HIGH);
+        UUID moved = createTask(propertyId, TaskPriority.HIGH);
+        TaskStatsResponse before = taskStatsRegistry.stats(ALL);
+
+        taskService.updatePriority(raised, "critical");
+        taskService.updateTask(moved, UpdateTaskRequest.builder()
+                .title("Задача на другом объекте")
+                .propertyId(otherPropertyId)
+                .priority(TaskPriority.HIGH)
+                .status(TaskStatus.NEW.name())
+                .build());
+
+        TaskStatsResponse after = taskStatsRegistry.stats(ALL);
+        assertEquals(before.total(), after.total());
+        assertEquals(before.byPriority().get(TaskPriority.HIGH) - 1, after.byPriority().get(TaskPriority.HIGH));
+        assertEquals(before.byPriority().get(TaskPriority.CRITICAL) + 1,
+                after.byPriority().get(TaskPriority.CRITICAL));
+        assertEquals(1L, after.topProperties().get(propertyId));
+        assertEquals(1L, after.topProperties().get(otherPropertyId));
+
+        taskStatsRegistry.rebuild();
+        assertEquals(counts(after), counts(taskStatsRegistry.stats(ALL)));
+    }
+
+    @Test
+    @DisplayName("Размер топа ограничивает объекты и исполнителей")
+    void stats_shouldLimitTop() {
+        createTask(PROPERTIES.incrementAndGet(), TaskPriority.LOW);
+        createTask(PROPERTIES.incrementAndGet(), TaskPriority.LOW);
+
+        TaskStatsResponse stats = taskStatsRegistry.stats(1);
+
+        assertEquals(1, stats.topProperties().size());
+        assertTrue(stats.topAssignees().size() <= 1);
+    }
+
+    private static List<Object> counts(TaskStatsResponse stats) {
+        return List.of(stats.total(), stats.unassigned(), stats.byStatus(), stats.byPriority(),
+                stats.topProperties(), stats.topAssignees());
+    }
+
+    private UUID createTask(long propertyId, TaskPriority priority) {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title("Проверка счётчиков")
+                .creatorId(1L)
+                .propertyId(propertyId)
+                .priority(priority)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,164 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.domain.TaskDomainService;
+import com.sberfintech.task.domain.exception.TaskOperationException;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskPriority;
+import com.sberfintech.task.model.TaskStatus;
+import com.sberfintech.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Пропускная способность эскалаций: прежний путь "прочитать - изменить - сохранить" через JPA
+ * против одного условного UPDATE ... RETURNING. Для прежнего пути дополнительно считаются потерянные обновления.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=WARN",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бенчмарк переходов статуса задачи")
+@Slf4j
+class TaskTransitionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int TASKS = 200;
+    private static final int TRANSITIONS = 20_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+    }
+
+    @Autowired
+    private TaskDomainService taskDomainService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("transitions/sec до и после")
+    void compareTransitionPaths() throws Exception {
+        List<UUID> legacyTasks = createTasks();
+        Result before = run(legacyTasks, this::legacyEscalate);
+
+        List<UUID> casTasks = createTasks();
+        Result after = run(casTasks, id -> taskDomainService.escalate(id, nextUser()));
+
+        log.info("read-modify-write: %,.0f transitions/sec, conflicts %d, lost updates %d"
+                .formatted(before.transitionsPerSecond(), before.conflicts(),
+                        before.succeeded() - escalationSum(legacyTasks)));
+        log.info("conditional update: %,.0f transitions/sec, conflicts %d, lost updates %d"
+                .formatted(after.transitionsPerSecond(), after.conflicts(),
+                        after.succeeded() - escalationSum(casTasks)));
+    }
+
+    /**
+     * Прежняя реализация escalate: загрузка сущности, изменение полей и полное сохранение.
+     * Version теперь есть у сущности, поэтому гонки проявляются как конфликты, а не как тихая перезапись.
+     */
+    private void legacyEscalate(UUID taskId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            long escalatedTo = nextUser();
+            task.setStatus(TaskStatus.ESCALATED);
+            task.setEscalationLevel(task.getEscalationLevel() + 1);
+            task.setEscalatedTo(escalatedTo);
+            task.setAssigneeId(escalatedTo);
+            taskRepository.save(task);
+        });
+    }
+
+    private Result run(List<UUID> taskIds, Consumer<UUID> transition) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(TRANSITIONS);
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < TRANSITIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    UUID taskId = taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+                    try {
+                        transition.accept(taskId);
+                        succeeded.incrementAndGet();
+                    } catch (OptimisticLockingFailureException | TaskOperationException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return new Result(succeeded.get() / seconds, succeeded.get(), conflicts.get());
+    }
+
+    private List<UUID> createTasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Бенчмарк переходов " + i)
+                    .creatorId(1L)
+                    .priority(TaskPriority.MEDIUM)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> taskDomainService.createAll(tasks)).stream()
+                .map(Task::getId)
+                .toList();
+    }
+
+    private long escalationSum(List<UUID> taskIds) {
+        return taskRepository.findAllById(taskIds).stream()
+                .mapToLong(Task::getEscalationLevel)
+                .sum();
+    }
+
+    private static long nextUser() {
+        return ThreadLocalRandom.current().nextLong(1_000, 1_000_000);
+    }
+
+    private record Result(double transitionsPerSecond, int succeeded, int conflicts) {
+    }
+}
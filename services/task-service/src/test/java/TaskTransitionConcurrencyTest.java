@@ -0,0 +1,147 @@
+import com.sberfintech.task.TaskServiceApplication;
+import com.sberfintech.task.dto.CreateTaskRequest;
+import com.sberfintech.task.dto.EventType;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.repository.TaskOutboxRepository;
+import com.sberfintech.task.repository.TaskRepository;
+import com.sberfintech.task.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TaskServiceApplication.class, properties = {
+        "task.outbox.relay.enabled=false",
+        "task.cache.invalidation.enabled=false",
+        "task.inbox.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.sberfintech.task=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Конкурентные переходы статуса задачи")
+class TaskTransitionConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Test
+    @DisplayName("Из одновременных назначений выигрывает ровно одно")
+    void concurrentAssign_shouldHaveSingleWinner() throws Exception {
+        UUID taskId = createTask();
+        ConcurrentLinkedQueue<Long> winners = new ConcurrentLinkedQueue<>();
+
+        int failures = runConcurrently(THREADS, i -> {
+            long assigneeId = 1_000L + i;
+            taskService.assignTask(taskId, assigneeId);
+            winners.add(assigneeId);
+        });
+
+        Task stored = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(1, winners.size());
+        assertEquals(THREADS - 1, failures);
+        assertEquals(winners.peek(), stored.getAssigneeId());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(1, countEvents(taskId, EventType.TASK_ASSIGNED));
+    }
+
+    @Test
+    @DisplayName("Одновременные эскалации не теряют обновлений")
+    void concurrentEscalate_shouldNotLoseUpdates() throws Exception {
+        int escalations = THREADS * 16;
+        UUID taskId = createTask();
+
+        int failures = runConcurrently(escalations, i -> taskService.escalateTask(taskId, 2_000L + i));
+
+        Task stored = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(0, failures);
+        assertEquals(escalations, stored.getEscalationLevel());
+        assertEquals(escalations, stored.getVersion());
+        assertEquals(escalations, countEvents(taskId, EventType.TASK_ESCALATED));
+    }
+
+    private UUID createTask() {
+        return taskService.createTask(CreateTaskRequest.builder()
+                .title("Проверка конкурентных переходов")
+                .creatorId(1L)
+                .build()).getId();
+    }
+
+    /**
+     * Запускает attempts вызовов на THREADS потоках одновременно и возвращает число ожидаемых отказов
+     * (правило перехода или конфликт версии). Любое другое исключение валит тест.
+     */
+    private int runConcurrently(int attempts, IntConsumer action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(attempts);
+        try {
+            for (int i = 0; i < attempts; i++) {
+                int attempt = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        action.accept(attempt);
+                    } catch (IllegalArgumentException | OptimisticLockingFailureException e) {
+                        failures.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return failures.get();
+    }
+
+    private long countEvents(UUID taskId, EventType eventType) {
+        return taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(taskId) && event.getEventType() == eventType)
+                .count();
+    }
+}
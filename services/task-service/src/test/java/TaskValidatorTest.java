@@ -0,0 +1,132 @@
+import com.sberfintech.task.domain.TaskValidator;
+import com.sberfintech.task.domain.exception.TaskOperationException;
+import com.sberfintech.task.model.Task;
+import com.sberfintech.task.model.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit-тесты для TaskValidator")
+class TaskValidatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskValidator taskValidator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskValidator = new TaskValidator(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Счётчики по всем правилам зарегистрированы с нуля")
+    void constructor_shouldRegisterCounterPerRule() {
+        assertEquals(16, meterRegistry.find("task.validation.failures").counters().size());
+        assertEquals(0, failures("title_missing"));
+        assertEquals(0, failures("escalation_to_self"));
+    }
+
+    @Test
+    @DisplayName("Отказ увеличивает счётчик только нарушенного правила")
+    void reject_shouldIncrementCounterOfViolatedRule() {
+        Task withoutTitle = Task.builder().creatorId(1L).build();
+        Task pastDue = Task.builder().title("Задача").creatorId(1L).dueDate(LocalDateTime.now().minusDays(1)).build();
+
+        assertThrows(ValidationException.class, () -> taskValidator.validateForCreate(withoutTitle));
+        assertThrows(ValidationException.class, () -> taskValidator.validateForCreate(withoutTitle));
+        assertThrows(ValidationException.class, () -> taskValidator.validateForCreate(pastDue));
+
+        assertEquals(2, failures("title_missing"));
+        assertEquals(1, failures("due_date_in_past"));
+        assertEquals(0, failures("creator_missing"));
+        assertEquals(3, meterRegistry.find("task.validation.failures").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum());
+    }
+
+    @Test
+    @DisplayName("Каждая операция считает отказы под своим правилом")
+    void validate_shouldCountFailuresPerRuleAcrossOperations() {
+        Task assigned = Task.builder().id(UUID.randomUUID()).status(TaskStatus.ASSIGNED).assigneeId(7L).build();
+        Task completed = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).assigneeId(7L).build();
+        Task canceled = Task.builder().id(UUID.randomUUID()).status(TaskStatus.CANCELED).build();
+
+        assertThrows(IllegalArgumentException.class, () -> taskValidator.validateAssignee(assigned, 8L));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateForStart(assigned, 8L));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateForComplete(assigned, 8L));
+        assertThrows(IllegalStateException.class, () -> taskValidator.validateForStart(completed, 7L));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateForUpdate(completed));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateForCancel(canceled));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateEscalation(canceled, 9L));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateEscalation(assigned, 7L));
+
+        assertEquals(1, failures("already_assigned"));
+        assertEquals(2, failures("not_assignee"));
+        assertEquals(1, failures("not_startable"));
+        assertEquals(1, failures("update_of_closed"));
+        assertEquals(1, failures("not_cancellable"));
+        assertEquals(1, failures("escalation_of_closed"));
+        assertEquals(1, failures("escalation_to_self"));
+    }
+
+    @Test
+    @DisplayName("Повторное завершение закрытой задачи отклоняется как недопустимый статус, а не как чужая задача")
+    void validateForComplete_shouldRejectClosedTask() {
+        Task completed = Task.builder().id(UUID.randomUUID()).status(TaskStatus.COMPLETED).assigneeId(7L).build();
+        Task canceled = Task.builder().id(UUID.randomUUID()).status(TaskStatus.CANCELED).assigneeId(7L).build();
+        Task inProgress = Task.builder().id(UUID.randomUUID()).status(TaskStatus.IN_PROGRESS).assigneeId(7L).build();
+
+        TaskOperationException repeated = assertThrows(TaskOperationException.class,
+                () -> taskValidator.validateForComplete(completed, 7L));
+        assertThrows(TaskOperationException.class, () -> taskValidator.validateForComplete(canceled, 7L));
+        taskValidator.validateForComplete(inProgress, 7L);
+
+        assertEquals("Cannot complete task with status: COMPLETED", repeated.getMessage());
+        assertEquals(2, failures("not_completable"));
+        assertEquals(0, failures("not_assignee"));
+    }
+
+    @Test
+    @DisplayName("Просроченную задачу можно назначить и взять в работу, но взять в работу повторно нельзя")
+    void validate_shouldAllowAssignAndStartOfOverdueTask() {
+        Task unassigned = Task.builder().id(UUID.randomUUID()).status(TaskStatus.OVERDUE)
+                .statusBeforeOverdue(TaskStatus.NEW).build();
+        Task assigned = Task.builder().id(UUID.randomUUID()).status(TaskStatus.OVERDUE)
+                .statusBeforeOverdue(TaskStatus.ASSIGNED).assigneeId(7L).build();
+        Task started = Task.builder().id(UUID.randomUUID()).status(TaskStatus.OVERDUE)
+                .statusBeforeOverdue(TaskStatus.IN_PROGRESS).assigneeId(7L).build();
+
+        taskValidator.validateAssignee(unassigned, 7L);
+        taskValidator.validateForStart(assigned, 7L);
+        assertThrows(IllegalStateException.class, () -> taskValidator.validateForStart(started, 7L));
+
+        assertEquals(1, failures("not_startable"));
+        assertEquals(0, failures("not_assignable"));
+    }
+
+    @Test
+    @DisplayName("Успешная проверка счётчики не трогает")
+    void validate_shouldNotCountPassedChecks() {
+        Task task = Task.builder().title("Задача").creatorId(1L).status(TaskStatus.NEW).build();
+
+        taskValidator.validateForCreate(task);
+        taskValidator.validateAssignee(task, 7L);
+        taskValidator.validateForCancel(task);
+
+        assertEquals(0, meterRegistry.find("task.validation.failures").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum());
+    }
+
+    private double failures(String rule) {
+        return meterRegistry.get("task.validation.failures").tag("rule", rule).counter().count();
+    }
+}
@@ -0,0 +1,191 @@
+import com.sberfintech.task.TaskServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность и p99 чтения списка задач исполнителя при 1k/5k/10k одновременных клиентов:
+ * пул платформенных потоков Tomcat против виртуальных потоков с семафором перед пулом соединений.
+ * Каждому клиенту нужен сокет, поэтому ulimit -n должен быть не меньше 32768.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest(classes = TaskServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "task.outbox.relay.enabled=false",
+                "task.cache.invalidation.enabled=false",
+                "task.inbox.enabled=false",
+                "task.overdue.enabled=false",
+                "task.escalation.enabled=false",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.sberfintech.task=WARN",
+                "logging.level.org.hibernate.SQL=INFO",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+        })
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Бенчмарк виртуальных потоков")
+@Slf4j
+class TaskVirtualThreadsBenchmark {
+
+    private static final int TASKS = 50_000;
+    private static final int ASSIGNEES = 1_000;
+    private static final int[] CLIENTS = {1_000, 5_000, 10_000};
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"spring.threads.virtual.enabled=false", "task.db-governor.enabled=false"})
+    @DisplayName("Платформенные потоки")
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("1k/5k/10k клиентов")
+        void concurrentClients() throws Exception {
+            run("platform", port, jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"spring.threads.virtual.enabled=true", "task.db-governor.enabled=true"})
+    @DisplayName("Виртуальные потоки с семафором")
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("1k/5k/10k клиентов")
+        void concurrentClients() throws Exception {
+            run("virtual", port, jdbcTemplate);
+        }
+    }
+
+    private static void run(String mode, int port, JdbcTemplate jdbcTemplate) throws Exception {
+        seed(jdbcTemplate);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String baseUrl = "http://localhost:" + port + "/api/v1/tasks/assignee/";
+
+            measure(mode, http, clients, baseUrl, CLIENTS[0], false);
+            for (int concurrency : CLIENTS) {
+                measure(mode, http, clients, baseUrl, concurrency, true);
+            }
+        }
+    }
+
+    private static void measure(String mode, HttpClient http, ExecutorService clients, String baseUrl,
+                                int concurrency, boolean report) throws Exception {
+        long[] latencies = new long[concurrency * REQUESTS_PER_CLIENT];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            futures.add(clients.submit(() -> {
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    long assignee = ThreadLocalRandom.current().nextInt(ASSIGNEES);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + assignee + "?size=20"))
+                            .timeout(Duration.ofMinutes(3))
+                            .GET()
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - sent;
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        int ok = completed.get();
+        assertTrue(ok > 0, "no request succeeded");
+        if (!report) {
+            return;
+        }
+        long[] done = Arrays.copyOf(latencies, ok);
+        Arrays.sort(done);
+        log.info("%-8s %6d clients: %8.0f req/s, p50 %8.1f ms, p99 %8.1f ms, %6d failed"
+                .formatted(mode, concurrency, ok / seconds, done[ok / 2] / 1e6, done[(int) (ok * 0.99)] / 1e6,
+                        failed.get()));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Integer.class);
+        if (existing != null && existing >= TASKS) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, status, priority, creation_date, due_date, creator_id,
+                                   assignee_id, escalation_level, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'Бенчмарк потоков ' || g, 'описание', 'ASSIGNED', 'MEDIUM', now(),
+                       now() + interval '1 day', 1, g % ?, 0, now() - g * interval '1 second', now(), 0
+                FROM generate_series(1, ?) AS g
+                """, ASSIGNEES, TASKS);
+        jdbcTemplate.execute("ANALYZE tasks");
+    }
+}